@@ -2,9 +2,15 @@ package com.k2so.watcher.controller;
 
 import com.k2so.watcher.model.AppSettings;
 import com.k2so.watcher.model.User;
+import com.k2so.watcher.util.OuiIndex;
+import com.k2so.watcher.util.OuiLookup;
 import com.k2so.watcher.service.AppSettingsService;
 import com.k2so.watcher.service.BackupService;
+import com.k2so.watcher.service.DeviceTypeRulesService;
+import com.k2so.watcher.service.MacVendorService;
+import com.k2so.watcher.service.NetworkScannerService;
 import com.k2so.watcher.service.SambaBackupService;
+import com.k2so.watcher.service.ScannerCapabilityService;
 import com.k2so.watcher.service.UserService;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -18,6 +24,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -30,13 +37,25 @@ public class AdminController {
     private final AppSettingsService appSettingsService;
     private final BackupService backupService;
     private final SambaBackupService sambaBackupService;
+    private final ScannerCapabilityService scannerCapabilityService;
+    private final NetworkScannerService networkScannerService;
+    private final MacVendorService macVendorService;
+    private final DeviceTypeRulesService deviceTypeRulesService;
 
     public AdminController(UserService userService, AppSettingsService appSettingsService,
-                          BackupService backupService, SambaBackupService sambaBackupService) {
+                          BackupService backupService, SambaBackupService sambaBackupService,
+                          ScannerCapabilityService scannerCapabilityService,
+                          NetworkScannerService networkScannerService,
+                          MacVendorService macVendorService,
+                          DeviceTypeRulesService deviceTypeRulesService) {
         this.userService = userService;
         this.appSettingsService = appSettingsService;
         this.backupService = backupService;
         this.sambaBackupService = sambaBackupService;
+        this.scannerCapabilityService = scannerCapabilityService;
+        this.networkScannerService = networkScannerService;
+        this.macVendorService = macVendorService;
+        this.deviceTypeRulesService = deviceTypeRulesService;
     }
 
     @GetMapping("/users")
@@ -280,4 +299,53 @@ public class AdminController {
                 "message", result
         ));
     }
+
+    @GetMapping("/scanner-capabilities")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> scannerCapabilities() {
+        return ResponseEntity.ok(describeScannerCapabilities());
+    }
+
+    @PostMapping("/scanner-capabilities/refresh")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> refreshScannerCapabilities() {
+        scannerCapabilityService.refresh();
+        return ResponseEntity.ok(describeScannerCapabilities());
+    }
+
+    @PostMapping("/oui-registry/reload")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> reloadOuiRegistry() {
+        OuiLookup registry = macVendorService.reload();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("path", macVendorService.getRegistryPath());
+        response.put("assignments", registry.size());
+        response.put("vendors", registry.getVendorCount());
+        response.put("estimatedHeapBytes", registry.estimateHeapBytes());
+        if (registry instanceof OuiIndex index) {
+            response.put("mappedBytes", index.getMappedBytes());
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/device-rules/reload")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> reloadDeviceRules() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("path", deviceTypeRulesService.getRulesPath());
+        try {
+            response.put("rules", deviceTypeRulesService.reload().toString());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    private Map<String, Object> describeScannerCapabilities() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("capabilities", scannerCapabilityService.getCapabilities());
+        response.put("toolSelection", networkScannerService.previewToolSelection());
+        return response;
+    }
 }
@@ -1,15 +1,29 @@
 package com.k2so.watcher.controller;
 
-import com.k2so.watcher.model.Device;
+import com.k2so.watcher.dto.DashboardSnapshot;
+import com.k2so.watcher.dto.DeviceDetail;
+import com.k2so.watcher.dto.DeviceFilter;
+import com.k2so.watcher.dto.DevicePage;
+import com.k2so.watcher.dto.DeviceSort;
+import com.k2so.watcher.dto.DeviceSummary;
+import com.k2so.watcher.dto.ScanDetail;
+import com.k2so.watcher.dto.ScanHistoryPage;
+import com.k2so.watcher.dto.ScanSummary;
+import com.k2so.watcher.dto.SparseFields;
+import com.k2so.watcher.model.DeviceType;
 import com.k2so.watcher.model.NetworkScan;
+import com.k2so.watcher.service.DashboardSnapshotService;
+import com.k2so.watcher.service.DeepScanScheduler;
 import com.k2so.watcher.service.DeviceService;
 import com.k2so.watcher.service.NetworkScannerService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api")
@@ -17,48 +31,110 @@ public class ApiController {
 
     private final DeviceService deviceService;
     private final NetworkScannerService networkScannerService;
+    private final DeepScanScheduler deepScanScheduler;
+    private final DashboardSnapshotService dashboardSnapshotService;
 
-    public ApiController(DeviceService deviceService, NetworkScannerService networkScannerService) {
+    public ApiController(DeviceService deviceService, NetworkScannerService networkScannerService,
+                         DeepScanScheduler deepScanScheduler, DashboardSnapshotService dashboardSnapshotService) {
         this.deviceService = deviceService;
         this.networkScannerService = networkScannerService;
+        this.deepScanScheduler = deepScanScheduler;
+        this.dashboardSnapshotService = dashboardSnapshotService;
     }
 
+    /**
+     * One page of device summaries. Filters: {@code online}, {@code known}, {@code type} (a {@link DeviceType} name),
+     * {@code vendor} (substring) and {@code subnet} ({@code 10.40.30.0/25}). {@code sort} is {@code lastSeen}
+     * (default, newest first), {@code firstSeen} or {@code ip}; subnet listings default to {@code ip}.
+     * Pass the returned {@code nextCursor} as {@code cursor} to get the next page, and {@code fields=id,ipAddress,..}
+     * to return only some {@link DeviceSummary} fields.
+     */
     @GetMapping("/devices")
-    public ResponseEntity<List<Device>> getAllDevices() {
-        return ResponseEntity.ok(deviceService.getAllDevices());
+    public ResponseEntity<DevicePage<?>> getDevices(@RequestParam(value = "online", required = false) Boolean online,
+                                                    @RequestParam(value = "known", required = false) Boolean known,
+                                                    @RequestParam(value = "type", required = false) String type,
+                                                    @RequestParam(value = "vendor", required = false) String vendor,
+                                                    @RequestParam(value = "subnet", required = false) String subnet,
+                                                    @RequestParam(value = "sort", required = false) String sort,
+                                                    @RequestParam(value = "cursor", required = false) String cursor,
+                                                    @RequestParam(value = "limit", defaultValue = "" + DeviceService.DEFAULT_PAGE_SIZE) int limit,
+                                                    @RequestParam(value = "fields", required = false) String fields) {
+        try {
+            SparseFields<DeviceSummary> selection = SparseFields.parse(fields, DeviceSummary.class);
+            DeviceFilter filter = DeviceFilter.fromParameters(online, known, type, vendor, subnet);
+            DeviceSort deviceSort = (sort == null || sort.isBlank()) && filter.getSubnet() != null
+                    ? DeviceSort.IP : DeviceSort.fromParameter(sort);
+            DevicePage<DeviceSummary> page = deviceService.getDeviceSummaryPage(filter, deviceSort, cursor, limit);
+            if (selection == null) {
+                return ResponseEntity.ok(page);
+            }
+            return ResponseEntity.ok(new DevicePage<>(selection.apply(page.getDevices()), page.getNextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/devices/online")
-    public ResponseEntity<List<Device>> getOnlineDevices() {
-        return ResponseEntity.ok(deviceService.getOnlineDevices());
+    public ResponseEntity<DevicePage<?>> getOnlineDevices(@RequestParam(value = "cursor", required = false) String cursor,
+                                                          @RequestParam(value = "limit", defaultValue = "" + DeviceService.DEFAULT_PAGE_SIZE) int limit,
+                                                          @RequestParam(value = "fields", required = false) String fields) {
+        return getDevices(true, null, null, null, null, null, cursor, limit, fields);
     }
 
     @GetMapping("/devices/unknown")
-    public ResponseEntity<List<Device>> getUnknownDevices() {
-        return ResponseEntity.ok(deviceService.getUnknownDevices());
+    public ResponseEntity<DevicePage<?>> getUnknownDevices(@RequestParam(value = "cursor", required = false) String cursor,
+                                                           @RequestParam(value = "limit", defaultValue = "" + DeviceService.DEFAULT_PAGE_SIZE) int limit,
+                                                           @RequestParam(value = "fields", required = false) String fields) {
+        return getDevices(null, false, null, null, null, null, cursor, limit, fields);
     }
 
+    /**
+     * A single device with notes, open ports and service links; {@code fields=} selects {@link DeviceDetail} fields.
+     */
     @GetMapping("/devices/{id}")
-    public ResponseEntity<Device> getDevice(@PathVariable Long id) {
-        return deviceService.getDeviceById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<?> getDevice(@PathVariable Long id,
+                                       @RequestParam(value = "fields", required = false) String fields) {
+        SparseFields<DeviceDetail> selection;
+        try {
+            selection = SparseFields.parse(fields, DeviceDetail.class);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<DeviceDetail> detail = deviceService.getDeviceDetail(id);
+        if (detail.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(selection != null ? selection.apply(detail.get()) : detail.get());
     }
 
+    /**
+     * Dashboard counts from the in-memory snapshot. The ETag changes with the snapshot version and the scan status,
+     * so pollers sending {@code If-None-Match} get an empty 304 until something changed.
+     */
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getStats() {
+    public ResponseEntity<Map<String, Object>> getStats(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        DashboardSnapshot snapshot = dashboardSnapshotService.getSnapshot();
+        boolean scanInProgress = networkScannerService.isScanInProgress();
+        String etag = "\"" + snapshot.getVersion() + (scanInProgress ? "-scanning" : "") + "\"";
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalDevices", deviceService.countTotalDevices());
-        stats.put("onlineDevices", deviceService.countOnlineDevices());
-        stats.put("unknownDevices", deviceService.countUnknownDevices());
-        stats.put("scanInProgress", networkScannerService.isScanInProgress());
-
-        networkScannerService.getLatestScan().ifPresent(scan -> {
-            stats.put("lastScanTime", scan.getStartedAt());
-            stats.put("lastScanStatus", scan.getStatus());
-        });
+        stats.put("version", snapshot.getVersion());
+        stats.put("totalDevices", snapshot.getTotalDevices());
+        stats.put("onlineDevices", snapshot.getOnlineDevices());
+        stats.put("unknownDevices", snapshot.getUnknownDevices());
+        stats.put("scanInProgress", scanInProgress);
+
+        ScanSummary lastScan = snapshot.getLastScan();
+        if (lastScan != null) {
+            stats.put("lastScanTime", lastScan.startedAt());
+            stats.put("lastScanStatus", lastScan.status());
+        }
 
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok().eTag(etag).body(stats);
     }
 
     @PostMapping("/scan/start")
@@ -89,27 +165,61 @@ public class ApiController {
         Map<String, Object> status = new HashMap<>();
         status.put("scanInProgress", networkScannerService.isScanInProgress());
 
-        networkScannerService.getLatestScan().ifPresent(scan -> {
-            status.put("lastScanId", scan.getId());
-            status.put("lastScanStatus", scan.getStatus());
-            status.put("lastScanTime", scan.getStartedAt());
-            status.put("devicesFound", scan.getDevicesFound());
-            status.put("newDevices", scan.getNewDevices());
+        networkScannerService.getLatestScanSummary().ifPresent(scan -> {
+            status.put("lastScanId", scan.id());
+            status.put("lastScanStatus", scan.status());
+            status.put("lastScanTime", scan.startedAt());
+            status.put("devicesFound", scan.devicesFound());
+            status.put("newDevices", scan.newDevices());
         });
 
+        status.put("deepScanQueue", deepScanScheduler.getQueueStatus());
+
         return ResponseEntity.ok(status);
     }
 
     @GetMapping("/scan/{id}")
-    public ResponseEntity<NetworkScan> getScan(@PathVariable Long id) {
+    public ResponseEntity<ScanDetail> getScan(@PathVariable Long id) {
         return networkScannerService.getScanById(id)
+                .map(ScanDetail::of)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Scan history newest first, without logs or results. Pass {@code nextCursor} back as {@code cursor} for older
+     * scans; {@code fields=} selects {@link ScanSummary} fields.
+     */
+    @GetMapping("/scans")
+    public ResponseEntity<ScanHistoryPage<?>> getScanHistory(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") int limit,
+            @RequestParam(value = "fields", required = false) String fields) {
+        try {
+            SparseFields<ScanSummary> selection = SparseFields.parse(fields, ScanSummary.class);
+            ScanHistoryPage<ScanSummary> page = networkScannerService.getScanHistory(cursor, limit);
+            if (selection == null) {
+                return ResponseEntity.ok(page);
+            }
+            return ResponseEntity.ok(new ScanHistoryPage<>(selection.apply(page.getScans()), page.getNextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * The latest scans without logs or results; {@code fields=} selects {@link ScanSummary} fields.
+     */
     @GetMapping("/scans/recent")
-    public ResponseEntity<List<NetworkScan>> getRecentScans(
-            @RequestParam(value = "limit", defaultValue = "10") int limit) {
-        return ResponseEntity.ok(networkScannerService.getRecentScans(limit));
+    public ResponseEntity<List<?>> getRecentScans(
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            @RequestParam(value = "fields", required = false) String fields) {
+        try {
+            SparseFields<ScanSummary> selection = SparseFields.parse(fields, ScanSummary.class);
+            List<ScanSummary> scans = networkScannerService.getRecentScanSummaries(limit);
+            return ResponseEntity.ok(selection != null ? selection.apply(scans) : scans);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 }
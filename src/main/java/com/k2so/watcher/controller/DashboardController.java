@@ -1,8 +1,7 @@
 package com.k2so.watcher.controller;
 
-import com.k2so.watcher.model.Device;
-import com.k2so.watcher.model.NetworkScan;
-import com.k2so.watcher.service.DeviceService;
+import com.k2so.watcher.dto.DashboardSnapshot;
+import com.k2so.watcher.service.DashboardSnapshotService;
 import com.k2so.watcher.service.NetworkScannerService;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.security.core.Authentication;
@@ -10,17 +9,15 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
-import java.util.List;
-import java.util.Optional;
-
 @Controller
 public class DashboardController {
 
-    private final DeviceService deviceService;
+    private final DashboardSnapshotService dashboardSnapshotService;
     private final NetworkScannerService networkScannerService;
 
-    public DashboardController(DeviceService deviceService, NetworkScannerService networkScannerService) {
-        this.deviceService = deviceService;
+    public DashboardController(DashboardSnapshotService dashboardSnapshotService,
+                               NetworkScannerService networkScannerService) {
+        this.dashboardSnapshotService = dashboardSnapshotService;
         this.networkScannerService = networkScannerService;
     }
 
@@ -37,37 +34,16 @@ public class DashboardController {
             return "redirect:/totp-setup";
         }
 
-        // Dashboard stats
-        long totalDevices = deviceService.countTotalDevices();
-        long onlineDevices = deviceService.countOnlineDevices();
-        long unknownDevices = deviceService.countUnknownDevices();
-
-        model.addAttribute("totalDevices", totalDevices);
-        model.addAttribute("onlineDevices", onlineDevices);
-        model.addAttribute("unknownDevices", unknownDevices);
-
-        // Recent devices
-        List<Device> recentDevices = deviceService.getAllDevices();
-        if (recentDevices.size() > 10) {
-            recentDevices = recentDevices.subList(0, 10);
-        }
-        model.addAttribute("recentDevices", recentDevices);
-
-        // Online devices for display
-        List<Device> onlineDeviceList = deviceService.getOnlineDevices();
-        model.addAttribute("onlineDeviceList", onlineDeviceList);
-
-        // Unknown/potential intruders
-        List<Device> unknownDeviceList = deviceService.getUnknownDevices();
-        model.addAttribute("unknownDeviceList", unknownDeviceList);
-
-        // Pinned devices for quick access
-        List<Device> pinnedDevices = deviceService.getPinnedDevices();
-        model.addAttribute("pinnedDevices", pinnedDevices);
-
-        // Last scan info
-        Optional<NetworkScan> lastScan = networkScannerService.getLatestScan();
-        lastScan.ifPresent(scan -> model.addAttribute("lastScan", scan));
+        // Counts, device lists and last scan come precomputed from memory
+        DashboardSnapshot snapshot = dashboardSnapshotService.getSnapshot();
+        model.addAttribute("totalDevices", snapshot.getTotalDevices());
+        model.addAttribute("onlineDevices", snapshot.getOnlineDevices());
+        model.addAttribute("unknownDevices", snapshot.getUnknownDevices());
+        model.addAttribute("recentDevices", snapshot.getRecentDevices());
+        model.addAttribute("onlineDeviceList", snapshot.getOnlineDeviceList());
+        model.addAttribute("unknownDeviceList", snapshot.getUnknownDeviceList());
+        model.addAttribute("pinnedDevices", snapshot.getPinnedDevices());
+        model.addAttribute("lastScan", snapshot.getLastScan());
 
         // Scan status
         model.addAttribute("scanInProgress", networkScannerService.isScanInProgress());
@@ -1,12 +1,17 @@
 package com.k2so.watcher.controller;
 
 import com.k2so.watcher.dto.DeviceAnalysisResult;
+import com.k2so.watcher.dto.DeviceFilter;
+import com.k2so.watcher.dto.DevicePage;
+import com.k2so.watcher.dto.DeviceSort;
+import com.k2so.watcher.model.DeepScanJob;
 import com.k2so.watcher.model.Device;
+import com.k2so.watcher.model.DeviceDetails;
 import com.k2so.watcher.model.DeviceType;
 import com.k2so.watcher.service.AIIdentificationService;
+import com.k2so.watcher.service.DeepScanScheduler;
 import com.k2so.watcher.service.DeviceService;
 import com.k2so.watcher.service.LangChain4jService;
-import com.k2so.watcher.service.NetworkScannerService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -20,38 +25,62 @@ public class DeviceController {
 
     private final DeviceService deviceService;
     private final AIIdentificationService aiIdentificationService;
-    private final NetworkScannerService networkScannerService;
+    private final DeepScanScheduler deepScanScheduler;
     private final LangChain4jService langChain4jService;
 
     public DeviceController(DeviceService deviceService,
                            AIIdentificationService aiIdentificationService,
-                           NetworkScannerService networkScannerService,
+                           DeepScanScheduler deepScanScheduler,
                            LangChain4jService langChain4jService) {
         this.deviceService = deviceService;
         this.aiIdentificationService = aiIdentificationService;
-        this.networkScannerService = networkScannerService;
+        this.deepScanScheduler = deepScanScheduler;
         this.langChain4jService = langChain4jService;
     }
 
     @GetMapping
-    public String listDevices(@RequestParam(value = "filter", required = false) String filter, Model model) {
+    public String listDevices(@RequestParam(value = "filter", required = false) String filter,
+                              @RequestParam(value = "subnet", required = false) String subnet,
+                              @RequestParam(value = "type", required = false) String type,
+                              @RequestParam(value = "vendor", required = false) String vendor,
+                              @RequestParam(value = "sort", required = false) String sort,
+                              @RequestParam(value = "cursor", required = false) String cursor,
+                              Model model) {
+        String currentFilter = "online".equals(filter) || "unknown".equals(filter) || "duplicates".equals(filter)
+                ? filter : "all";
         List<Device> devices;
+        String nextCursor = null;
 
-        if ("online".equals(filter)) {
-            devices = deviceService.getOnlineDevices();
-            model.addAttribute("currentFilter", "online");
-        } else if ("unknown".equals(filter)) {
-            devices = deviceService.getUnknownDevices();
-            model.addAttribute("currentFilter", "unknown");
-        } else if ("duplicates".equals(filter)) {
-            devices = deviceService.getDevicesWithDuplicateIps();
-            model.addAttribute("currentFilter", "duplicates");
-        } else {
-            devices = deviceService.getAllDevices();
-            model.addAttribute("currentFilter", "all");
+        try {
+            if ("duplicates".equals(currentFilter)) {
+                // Duplicate groups are small and only make sense complete, so they are not paged
+                devices = subnet != null && !subnet.isBlank() ? deviceService.getDevicesWithDuplicateIpsInSubnet(subnet)
+                        : deviceService.getDevicesWithDuplicateIps();
+            } else {
+                DeviceFilter deviceFilter = DeviceFilter.fromParameters(
+                        "online".equals(currentFilter) ? Boolean.TRUE : null,
+                        "unknown".equals(currentFilter) ? Boolean.FALSE : null,
+                        type, vendor, subnet);
+                DevicePage<Device> page = deviceService.getDevicePage(deviceFilter, DeviceSort.fromParameter(sort), cursor,
+                        DeviceService.DEFAULT_PAGE_SIZE);
+                devices = page.getDevices();
+                nextCursor = page.getNextCursor();
+            }
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("error", "Invalid filter: " + e.getMessage());
+            devices = List.of();
         }
 
         model.addAttribute("devices", devices);
+        model.addAttribute("currentFilter", currentFilter);
+        model.addAttribute("nextCursor", nextCursor);
+        model.addAttribute("pagedFrom", cursor != null && !cursor.isBlank());
+        model.addAttribute("subnet", subnet != null && !subnet.isBlank() ? subnet.trim() : null);
+        model.addAttribute("type", type != null && !type.isBlank() ? type : null);
+        model.addAttribute("vendor", vendor != null && !vendor.isBlank() ? vendor.trim() : null);
+        model.addAttribute("sort", DeviceSort.LAST_SEEN.getParameter().equals(sort) || sort == null || sort.isBlank()
+                ? null : sort);
+        model.addAttribute("sorts", DeviceSort.values());
         model.addAttribute("deviceTypes", DeviceType.values());
 
         return "devices";
@@ -63,6 +92,7 @@ public class DeviceController {
                 .orElseThrow(() -> new IllegalArgumentException("Device not found"));
 
         model.addAttribute("device", device);
+        model.addAttribute("details", deviceService.getDetails(device));
         model.addAttribute("deviceTypes", DeviceType.values());
         model.addAttribute("aiEnabled", aiIdentificationService.isEnabled());
         model.addAttribute("langChain4jConfigured", langChain4jService.isConfigured());
@@ -158,9 +188,15 @@ public class DeviceController {
                 return "redirect:/devices/" + id;
             }
 
-            // Start deep scan asynchronously
-            networkScannerService.performDeepScanAsync(id);
-            redirectAttributes.addFlashAttribute("success", "Deep scan started. This may take a few minutes. Refresh the page to see results.");
+            // Queue the deep scan; manual requests run before scans queued for newly discovered devices
+            DeepScanJob job = deepScanScheduler.enqueueManual(id);
+            if ("RUNNING".equals(job.getStatus())) {
+                redirectAttributes.addFlashAttribute("success", "A deep scan of this device is already running. "
+                        + "It will be scanned again when that one finishes.");
+            } else {
+                redirectAttributes.addFlashAttribute("success",
+                        "Deep scan queued. This may take a few minutes. Refresh the page to see results.");
+            }
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", "Error starting deep scan: " + e.getMessage());
         }
@@ -174,12 +210,13 @@ public class DeviceController {
             Device device = deviceService.getDeviceById(id)
                     .orElseThrow(() -> new IllegalArgumentException("Device not found"));
 
-            if (device.getDeepScanLog() == null || device.getDeepScanLog().isEmpty()) {
+            DeviceDetails details = deviceService.getDetails(device);
+            if (details.getDeepScanLog() == null || details.getDeepScanLog().isEmpty()) {
                 redirectAttributes.addFlashAttribute("error", "Cannot analyze: device has no deep scan log. Run a deep scan first.");
                 return "redirect:/devices/" + id;
             }
 
-            DeviceAnalysisResult result = langChain4jService.analyzeDeepScanLog(device);
+            DeviceAnalysisResult result = langChain4jService.analyzeDeepScanLog(device, details);
 
             // Update device with AI analysis results
             if (result.getDeviceType() != null) {
@@ -189,7 +226,8 @@ public class DeviceController {
                 device.setCustomName(result.getSuggestedName());
             }
             if (result.getNotes() != null && !result.getNotes().isEmpty()) {
-                device.setNotes(result.getNotes());
+                details.setNotes(result.getNotes());
+                deviceService.saveDetails(details);
             }
 
             deviceService.saveDevice(device);
@@ -1,5 +1,7 @@
 package com.k2so.watcher.controller;
 
+import com.k2so.watcher.dto.ScanHistoryPage;
+import com.k2so.watcher.dto.ScanSummary;
 import com.k2so.watcher.model.NetworkScan;
 import com.k2so.watcher.model.ScanResult;
 import com.k2so.watcher.service.NetworkScannerService;
@@ -14,6 +16,8 @@ import java.util.List;
 @RequestMapping("/scan")
 public class ScanController {
 
+    private static final int HISTORY_PAGE_SIZE = 20;
+
     private final NetworkScannerService networkScannerService;
 
     public ScanController(NetworkScannerService networkScannerService) {
@@ -21,9 +25,18 @@ public class ScanController {
     }
 
     @GetMapping
-    public String scanPage(Model model) {
-        List<NetworkScan> recentScans = networkScannerService.getRecentScans(20);
-        model.addAttribute("recentScans", recentScans);
+    public String scanPage(@RequestParam(value = "cursor", required = false) String cursor, Model model) {
+        ScanHistoryPage<ScanSummary> page;
+        try {
+            page = networkScannerService.getScanHistory(cursor, HISTORY_PAGE_SIZE);
+        } catch (IllegalArgumentException e) {
+            // Stale or hand-edited cursor: start over from the newest scans
+            cursor = null;
+            page = networkScannerService.getScanHistory(null, HISTORY_PAGE_SIZE);
+        }
+        model.addAttribute("recentScans", page.getScans());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("pagedFrom", cursor != null && !cursor.isBlank());
         model.addAttribute("scanInProgress", networkScannerService.isScanInProgress());
 
         return "scan-results";
@@ -54,6 +67,7 @@ public class ScanController {
 
         model.addAttribute("scan", scan);
         model.addAttribute("results", results);
+        model.addAttribute("rangeResults", networkScannerService.getScanRangeResults(id));
 
         return "scan-detail";
     }
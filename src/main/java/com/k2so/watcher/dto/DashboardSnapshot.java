@@ -0,0 +1,82 @@
+package com.k2so.watcher.dto;
+
+import com.k2so.watcher.model.Device;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Everything the dashboard shows except the live scan-in-progress flag, built off the request path. The version
+ * grows with every rebuild and doubles as the ETag of {@code /api/stats}.
+ */
+public class DashboardSnapshot {
+
+    private final long version;
+    private final LocalDateTime builtAt;
+    private final long totalDevices;
+    private final long onlineDevices;
+    private final long unknownDevices;
+    private final List<Device> recentDevices;
+    private final List<Device> onlineDeviceList;
+    private final List<Device> unknownDeviceList;
+    private final List<Device> pinnedDevices;
+    private final ScanSummary lastScan;
+
+    public DashboardSnapshot(long version, LocalDateTime builtAt, long totalDevices, long onlineDevices,
+                             long unknownDevices, List<Device> recentDevices, List<Device> onlineDeviceList,
+                             List<Device> unknownDeviceList, List<Device> pinnedDevices, ScanSummary lastScan) {
+        this.version = version;
+        this.builtAt = builtAt;
+        this.totalDevices = totalDevices;
+        this.onlineDevices = onlineDevices;
+        this.unknownDevices = unknownDevices;
+        this.recentDevices = List.copyOf(recentDevices);
+        this.onlineDeviceList = List.copyOf(onlineDeviceList);
+        this.unknownDeviceList = List.copyOf(unknownDeviceList);
+        this.pinnedDevices = List.copyOf(pinnedDevices);
+        this.lastScan = lastScan;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getBuiltAt() {
+        return builtAt;
+    }
+
+    public long getTotalDevices() {
+        return totalDevices;
+    }
+
+    public long getOnlineDevices() {
+        return onlineDevices;
+    }
+
+    public long getUnknownDevices() {
+        return unknownDevices;
+    }
+
+    public List<Device> getRecentDevices() {
+        return recentDevices;
+    }
+
+    public List<Device> getOnlineDeviceList() {
+        return onlineDeviceList;
+    }
+
+    public List<Device> getUnknownDeviceList() {
+        return unknownDeviceList;
+    }
+
+    public List<Device> getPinnedDevices() {
+        return pinnedDevices;
+    }
+
+    /**
+     * The latest scan, or null before the first one.
+     */
+    public ScanSummary getLastScan() {
+        return lastScan;
+    }
+}
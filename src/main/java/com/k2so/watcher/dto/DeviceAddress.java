@@ -0,0 +1,27 @@
+package com.k2so.watcher.dto;
+
+import com.k2so.watcher.util.MacAddress;
+
+/**
+ * Address and presence state of a device, selected column by column for the periodic presence check.
+ */
+public record DeviceAddress(Long id, MacAddress macAddress, String ipAddress, String customName, String hostname,
+                            boolean online) {
+
+    /**
+     * JPQL constructor expression selecting the components from {@code Device d}, in order.
+     */
+    public static final String SELECT = "SELECT new com.k2so.watcher.dto.DeviceAddress(d.id, d.macAddress, "
+            + "d.ipAddress, d.customName, d.hostname, d.online)";
+
+    // Same fallback order as Device.getDisplayName
+    public String displayName() {
+        if (customName != null && !customName.isEmpty()) {
+            return customName;
+        }
+        if (hostname != null && !hostname.isEmpty()) {
+            return hostname;
+        }
+        return macAddress != null ? macAddress.toString() : null;
+    }
+}
@@ -0,0 +1,72 @@
+package com.k2so.watcher.dto;
+
+import com.k2so.watcher.model.Device;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a paged device listing: the sort key and id of the last device returned. Passed to clients as an
+ * opaque URL-safe token.
+ */
+public final class DeviceCursor {
+
+    private final DeviceSort sort;
+    // Null when the last device had no value for the sort column
+    private final Object key;
+    private final long id;
+
+    private DeviceCursor(DeviceSort sort, Object key, long id) {
+        this.sort = sort;
+        this.key = key;
+        this.id = id;
+    }
+
+    public static DeviceCursor after(DeviceSort sort, Device device) {
+        return new DeviceCursor(sort, sort.keyOf(device), device.getId());
+    }
+
+    public static DeviceCursor after(DeviceSort sort, DeviceSummary device) {
+        return new DeviceCursor(sort, sort.keyOf(device), device.id());
+    }
+
+    /**
+     * Reads a token produced by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the token is malformed or belongs to a different sort
+     */
+    public static DeviceCursor decode(String token, DeviceSort sort) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != 3 || !parts[0].equals(sort.getParameter())) {
+            throw new IllegalArgumentException("Invalid cursor for sort " + sort.getParameter());
+        }
+        try {
+            Object key = parts[1].isEmpty() ? null : sort.parseKey(parts[1]);
+            return new DeviceCursor(sort, key, Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String value = sort.getParameter() + "|" + (key != null ? key : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public DeviceSort getSort() {
+        return sort;
+    }
+
+    public Object getKey() {
+        return key;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,34 @@
+package com.k2so.watcher.dto;
+
+import com.k2so.watcher.model.Device;
+import com.k2so.watcher.model.DeviceDetails;
+import com.k2so.watcher.model.DeviceServiceUrl;
+import com.k2so.watcher.model.DeviceType;
+import com.k2so.watcher.util.MacAddress;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Detail shape of a single device for the REST API. Carries notes and open ports but not the deep scan log.
+ */
+public record DeviceDetail(Long id, MacAddress macAddress, String ipAddress, String hostname, String customName,
+                           String displayName, String vendor, DeviceType deviceType, String connectionType,
+                           boolean online, boolean known, boolean trusted, boolean pinned,
+                           LocalDateTime firstSeen, LocalDateTime lastSeen, String detectedOs,
+                           LocalDateTime lastDeepScan, String aiIdentification, String serviceUrl,
+                           List<ServiceLink> serviceUrls, String notes, String openPorts) {
+
+    public record ServiceLink(Long id, String alias, String url) {
+    }
+
+    public static DeviceDetail of(Device device, DeviceDetails details, List<DeviceServiceUrl> serviceUrls) {
+        return new DeviceDetail(device.getId(), device.getMacAddress(), device.getIpAddress(), device.getHostname(),
+                device.getCustomName(), device.getDisplayName(), device.getVendor(), device.getDeviceType(),
+                device.getConnectionType(), device.isOnline(), device.isKnown(), device.isTrusted(), device.isPinned(),
+                device.getFirstSeen(), device.getLastSeen(), device.getDetectedOs(), device.getLastDeepScan(),
+                device.getAiIdentification(), device.getFullServiceUrl(),
+                serviceUrls.stream().map(s -> new ServiceLink(s.getId(), s.getAlias(), s.getUrl())).toList(),
+                details.getNotes(), details.getOpenPorts());
+    }
+}
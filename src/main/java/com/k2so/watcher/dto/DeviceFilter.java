@@ -0,0 +1,62 @@
+package com.k2so.watcher.dto;
+
+import com.k2so.watcher.model.DeviceType;
+import com.k2so.watcher.util.Ipv4Range;
+
+/**
+ * Server-side filters for device listings; null fields do not filter.
+ */
+public class DeviceFilter {
+
+    private final Boolean online;
+    private final Boolean known;
+    private final DeviceType deviceType;
+    private final String vendor;
+    private final Ipv4Range subnet;
+
+    public DeviceFilter(Boolean online, Boolean known, DeviceType deviceType, String vendor, Ipv4Range subnet) {
+        this.online = online;
+        this.known = known;
+        this.deviceType = deviceType;
+        this.vendor = vendor != null && !vendor.isBlank() ? vendor.trim() : null;
+        this.subnet = subnet;
+    }
+
+    public static DeviceFilter none() {
+        return new DeviceFilter(null, null, null, null, null);
+    }
+
+    /**
+     * Builds a filter from request parameters.
+     *
+     * @throws IllegalArgumentException if the type or subnet is not valid
+     */
+    public static DeviceFilter fromParameters(Boolean online, Boolean known, String type, String vendor, String subnet) {
+        DeviceType deviceType = type != null && !type.isBlank() ? DeviceType.valueOf(type.trim().toUpperCase()) : null;
+        Ipv4Range range = subnet != null && !subnet.isBlank() ? Ipv4Range.parse(subnet.trim()) : null;
+        return new DeviceFilter(online, known, deviceType, vendor, range);
+    }
+
+    public Boolean getOnline() {
+        return online;
+    }
+
+    public Boolean getKnown() {
+        return known;
+    }
+
+    public DeviceType getDeviceType() {
+        return deviceType;
+    }
+
+    /**
+     * Case-insensitive substring of the vendor name.
+     */
+    public String getVendor() {
+        return vendor;
+    }
+
+    public Ipv4Range getSubnet() {
+        return subnet;
+    }
+}
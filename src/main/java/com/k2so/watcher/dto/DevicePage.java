@@ -0,0 +1,26 @@
+package com.k2so.watcher.dto;
+
+import java.util.List;
+
+/**
+ * One page of a device listing, as entities or {@link DeviceSummary} projections. {@code nextCursor} fetches the
+ * following page and is null on the last one.
+ */
+public class DevicePage<T> {
+
+    private final List<T> devices;
+    private final String nextCursor;
+
+    public DevicePage(List<T> devices, String nextCursor) {
+        this.devices = devices;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getDevices() {
+        return devices;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
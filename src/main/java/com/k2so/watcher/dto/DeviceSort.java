@@ -0,0 +1,82 @@
+package com.k2so.watcher.dto;
+
+import com.k2so.watcher.model.Device;
+import com.k2so.watcher.util.Ipv4Range;
+
+import java.time.LocalDateTime;
+
+/**
+ * Orders for paged device listings. Each is a single indexed column with the id as tie-breaker, so pages can be
+ * fetched by seeking past the last row instead of counting an offset. Rows without a value sort last.
+ */
+public enum DeviceSort {
+
+    LAST_SEEN("lastSeen", "lastSeen", true),
+    FIRST_SEEN("firstSeen", "firstSeen", true),
+    IP("ip", "ipNumeric", false);
+
+    private final String parameter;
+    private final String property;
+    private final boolean descending;
+
+    DeviceSort(String parameter, String property, boolean descending) {
+        this.parameter = parameter;
+        this.property = property;
+        this.descending = descending;
+    }
+
+    /**
+     * The sort for a request parameter value; null or blank means {@link #LAST_SEEN}.
+     *
+     * @throws IllegalArgumentException for unknown values
+     */
+    public static DeviceSort fromParameter(String value) {
+        if (value == null || value.isBlank()) {
+            return LAST_SEEN;
+        }
+        for (DeviceSort sort : values()) {
+            if (sort.parameter.equalsIgnoreCase(value.trim())) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unknown sort: " + value);
+    }
+
+    public String getParameter() {
+        return parameter;
+    }
+
+    /**
+     * Entity property sorted on.
+     */
+    public String getProperty() {
+        return property;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    Object keyOf(Device device) {
+        return switch (this) {
+            case LAST_SEEN -> device.getLastSeen();
+            case FIRST_SEEN -> device.getFirstSeen();
+            case IP -> device.getIpNumeric();
+        };
+    }
+
+    Object keyOf(DeviceSummary device) {
+        return switch (this) {
+            case LAST_SEEN -> device.lastSeen();
+            case FIRST_SEEN -> device.firstSeen();
+            case IP -> Ipv4Range.toNumeric(device.ipAddress());
+        };
+    }
+
+    Object parseKey(String value) {
+        return switch (this) {
+            case LAST_SEEN, FIRST_SEEN -> LocalDateTime.parse(value);
+            case IP -> Long.valueOf(value);
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.k2so.watcher.dto;
+
+import com.k2so.watcher.model.DeviceType;
+import com.k2so.watcher.util.MacAddress;
+
+import java.time.LocalDateTime;
+
+/**
+ * List shape of a device for the REST API, selected column by column so no entity or association is loaded.
+ */
+public record DeviceSummary(Long id, MacAddress macAddress, String ipAddress, String hostname, String customName,
+                            String vendor, DeviceType deviceType, boolean online, boolean known, boolean trusted,
+                            LocalDateTime firstSeen, LocalDateTime lastSeen) {
+
+    /**
+     * JPQL constructor expression selecting the components from {@code Device d}, in order.
+     */
+    public static final String SELECT = "SELECT new com.k2so.watcher.dto.DeviceSummary(d.id, d.macAddress, "
+            + "d.ipAddress, d.hostname, d.customName, d.vendor, d.deviceType, d.online, d.known, d.trusted, "
+            + "d.firstSeen, d.lastSeen)";
+}
@@ -0,0 +1,53 @@
+package com.k2so.watcher.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in the scan history: start time and id of the last scan returned, as an opaque URL-safe token.
+ */
+public final class ScanCursor {
+
+    private final LocalDateTime startedAt;
+    private final long id;
+
+    private ScanCursor(LocalDateTime startedAt, long id) {
+        this.startedAt = startedAt;
+        this.id = id;
+    }
+
+    public static ScanCursor after(ScanSummary scan) {
+        return new ScanCursor(scan.startedAt(), scan.id());
+    }
+
+    /**
+     * Reads a token produced by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static ScanCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ScanCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String value = startedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,19 @@
+package com.k2so.watcher.dto;
+
+import com.k2so.watcher.model.NetworkScan;
+
+import java.time.LocalDateTime;
+
+/**
+ * Detail shape of a single network scan for the REST API: the summary fields plus the error and the scan log.
+ */
+public record ScanDetail(Long id, String scanType, String status, String networkRange, String scannerTool,
+                         LocalDateTime startedAt, LocalDateTime completedAt, int devicesFound, int newDevices,
+                         String errorMessage, String scanLog) {
+
+    public static ScanDetail of(NetworkScan scan) {
+        return new ScanDetail(scan.getId(), scan.getScanType(), scan.getStatus(), scan.getNetworkRange(),
+                scan.getScannerTool(), scan.getStartedAt(), scan.getCompletedAt(), scan.getDevicesFound(),
+                scan.getNewDevices(), scan.getErrorMessage(), scan.getScanLog());
+    }
+}
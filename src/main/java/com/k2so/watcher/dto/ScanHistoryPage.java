@@ -0,0 +1,25 @@
+package com.k2so.watcher.dto;
+
+import java.util.List;
+
+/**
+ * One page of the scan history, newest first. {@code nextCursor} fetches older scans and is null on the last page.
+ */
+public class ScanHistoryPage<T> {
+
+    private final List<T> scans;
+    private final String nextCursor;
+
+    public ScanHistoryPage(List<T> scans, String nextCursor) {
+        this.scans = scans;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getScans() {
+        return scans;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,24 @@
+package com.k2so.watcher.dto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * List shape of a network scan for the REST API, without the scan log or results.
+ */
+public record ScanSummary(Long id, String scanType, String status, String networkRange, String scannerTool,
+                          LocalDateTime startedAt, LocalDateTime completedAt, int devicesFound, int newDevices) {
+
+    /**
+     * JPQL constructor expression selecting the components from {@code NetworkScan n}, in order.
+     */
+    public static final String SELECT = "SELECT new com.k2so.watcher.dto.ScanSummary(n.id, n.scanType, n.status, "
+            + "n.networkRange, n.scannerTool, n.startedAt, n.completedAt, n.devicesFound, n.newDevices)";
+
+    public long durationSeconds() {
+        if (startedAt == null || completedAt == null) {
+            return 0;
+        }
+        return Duration.between(startedAt, completedAt).getSeconds();
+    }
+}
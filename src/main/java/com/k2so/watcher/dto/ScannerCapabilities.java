@@ -0,0 +1,122 @@
+package com.k2so.watcher.dto;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Snapshot of what the host can run: privileges and the scanner tools found on the PATH.
+ */
+public class ScannerCapabilities {
+
+    private final boolean root;
+    private final boolean sudoAvailable;
+    private final Map<String, ToolInfo> tools;
+    private final LocalDateTime probedAt;
+
+    public ScannerCapabilities(boolean root, boolean sudoAvailable, Map<String, ToolInfo> tools, LocalDateTime probedAt) {
+        this.root = root;
+        this.sudoAvailable = sudoAvailable;
+        this.tools = Collections.unmodifiableMap(tools);
+        this.probedAt = probedAt;
+    }
+
+    public boolean isRoot() {
+        return root;
+    }
+
+    /**
+     * Whether sudo can be used without a password prompt.
+     */
+    public boolean isSudoAvailable() {
+        return sudoAvailable;
+    }
+
+    /**
+     * Whether privileged commands can be run, either directly as root or through sudo.
+     */
+    public boolean isPrivileged() {
+        return root || sudoAvailable;
+    }
+
+    /**
+     * How privileged scanner commands are run, for the capabilities report. Without root or passwordless sudo
+     * they run unprefixed, since sudo would stop at a password prompt, and only binaries granted cap_net_raw
+     * can send raw packets.
+     */
+    public String getPrivilegeMode() {
+        if (root) {
+            return "running as root";
+        }
+        if (sudoAvailable) {
+            return "prefixed with sudo (passwordless)";
+        }
+        return "without sudo: sudo needs a password, so only tools with cap_net_raw can scan at layer 2";
+    }
+
+    public Map<String, ToolInfo> getTools() {
+        return tools;
+    }
+
+    public ToolInfo getTool(String name) {
+        return tools.get(name);
+    }
+
+    public boolean isToolAvailable(String name) {
+        ToolInfo tool = tools.get(name);
+        return tool != null && tool.isAvailable();
+    }
+
+    public LocalDateTime getProbedAt() {
+        return probedAt;
+    }
+
+    public static class ToolInfo {
+
+        private final String name;
+        private final String path;
+        private final String version;
+        private final Set<String> supportedFlags;
+        private final String fileCapabilities;
+
+        public ToolInfo(String name, String path, String version, Set<String> supportedFlags, String fileCapabilities) {
+            this.name = name;
+            this.path = path;
+            this.version = version;
+            this.supportedFlags = Collections.unmodifiableSet(supportedFlags);
+            this.fileCapabilities = fileCapabilities;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isAvailable() {
+            return path != null;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        public Set<String> getSupportedFlags() {
+            return supportedFlags;
+        }
+
+        public boolean supportsFlag(String flag) {
+            return supportedFlags.contains(flag);
+        }
+
+        /**
+         * Linux file capabilities set on the binary (e.g. {@code cap_net_raw+eip}), or null if none.
+         */
+        public String getFileCapabilities() {
+            return fileCapabilities;
+        }
+    }
+}
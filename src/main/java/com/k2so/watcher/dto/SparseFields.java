@@ -0,0 +1,71 @@
+package com.k2so.watcher.dto;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@code fields=a,b,c} selection over the components of a record DTO, for sparse API responses.
+ * Components keep their declaration order regardless of the order requested.
+ */
+public final class SparseFields<T extends Record> {
+
+    private final String[] names;
+    private final Method[] accessors;
+
+    private SparseFields(String[] names, Method[] accessors) {
+        this.names = names;
+        this.accessors = accessors;
+    }
+
+    /**
+     * @return the selection, or null if {@code fields} is null or blank (all fields)
+     * @throws IllegalArgumentException if a requested field is not a component of the record
+     */
+    public static <T extends Record> SparseFields<T> parse(String fields, Class<T> type) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        List<String> requested = Arrays.stream(fields.split(",")).map(String::trim)
+                .filter(f -> !f.isEmpty()).toList();
+        RecordComponent[] components = type.getRecordComponents();
+        for (String field : requested) {
+            boolean known = false;
+            for (RecordComponent component : components) {
+                known |= component.getName().equals(field);
+            }
+            if (!known) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+        }
+
+        List<RecordComponent> selected = Arrays.stream(components)
+                .filter(c -> requested.contains(c.getName())).toList();
+        String[] names = new String[selected.size()];
+        Method[] accessors = new Method[selected.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = selected.get(i).getName();
+            accessors[i] = selected.get(i).getAccessor();
+        }
+        return new SparseFields<>(names, accessors);
+    }
+
+    public Map<String, Object> apply(T value) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            try {
+                result.put(names[i], accessors[i].invoke(value));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot read " + names[i], e);
+            }
+        }
+        return result;
+    }
+
+    public List<Map<String, Object>> apply(List<T> values) {
+        return values.stream().map(this::apply).toList();
+    }
+}
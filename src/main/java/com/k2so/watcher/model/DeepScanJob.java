@@ -0,0 +1,112 @@
+package com.k2so.watcher.model;
+
+import jakarta.persistence.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "deep_scan_jobs", indexes = {
+        @Index(name = "idx_deep_scan_jobs_device", columnList = "device_id", unique = true),
+        @Index(name = "idx_deep_scan_jobs_queue", columnList = "status, priority, id")
+})
+public class DeepScanJob {
+
+    public static final int PRIORITY_NEW_DEVICE = 0;
+    public static final int PRIORITY_MANUAL = 10;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "device_id", nullable = false)
+    private Long deviceId;
+
+    @Column(name = "priority")
+    private int priority = PRIORITY_NEW_DEVICE;
+
+    @Column(name = "status")
+    private String status; // PENDING, RUNNING
+
+    @Column(name = "queued_at")
+    private LocalDateTime queuedAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    // Set when a scan is requested while this job runs: the job is queued again at this priority when it ends
+    @Column(name = "rerun_priority")
+    private Integer rerunPriority;
+
+    @PrePersist
+    protected void onCreate() {
+        queuedAt = LocalDateTime.now();
+        if (status == null) {
+            status = "PENDING";
+        }
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(Long deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getQueuedAt() {
+        return queuedAt;
+    }
+
+    public void setQueuedAt(LocalDateTime queuedAt) {
+        this.queuedAt = queuedAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Integer getRerunPriority() {
+        return rerunPriority;
+    }
+
+    public void setRerunPriority(Integer rerunPriority) {
+        this.rerunPriority = rerunPriority;
+    }
+
+    public long getWaitSeconds() {
+        if (queuedAt == null) {
+            return 0;
+        }
+        LocalDateTime end = startedAt != null ? startedAt : LocalDateTime.now();
+        return Duration.between(queuedAt, end).getSeconds();
+    }
+}
@@ -1,24 +1,45 @@
 package com.k2so.watcher.model;
 
+import com.k2so.watcher.util.Ipv4Range;
+import com.k2so.watcher.util.MacAddress;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * A device on the network. Notes, open ports and the deep scan log are kept in {@link DeviceDetails}, so loading
+ * device lists stays cheap.
+ */
 @Entity
-@Table(name = "devices")
+@Table(name = "devices", indexes = {
+        @Index(name = "idx_devices_ip_numeric", columnList = "ip_numeric"),
+        // Keyset pagination: each listing order, alone and behind the common equality filters
+        @Index(name = "idx_devices_last_seen_id", columnList = "last_seen DESC, id DESC"),
+        @Index(name = "idx_devices_first_seen_id", columnList = "first_seen DESC, id DESC"),
+        @Index(name = "idx_devices_online_last_seen_id", columnList = "is_online, last_seen DESC, id DESC"),
+        @Index(name = "idx_devices_known_last_seen_id", columnList = "is_known, last_seen DESC, id DESC"),
+        @Index(name = "idx_devices_type_last_seen_id", columnList = "device_type, last_seen DESC, id DESC")
+})
 public class Device {
 
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts during scans
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "device_seq")
+    @SequenceGenerator(name = "device_seq", sequenceName = "devices_seq", allocationSize = 50)
     private Long id;
 
+    @Convert(converter = MacAddressConverter.class)
     @Column(name = "mac_address", unique = true, nullable = false)
-    private String macAddress;
+    private MacAddress macAddress;
 
     @Column(name = "ip_address")
     private String ipAddress;
 
+    // Unsigned numeric form of ipAddress, kept in sync by setIpAddress, for subnet and sorted-by-IP queries
+    @Column(name = "ip_numeric")
+    private Long ipNumeric;
+
     @Column(name = "hostname")
     private String hostname;
 
@@ -50,18 +71,9 @@ public class Device {
     @Column(name = "last_seen")
     private LocalDateTime lastSeen;
 
-    @Column(name = "notes", length = 1000)
-    private String notes;
-
-    @Column(name = "open_ports", length = 2000)
-    private String openPorts;
-
     @Column(name = "detected_os")
     private String detectedOs;
 
-    @Column(name = "deep_scan_log", columnDefinition = "TEXT")
-    private String deepScanLog;
-
     @Column(name = "last_deep_scan")
     private LocalDateTime lastDeepScan;
 
@@ -71,7 +83,8 @@ public class Device {
     @Column(name = "service_url")
     private String serviceUrl;
 
-    @OneToMany(mappedBy = "device", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    // Only the detail page and pinned devices show these; both fetch them explicitly
+    @OneToMany(mappedBy = "device", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<DeviceServiceUrl> serviceUrls = new ArrayList<>();
 
     @Column(name = "is_pinned")
@@ -92,11 +105,11 @@ public class Device {
         this.id = id;
     }
 
-    public String getMacAddress() {
+    public MacAddress getMacAddress() {
         return macAddress;
     }
 
-    public void setMacAddress(String macAddress) {
+    public void setMacAddress(MacAddress macAddress) {
         this.macAddress = macAddress;
     }
 
@@ -106,6 +119,11 @@ public class Device {
 
     public void setIpAddress(String ipAddress) {
         this.ipAddress = ipAddress;
+        this.ipNumeric = Ipv4Range.toNumeric(ipAddress);
+    }
+
+    public Long getIpNumeric() {
+        return ipNumeric;
     }
 
     public String getHostname() {
@@ -188,22 +206,6 @@ public class Device {
         this.lastSeen = lastSeen;
     }
 
-    public String getNotes() {
-        return notes;
-    }
-
-    public void setNotes(String notes) {
-        this.notes = notes;
-    }
-
-    public String getOpenPorts() {
-        return openPorts;
-    }
-
-    public void setOpenPorts(String openPorts) {
-        this.openPorts = openPorts;
-    }
-
     public String getDetectedOs() {
         return detectedOs;
     }
@@ -212,14 +214,6 @@ public class Device {
         this.detectedOs = detectedOs;
     }
 
-    public String getDeepScanLog() {
-        return deepScanLog;
-    }
-
-    public void setDeepScanLog(String deepScanLog) {
-        this.deepScanLog = deepScanLog;
-    }
-
     public LocalDateTime getLastDeepScan() {
         return lastDeepScan;
     }
@@ -305,6 +299,6 @@ public class Device {
         if (hostname != null && !hostname.isEmpty()) {
             return hostname;
         }
-        return macAddress;
+        return macAddress != null ? macAddress.toString() : null;
     }
 }
@@ -0,0 +1,75 @@
+package com.k2so.watcher.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Bulky, rarely needed device data kept out of the {@code devices} row, so list views and scans never load it.
+ * Shares the device's primary key and is loaded explicitly where it is shown or updated.
+ */
+@Entity
+@Table(name = "device_details")
+public class DeviceDetails {
+
+    @Id
+    @Column(name = "device_id")
+    private Long deviceId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "device_id")
+    private Device device;
+
+    @Column(name = "notes", length = 1000)
+    private String notes;
+
+    @Column(name = "open_ports", length = 2000)
+    private String openPorts;
+
+    @Lob
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name = "deep_scan_log_gz")
+    private String deepScanLog;
+
+    public DeviceDetails() {
+    }
+
+    /**
+     * Empty details for a device that has none yet. The key is filled in from the device when they are persisted;
+     * setting it here would make a repository save merge them, which Hibernate cannot do through {@code @MapsId}.
+     */
+    public DeviceDetails(Device device) {
+        this.device = device;
+    }
+
+    public Long getDeviceId() {
+        return deviceId != null ? deviceId : device.getId();
+    }
+
+    public Device getDevice() {
+        return device;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public String getOpenPorts() {
+        return openPorts;
+    }
+
+    public void setOpenPorts(String openPorts) {
+        this.openPorts = openPorts;
+    }
+
+    public String getDeepScanLog() {
+        return deepScanLog;
+    }
+
+    public void setDeepScanLog(String deepScanLog) {
+        this.deepScanLog = deepScanLog;
+    }
+}
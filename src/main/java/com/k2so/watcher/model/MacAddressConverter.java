@@ -0,0 +1,33 @@
+package com.k2so.watcher.model;
+
+import com.k2so.watcher.util.MacAddress;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores a {@link MacAddress} in its normalized string form, so existing columns and backups stay readable.
+ */
+@Converter
+public class MacAddressConverter implements AttributeConverter<MacAddress, String> {
+
+    private static final Logger logger = LoggerFactory.getLogger(MacAddressConverter.class);
+
+    @Override
+    public String convertToDatabaseColumn(MacAddress mac) {
+        return mac != null ? mac.toString() : null;
+    }
+
+    @Override
+    public MacAddress convertToEntityAttribute(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        MacAddress mac = MacAddress.tryParse(value);
+        if (mac == null) {
+            logger.warn("Ignoring invalid MAC address stored in database: {}", value);
+        }
+        return mac;
+    }
+}
@@ -6,7 +6,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "network_scans")
+@Table(name = "network_scans", indexes = {
+        // Scan history is read newest first, a page at a time
+        @Index(name = "idx_network_scans_started_at_id", columnList = "started_at DESC, id DESC")
+})
 public class NetworkScan {
 
     @Id
@@ -14,7 +17,7 @@ public class NetworkScan {
     private Long id;
 
     @Column(name = "scan_type")
-    private String scanType; // MANUAL, SCHEDULED
+    private String scanType; // MANUAL, SCHEDULED (PRESENCE in older databases)
 
     @Column(name = "started_at")
     private LocalDateTime startedAt;
@@ -0,0 +1,118 @@
+package com.k2so.watcher.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "scan_range_results")
+public class ScanRangeResult {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "network_scan_id")
+    private NetworkScan networkScan;
+
+    @Column(name = "network_range")
+    private String networkRange;
+
+    @Column(name = "scanner_tool")
+    private String scannerTool;
+
+    @Column(name = "status")
+    private String status; // COMPLETED, FAILED
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "hosts_found")
+    private int hostsFound = 0;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public NetworkScan getNetworkScan() {
+        return networkScan;
+    }
+
+    public void setNetworkScan(NetworkScan networkScan) {
+        this.networkScan = networkScan;
+    }
+
+    public String getNetworkRange() {
+        return networkRange;
+    }
+
+    public void setNetworkRange(String networkRange) {
+        this.networkRange = networkRange;
+    }
+
+    public String getScannerTool() {
+        return scannerTool;
+    }
+
+    public void setScannerTool(String scannerTool) {
+        this.scannerTool = scannerTool;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public int getHostsFound() {
+        return hostsFound;
+    }
+
+    public void setHostsFound(int hostsFound) {
+        this.hostsFound = hostsFound;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public long getDurationMillis() {
+        if (startedAt == null || completedAt == null) {
+            return 0;
+        }
+        return java.time.Duration.between(startedAt, completedAt).toMillis();
+    }
+}
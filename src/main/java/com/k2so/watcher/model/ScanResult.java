@@ -1,14 +1,20 @@
 package com.k2so.watcher.model;
 
+import com.k2so.watcher.util.Ipv4Range;
+import com.k2so.watcher.util.MacAddress;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "scan_results")
+@Table(name = "scan_results", indexes = {
+        @Index(name = "idx_scan_results_ip_numeric", columnList = "ip_numeric")
+})
 public class ScanResult {
 
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts during scans
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "scan_result_seq")
+    @SequenceGenerator(name = "scan_result_seq", sequenceName = "scan_results_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -19,12 +25,17 @@ public class ScanResult {
     @JoinColumn(name = "device_id")
     private Device device;
 
+    @Convert(converter = MacAddressConverter.class)
     @Column(name = "mac_address")
-    private String macAddress;
+    private MacAddress macAddress;
 
     @Column(name = "ip_address")
     private String ipAddress;
 
+    // Unsigned numeric form of ipAddress, kept in sync by setIpAddress, for subnet and sorted-by-IP queries
+    @Column(name = "ip_numeric")
+    private Long ipNumeric;
+
     @Column(name = "hostname")
     private String hostname;
 
@@ -70,11 +81,11 @@ public class ScanResult {
         this.device = device;
     }
 
-    public String getMacAddress() {
+    public MacAddress getMacAddress() {
         return macAddress;
     }
 
-    public void setMacAddress(String macAddress) {
+    public void setMacAddress(MacAddress macAddress) {
         this.macAddress = macAddress;
     }
 
@@ -84,6 +95,11 @@ public class ScanResult {
 
     public void setIpAddress(String ipAddress) {
         this.ipAddress = ipAddress;
+        this.ipNumeric = Ipv4Range.toNumeric(ipAddress);
+    }
+
+    public Long getIpNumeric() {
+        return ipNumeric;
     }
 
     public String getHostname() {
@@ -0,0 +1,31 @@
+package com.k2so.watcher.repository;
+
+import com.k2so.watcher.model.DeepScanJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface DeepScanJobRepository extends JpaRepository<DeepScanJob, Long> {
+
+    Optional<DeepScanJob> findByDeviceId(Long deviceId);
+
+    // Highest priority first, FIFO within a priority
+    Optional<DeepScanJob> findFirstByStatusOrderByPriorityDescIdAsc(String status);
+
+    Optional<DeepScanJob> findFirstByStatusOrderByQueuedAtAsc(String status);
+
+    long countByStatus(String status);
+
+    // The restarted job covers a rerun requested while it ran, at the higher of both priorities
+    @Modifying
+    @Transactional
+    @Query("UPDATE DeepScanJob j SET j.status = 'PENDING', j.startedAt = null, "
+            + "j.priority = CASE WHEN j.rerunPriority > j.priority THEN j.rerunPriority ELSE j.priority END, "
+            + "j.rerunPriority = null WHERE j.status = 'RUNNING'")
+    int requeueRunningJobs();
+}
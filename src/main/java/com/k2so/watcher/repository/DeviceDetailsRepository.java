@@ -0,0 +1,9 @@
+package com.k2so.watcher.repository;
+
+import com.k2so.watcher.model.DeviceDetails;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DeviceDetailsRepository extends JpaRepository<DeviceDetails, Long> {
+}
@@ -1,22 +1,31 @@
 package com.k2so.watcher.repository;
 
+import com.k2so.watcher.dto.DeviceAddress;
 import com.k2so.watcher.model.Device;
 import com.k2so.watcher.model.DeviceType;
+import com.k2so.watcher.util.MacAddress;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface DeviceRepository extends JpaRepository<Device, Long> {
+public interface DeviceRepository extends JpaRepository<Device, Long>, DeviceRepositoryCustom {
 
-    Optional<Device> findByMacAddress(String macAddress);
+    Optional<Device> findByMacAddress(MacAddress macAddress);
 
     Optional<Device> findByIpAddress(String ipAddress);
 
-    boolean existsByMacAddress(String macAddress);
+    boolean existsByMacAddress(MacAddress macAddress);
+
+    List<Device> findByMacAddressInOrIpAddressIn(Collection<MacAddress> macAddresses, Collection<String> ipAddresses);
 
     List<Device> findByOnlineTrue();
 
@@ -26,8 +35,6 @@ public interface DeviceRepository extends JpaRepository<Device, Long> {
 
     List<Device> findByTrustedTrue();
 
-    @Query("SELECT d FROM Device d ORDER BY d.lastSeen DESC")
-    List<Device> findAllOrderByLastSeenDesc();
 
     @Query("SELECT COUNT(d) FROM Device d WHERE d.online = true")
     long countOnlineDevices();
@@ -35,8 +42,39 @@ public interface DeviceRepository extends JpaRepository<Device, Long> {
     @Query("SELECT COUNT(d) FROM Device d WHERE d.known = false")
     long countUnknownDevices();
 
-    List<Device> findByPinnedTrueOrderByCustomNameAsc();
+    // Pinned devices are shown with their service links, so those come in the same query
+    @Query("SELECT DISTINCT d FROM Device d LEFT JOIN FETCH d.serviceUrls WHERE d.pinned = true ORDER BY d.customName ASC")
+    List<Device> findPinnedWithServiceUrls();
 
     @Query("SELECT d FROM Device d WHERE d.ipAddress IN (SELECT d2.ipAddress FROM Device d2 WHERE d2.ipAddress IS NOT NULL GROUP BY d2.ipAddress HAVING COUNT(d2) > 1) ORDER BY d.ipAddress")
     List<Device> findDevicesWithDuplicateIpAddresses();
+
+    // Both the grouping and the outer scan are bounded by the subnet, so they run on the ip_numeric index
+    @Query("SELECT d FROM Device d WHERE d.ipNumeric BETWEEN :from AND :to AND d.ipNumeric IN ("
+            + "SELECT d2.ipNumeric FROM Device d2 WHERE d2.ipNumeric BETWEEN :from AND :to "
+            + "GROUP BY d2.ipNumeric HAVING COUNT(d2) > 1) ORDER BY d.ipNumeric, d.id")
+    List<Device> findDevicesWithDuplicateIpsBetween(@Param("from") long from, @Param("to") long to);
+
+    @Query(DeviceAddress.SELECT + " FROM Device d WHERE d.ipAddress IS NOT NULL AND d.ipAddress <> ''")
+    List<DeviceAddress> findAddresses();
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Device d SET d.online = true, d.lastSeen = :seenAt WHERE d.id IN :ids")
+    int markSeen(@Param("ids") Collection<Long> ids, @Param("seenAt") LocalDateTime seenAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Device d SET d.online = false WHERE d.online = true AND d.id IN :ids")
+    int markOffline(@Param("ids") Collection<Long> ids);
+
+    // Deep scan results only; the OS and hostname are kept when nmap reports none, and a hostname is never
+    // replaced once the device has one
+    @Modifying
+    @Transactional
+    @Query("UPDATE Device d SET d.detectedOs = COALESCE(:os, d.detectedOs), "
+            + "d.hostname = CASE WHEN d.hostname IS NULL OR d.hostname = '' THEN COALESCE(:hostname, d.hostname) "
+            + "ELSE d.hostname END, d.lastDeepScan = :scannedAt WHERE d.id = :id")
+    int recordDeepScan(@Param("id") Long id, @Param("os") String os, @Param("hostname") String hostname,
+                       @Param("scannedAt") LocalDateTime scannedAt);
 }
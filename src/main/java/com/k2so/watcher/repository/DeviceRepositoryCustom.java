@@ -0,0 +1,42 @@
+package com.k2so.watcher.repository;
+
+import com.k2so.watcher.dto.DeviceCursor;
+import com.k2so.watcher.dto.DeviceFilter;
+import com.k2so.watcher.dto.DeviceSort;
+import com.k2so.watcher.dto.DeviceSummary;
+import com.k2so.watcher.model.Device;
+import com.k2so.watcher.model.DeviceType;
+import com.k2so.watcher.util.MacAddress;
+
+import java.util.List;
+
+public interface DeviceRepositoryCustom {
+
+    /**
+     * Up to {@code limit} devices matching the filter, in sort order, starting after the cursor (from the start
+     * if it is null). Seeks on the sort column and id, so the cost does not grow with the page number.
+     */
+    List<Device> findPage(DeviceFilter filter, DeviceSort sort, DeviceCursor after, int limit);
+
+    /**
+     * As {@link #findPage}, selecting only the columns of {@link DeviceSummary}.
+     */
+    List<DeviceSummary> findSummaryPage(DeviceFilter filter, DeviceSort sort, DeviceCursor after, int limit);
+
+    /**
+     * Writes the columns a scan discovers (MAC, IP, hostname, vendor and an auto-detected type) of existing
+     * devices as JDBC batches in one transaction. User edits, presence and deep scan results made since the
+     * scan loaded the devices are kept: a null hostname keeps the stored one, and a detected type only replaces
+     * an unknown one.
+     *
+     * @return the number of devices updated
+     */
+    int updateScanFields(List<ScanUpdate> updates);
+
+    /**
+     * Scan-owned columns of an existing device; a null hostname or type leaves the stored value.
+     */
+    record ScanUpdate(Long id, MacAddress mac, String ip, Long ipNumeric, String hostname, String vendor,
+                      DeviceType detectedType) {
+    }
+}
@@ -0,0 +1,132 @@
+package com.k2so.watcher.repository;
+
+import com.k2so.watcher.dto.DeviceCursor;
+import com.k2so.watcher.dto.DeviceFilter;
+import com.k2so.watcher.dto.DeviceSort;
+import com.k2so.watcher.dto.DeviceSummary;
+import com.k2so.watcher.model.Device;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class DeviceRepositoryImpl implements DeviceRepositoryCustom {
+
+    // Plain SQL, since JPQL bulk updates are executed one statement at a time and never batched
+    private static final String UPDATE_SCAN_FIELDS = "UPDATE devices SET mac_address = ?, ip_address = ?, "
+            + "ip_numeric = ?, hostname = COALESCE(?, hostname), vendor = ?, "
+            + "device_type = CASE WHEN device_type IS NULL OR device_type = 'UNKNOWN' "
+            + "THEN COALESCE(?, device_type) ELSE device_type END WHERE id = ?";
+
+    private static final int[] UPDATE_SCAN_FIELDS_TYPES = {Types.VARCHAR, Types.VARCHAR, Types.BIGINT,
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.BIGINT};
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    DeviceRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Device> findPage(DeviceFilter filter, DeviceSort sort, DeviceCursor after, int limit) {
+        return findPage("SELECT d", Device.class, filter, sort, after, limit);
+    }
+
+    @Override
+    public List<DeviceSummary> findSummaryPage(DeviceFilter filter, DeviceSort sort, DeviceCursor after, int limit) {
+        return findPage(DeviceSummary.SELECT, DeviceSummary.class, filter, sort, after, limit);
+    }
+
+    private <T> List<T> findPage(String select, Class<T> type, DeviceFilter filter, DeviceSort sort,
+                                 DeviceCursor after, int limit) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+
+        if (filter.getOnline() != null) {
+            conditions.add("d.online = :online");
+            parameters.put("online", filter.getOnline());
+        }
+        if (filter.getKnown() != null) {
+            conditions.add("d.known = :known");
+            parameters.put("known", filter.getKnown());
+        }
+        if (filter.getDeviceType() != null) {
+            conditions.add("d.deviceType = :deviceType");
+            parameters.put("deviceType", filter.getDeviceType());
+        }
+        if (filter.getVendor() != null) {
+            conditions.add("LOWER(d.vendor) LIKE :vendor ESCAPE '\\'");
+            parameters.put("vendor", "%" + escapeLike(filter.getVendor().toLowerCase()) + "%");
+        }
+        if (filter.getSubnet() != null) {
+            conditions.add("d.ipNumeric BETWEEN :subnetFirst AND :subnetLast");
+            parameters.put("subnetFirst", filter.getSubnet().getFirstNumeric());
+            parameters.put("subnetLast", filter.getSubnet().getLastNumeric());
+        }
+
+        String key = "d." + sort.getProperty();
+        String direction = sort.isDescending() ? "DESC" : "ASC";
+        String past = sort.isDescending() ? "<" : ">";
+        if (after != null) {
+            // Rows after (key, id) in "key <direction> NULLS LAST, id <direction>" order
+            if (after.getKey() != null) {
+                conditions.add("(" + key + " " + past + " :afterKey OR (" + key + " = :afterKey AND d.id " + past
+                        + " :afterId) OR " + key + " IS NULL)");
+                parameters.put("afterKey", after.getKey());
+            } else {
+                conditions.add("(" + key + " IS NULL AND d.id " + past + " :afterId)");
+            }
+            parameters.put("afterId", after.getId());
+        }
+
+        StringBuilder jpql = new StringBuilder(select).append(" FROM Device d");
+        if (!conditions.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        jpql.append(" ORDER BY ").append(key).append(' ').append(direction).append(" NULLS LAST, d.id ").append(direction);
+
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), type);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    @Transactional
+    public int updateScanFields(List<ScanUpdate> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> rows = new ArrayList<>(updates.size());
+        for (ScanUpdate update : updates) {
+            rows.add(new Object[]{
+                    update.mac() != null ? update.mac().toString() : null,
+                    update.ip(),
+                    update.ipNumeric(),
+                    update.hostname(),
+                    update.vendor(),
+                    update.detectedType() != null ? update.detectedType().name() : null,
+                    update.id()});
+        }
+        // Hibernate may hold the same rows in the persistence context; write its pending changes first
+        entityManager.flush();
+        int updated = 0;
+        for (int count : jdbcTemplate.batchUpdate(UPDATE_SCAN_FIELDS, rows, UPDATE_SCAN_FIELDS_TYPES)) {
+            updated += count;
+        }
+        return updated;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,20 +1,31 @@
 package com.k2so.watcher.repository;
 
+import com.k2so.watcher.dto.ScanSummary;
 import com.k2so.watcher.model.NetworkScan;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface NetworkScanRepository extends JpaRepository<NetworkScan, Long> {
 
-    @Query("SELECT n FROM NetworkScan n ORDER BY n.startedAt DESC")
-    List<NetworkScan> findAllOrderByStartedAtDesc();
+    // Presence checks of earlier versions were stored as PRESENCE scans; they are not scans and stay hidden
+    String NOT_PRESENCE = "(n.scanType IS NULL OR n.scanType <> 'PRESENCE')";
 
-    Optional<NetworkScan> findTopByOrderByStartedAtDesc();
+    @Query(ScanSummary.SELECT + " FROM NetworkScan n WHERE " + NOT_PRESENCE + " ORDER BY n.startedAt DESC, n.id DESC")
+    List<ScanSummary> findSummaries(Pageable pageable);
+
+    // Keyset continuation of findSummaries: scans strictly older than (startedAt, id)
+    @Query(ScanSummary.SELECT + " FROM NetworkScan n WHERE " + NOT_PRESENCE + " AND (n.startedAt < :startedAt"
+            + " OR (n.startedAt = :startedAt AND n.id < :id)) ORDER BY n.startedAt DESC, n.id DESC")
+    List<ScanSummary> findSummariesBefore(@Param("startedAt") LocalDateTime startedAt, @Param("id") Long id,
+                                          Pageable pageable);
 
     List<NetworkScan> findByStatus(String status);
 
@@ -0,0 +1,13 @@
+package com.k2so.watcher.repository;
+
+import com.k2so.watcher.model.ScanRangeResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ScanRangeResultRepository extends JpaRepository<ScanRangeResult, Long> {
+
+    List<ScanRangeResult> findByNetworkScanIdOrderByIdAsc(Long networkScanId);
+}
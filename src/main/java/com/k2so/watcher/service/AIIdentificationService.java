@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.k2so.watcher.model.Device;
+import com.k2so.watcher.model.DeviceDetails;
 import com.k2so.watcher.model.DeviceType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,8 +42,10 @@ public class AIIdentificationService {
 
     private final ObjectMapper objectMapper;
     private final WebClient webClient;
+    private final DeviceTypeRulesService deviceTypeRulesService;
 
-    public AIIdentificationService() {
+    public AIIdentificationService(DeviceTypeRulesService deviceTypeRulesService) {
+        this.deviceTypeRulesService = deviceTypeRulesService;
         this.objectMapper = new ObjectMapper();
         this.webClient = WebClient.builder()
                 .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024 * 1024))
@@ -53,14 +56,14 @@ public class AIIdentificationService {
         return aiEnabled && apiKey != null && !apiKey.isEmpty();
     }
 
-    public String identifyDevice(Device device) {
+    public String identifyDevice(Device device, DeviceDetails details) {
         if (!isEnabled()) {
             logger.debug("AI identification is disabled or not configured");
             return null;
         }
 
         try {
-            String prompt = buildPrompt(device);
+            String prompt = buildPrompt(device, details);
             String response = callAI(prompt);
 
             if (response != null) {
@@ -74,7 +77,7 @@ public class AIIdentificationService {
         return null;
     }
 
-    private String buildPrompt(Device device) {
+    private String buildPrompt(Device device, DeviceDetails details) {
         StringBuilder sb = new StringBuilder();
         sb.append("Identify this network device based on the following information. ");
         sb.append("Provide a brief description of what type of device this likely is, ");
@@ -82,7 +85,7 @@ public class AIIdentificationService {
 
         sb.append("Device Information:\n");
         sb.append("- MAC Address: ").append(device.getMacAddress()).append("\n");
-        sb.append("- MAC Prefix: ").append(device.getMacAddress().substring(0, 8)).append("\n");
+        sb.append("- MAC Prefix: ").append(device.getMacAddress().getOuiString()).append("\n");
 
         if (device.getVendor() != null && !device.getVendor().equals("Unknown")) {
             sb.append("- Vendor: ").append(device.getVendor()).append("\n");
@@ -96,8 +99,8 @@ public class AIIdentificationService {
             sb.append("- IP Address: ").append(device.getIpAddress()).append("\n");
         }
 
-        if (device.getOpenPorts() != null && !device.getOpenPorts().isEmpty()) {
-            sb.append("- Open Ports: ").append(device.getOpenPorts()).append("\n");
+        if (details != null && details.getOpenPorts() != null && !details.getOpenPorts().isEmpty()) {
+            sb.append("- Open Ports: ").append(details.getOpenPorts()).append("\n");
         }
 
         sb.append("\nProvide your response in a concise format (2-3 sentences max).");
@@ -199,49 +202,9 @@ public class AIIdentificationService {
             return DeviceType.UNKNOWN;
         }
 
-        String lower = aiIdentification.toLowerCase();
-
-        if (lower.contains("smartphone") || lower.contains("iphone") || lower.contains("android phone")) {
-            return DeviceType.SMARTPHONE;
-        }
-        if (lower.contains("tablet") || lower.contains("ipad")) {
-            return DeviceType.TABLET;
-        }
-        if (lower.contains("laptop") || lower.contains("macbook") || lower.contains("notebook")) {
-            return DeviceType.LAPTOP;
-        }
-        if (lower.contains("desktop") || lower.contains("pc") || lower.contains("computer") || lower.contains("imac")) {
-            return DeviceType.COMPUTER;
-        }
-        if (lower.contains("router") || lower.contains("gateway")) {
-            return DeviceType.ROUTER;
-        }
-        if (lower.contains("switch") || lower.contains("network switch")) {
-            return DeviceType.SWITCH;
-        }
-        if (lower.contains("access point") || lower.contains("wifi extender")) {
-            return DeviceType.ACCESS_POINT;
-        }
-        if (lower.contains("smart tv") || lower.contains("television") || lower.contains("streaming")) {
-            return DeviceType.SMART_TV;
-        }
-        if (lower.contains("gaming") || lower.contains("playstation") || lower.contains("xbox") || lower.contains("nintendo")) {
-            return DeviceType.GAMING_CONSOLE;
-        }
-        if (lower.contains("printer") || lower.contains("scanner")) {
-            return DeviceType.PRINTER;
-        }
-        if (lower.contains("camera") || lower.contains("security cam") || lower.contains("webcam")) {
-            return DeviceType.CAMERA;
-        }
-        if (lower.contains("nas") || lower.contains("network storage")) {
-            return DeviceType.NAS;
-        }
-        if (lower.contains("server") || lower.contains("raspberry pi")) {
-            return DeviceType.SERVER;
-        }
-        if (lower.contains("smart home") || lower.contains("iot") || lower.contains("echo") || lower.contains("alexa") || lower.contains("google home")) {
-            return DeviceType.SMART_HOME;
+        DeviceType type = deviceTypeRulesService.getRules().classifyDescription(aiIdentification);
+        if (type != null) {
+            return type;
         }
 
         return DeviceType.UNKNOWN;
@@ -3,6 +3,7 @@ package com.k2so.watcher.service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import javax.sql.DataSource;
@@ -29,6 +30,12 @@ public class BackupService {
 
     private final DataSource dataSource;
     private final SambaBackupService sambaBackupService;
+    private final SequenceMaintenanceService sequenceMaintenanceService;
+    private final SchemaUpdateService schemaUpdateService;
+    private final DeviceDetailsMigrationService deviceDetailsMigrationService;
+    private final IpNumericBackfillService ipNumericBackfillService;
+    private final MacAddressNormalizationService macAddressNormalizationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${spring.datasource.url}")
     private String datasourceUrl;
@@ -39,9 +46,21 @@ public class BackupService {
     @Value("${k2so.backup.max-files:10}")
     private int maxBackupFiles;
 
-    public BackupService(DataSource dataSource, SambaBackupService sambaBackupService) {
+    public BackupService(DataSource dataSource, SambaBackupService sambaBackupService,
+                         SequenceMaintenanceService sequenceMaintenanceService,
+                         SchemaUpdateService schemaUpdateService,
+                         DeviceDetailsMigrationService deviceDetailsMigrationService,
+                         IpNumericBackfillService ipNumericBackfillService,
+                         MacAddressNormalizationService macAddressNormalizationService,
+                         ApplicationEventPublisher eventPublisher) {
         this.dataSource = dataSource;
         this.sambaBackupService = sambaBackupService;
+        this.sequenceMaintenanceService = sequenceMaintenanceService;
+        this.schemaUpdateService = schemaUpdateService;
+        this.deviceDetailsMigrationService = deviceDetailsMigrationService;
+        this.ipNumericBackfillService = ipNumericBackfillService;
+        this.macAddressNormalizationService = macAddressNormalizationService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -115,7 +134,8 @@ public class BackupService {
     }
 
     /**
-     * Restores the database from a backup file
+     * Restores the database from a backup file. Backups of older versions are brought up to the current schema
+     * and their data migrated, as on startup, before the method returns.
      */
     public void restoreFromBackup(InputStream backupInputStream) throws Exception {
         // Create temp directory for extraction
@@ -159,6 +179,19 @@ public class BackupService {
                 logger.info("Database restored successfully from backup");
             }
 
+            // An older backup lacks newer tables and columns and still holds data in legacy columns; the startup
+            // migrations have to run again before anything queries the restored database
+            schemaUpdateService.updateSchema();
+            deviceDetailsMigrationService.migrate();
+            ipNumericBackfillService.backfill();
+            macAddressNormalizationService.normalize();
+
+            // Backups taken before the switch to sequence ids do not contain the sequences
+            sequenceMaintenanceService.alignSequences();
+
+            // Everything derived from the replaced database is stale
+            eventPublisher.publishEvent(InventoryChangedEvent.ofAll());
+
         } finally {
             // Cleanup temp directory
             if (tempDir != null) {
@@ -0,0 +1,168 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.dto.DashboardSnapshot;
+import com.k2so.watcher.dto.ScanSummary;
+import com.k2so.watcher.model.Device;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the dashboard contents in memory so page views and {@code /api/stats} polls cost no queries. Writes to
+ * devices or scans publish an {@link InventoryChangedEvent}; after the commit the affected part of the snapshot
+ * is rebuilt on a background thread. Changes arriving within {@code k2so.dashboard.refresh-delay-ms} of each
+ * other, such as the bulk presence updates of a scan, are folded into one rebuild; edits made by a user are
+ * applied before their request returns.
+ */
+@Service
+public class DashboardSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardSnapshotService.class);
+
+    public static final int RECENT_DEVICES = 10;
+    public static final int ONLINE_DEVICES = 10;
+    public static final int UNKNOWN_DEVICES = 5;
+
+    private final DeviceService deviceService;
+    private final NetworkScannerService networkScannerService;
+
+    @Value("${k2so.dashboard.refresh-delay-ms:1000}")
+    private long refreshDelayMs;
+
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "dashboard-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile DashboardSnapshot snapshot;
+    private long version;
+
+    // Parts changed since the last rebuild and whether a rebuild is queued; guarded by pending, so publishers
+    // never wait for a rebuild in progress
+    private final Object pending = new Object();
+    private boolean devicesDirty;
+    private boolean scansDirty;
+    private boolean refreshQueued;
+
+    public DashboardSnapshotService(DeviceService deviceService, NetworkScannerService networkScannerService) {
+        this.deviceService = deviceService;
+        this.networkScannerService = networkScannerService;
+    }
+
+    /**
+     * The current snapshot; built on the calling thread only if a request arrives before the startup build.
+     */
+    public DashboardSnapshot getSnapshot() {
+        DashboardSnapshot current = snapshot;
+        return current != null ? current : rebuild(true, true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        requestRefresh(InventoryChangedEvent.ofAll());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        requestRefresh(event);
+        if (event.immediate()) {
+            // The queued refresh then finds nothing left to do
+            refresh();
+        }
+    }
+
+    private void requestRefresh(InventoryChangedEvent event) {
+        synchronized (pending) {
+            devicesDirty |= event.devices();
+            scansDirty |= event.scans();
+            if (!refreshQueued) {
+                refreshQueued = true;
+                refresher.schedule(this::refresh, refreshDelayMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void refresh() {
+        boolean devices;
+        boolean scans;
+        synchronized (pending) {
+            devices = devicesDirty;
+            scans = scansDirty;
+            devicesDirty = false;
+            scansDirty = false;
+            refreshQueued = false;
+        }
+        try {
+            rebuild(devices, scans);
+        } catch (Exception e) {
+            logger.warn("Could not rebuild dashboard snapshot, retrying: {}", e.getMessage());
+            requestRefresh(new InventoryChangedEvent(devices, scans, false));
+        }
+    }
+
+    /**
+     * Reloads the changed parts and keeps the rest of the previous snapshot.
+     */
+    private synchronized DashboardSnapshot rebuild(boolean devices, boolean scans) {
+        DashboardSnapshot previous = snapshot;
+        if (previous == null) {
+            devices = true;
+            scans = true;
+        } else if (!devices && !scans) {
+            return previous;
+        }
+        long started = System.nanoTime();
+
+        long total;
+        long online;
+        long unknown;
+        List<Device> recentDevices;
+        List<Device> onlineDeviceList;
+        List<Device> unknownDeviceList;
+        List<Device> pinnedDevices;
+        if (devices) {
+            total = deviceService.countTotalDevices();
+            online = deviceService.countOnlineDevices();
+            unknown = deviceService.countUnknownDevices();
+            recentDevices = deviceService.getRecentDevices(RECENT_DEVICES);
+            onlineDeviceList = deviceService.getOnlineDevices(ONLINE_DEVICES);
+            unknownDeviceList = deviceService.getUnknownDevices(UNKNOWN_DEVICES);
+            pinnedDevices = deviceService.getPinnedDevices();
+        } else {
+            total = previous.getTotalDevices();
+            online = previous.getOnlineDevices();
+            unknown = previous.getUnknownDevices();
+            recentDevices = previous.getRecentDevices();
+            onlineDeviceList = previous.getOnlineDeviceList();
+            unknownDeviceList = previous.getUnknownDeviceList();
+            pinnedDevices = previous.getPinnedDevices();
+        }
+        ScanSummary lastScan = scans
+                ? networkScannerService.getLatestScanSummary().orElse(null)
+                : previous.getLastScan();
+
+        DashboardSnapshot rebuilt = new DashboardSnapshot(++version, LocalDateTime.now(), total, online, unknown,
+                recentDevices, onlineDeviceList, unknownDeviceList, pinnedDevices, lastScan);
+        snapshot = rebuilt;
+        logger.debug("Rebuilt dashboard snapshot {} (devices: {}, scans: {}) in {} ms",
+                version, devices, scans, (System.nanoTime() - started) / 1_000_000);
+        return rebuilt;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+}
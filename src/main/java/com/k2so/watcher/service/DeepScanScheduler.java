@@ -0,0 +1,224 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.model.DeepScanJob;
+import com.k2so.watcher.repository.DeepScanJobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Queues deep scans and runs them on a fixed number of workers so a scan that discovers many new
+ * devices cannot start an unbounded number of nmap processes.
+ * Jobs are stored in the database: at most one job exists per device, manual requests are taken before
+ * automatic ones, and jobs interrupted by a restart are queued again on startup. Finished jobs are removed,
+ * unless a scan of the device was requested while they ran, in which case they are queued again; the result
+ * lives on the device itself.
+ */
+@Service
+public class DeepScanScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeepScanScheduler.class);
+
+    // How long an idle worker sleeps before checking the queue again if it was not woken up
+    private static final long IDLE_WAIT_MS = 30_000;
+
+    private final DeepScanJobRepository deepScanJobRepository;
+    private final DeepScanService deepScanService;
+
+    @Value("${k2so.network.deep-scan.workers:2}")
+    private int workerCount;
+
+    // Jobs queued since an idle worker last woke up; guarded by monitor, so a job queued between a worker
+    // finding the queue empty and starting to wait is not missed
+    private final Object monitor = new Object();
+    private int queuedSignals;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = false;
+
+    public DeepScanScheduler(DeepScanJobRepository deepScanJobRepository, DeepScanService deepScanService) {
+        this.deepScanJobRepository = deepScanJobRepository;
+        this.deepScanService = deepScanService;
+    }
+
+    @PostConstruct
+    public void start() {
+        int requeued = deepScanJobRepository.requeueRunningJobs();
+        if (requeued > 0) {
+            logger.info("Re-queued {} deep scans interrupted by a restart", requeued);
+        }
+
+        running = true;
+        for (int i = 0; i < Math.max(1, workerCount); i++) {
+            Thread worker = new Thread(this::workLoop, "deep-scan-" + (i + 1));
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+        logger.info("Deep scan scheduler started with {} workers, {} jobs pending",
+                workers.size(), deepScanJobRepository.countByStatus("PENDING"));
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    public DeepScanJob enqueueNewDevice(Long deviceId) {
+        return enqueue(deviceId, DeepScanJob.PRIORITY_NEW_DEVICE);
+    }
+
+    public DeepScanJob enqueueManual(Long deviceId) {
+        return enqueue(deviceId, DeepScanJob.PRIORITY_MANUAL);
+    }
+
+    /**
+     * Queues a deep scan for a device. If the device already has a pending or running job no new job is
+     * created: a pending job is raised to the requested priority when that is higher, and a running job is
+     * queued again once it finishes, since it may have started before whatever prompted the request.
+     *
+     * @return the device's job; its status is RUNNING if the requested scan waits for the current one
+     */
+    public synchronized DeepScanJob enqueue(Long deviceId, int priority) {
+        Optional<DeepScanJob> existing = deepScanJobRepository.findByDeviceId(deviceId);
+        if (existing.isPresent()) {
+            DeepScanJob job = existing.get();
+            if ("PENDING".equals(job.getStatus()) && job.getPriority() < priority) {
+                job.setPriority(priority);
+                job = deepScanJobRepository.save(job);
+            } else if ("RUNNING".equals(job.getStatus())
+                    && (job.getRerunPriority() == null || job.getRerunPriority() < priority)) {
+                job.setRerunPriority(priority);
+                job = deepScanJobRepository.save(job);
+                logger.info("Deep scan for device {} is running, queued again for when it finishes", deviceId);
+                return job;
+            }
+            logger.debug("Deep scan for device {} already queued ({})", deviceId, job.getStatus());
+            return job;
+        }
+
+        DeepScanJob job = new DeepScanJob();
+        job.setDeviceId(deviceId);
+        job.setPriority(priority);
+        job = deepScanJobRepository.save(job);
+        logger.info("Queued deep scan for device {} (priority {})", deviceId, priority);
+
+        signalQueued();
+        return job;
+    }
+
+    /**
+     * Queue statistics for the scan status API.
+     */
+    public Map<String, Object> getQueueStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("workers", workers.size());
+        status.put("pending", deepScanJobRepository.countByStatus("PENDING"));
+        status.put("running", deepScanJobRepository.countByStatus("RUNNING"));
+        status.put("oldestWaitSeconds", deepScanJobRepository.findFirstByStatusOrderByQueuedAtAsc("PENDING")
+                .map(DeepScanJob::getWaitSeconds)
+                .orElse(0L));
+        return status;
+    }
+
+    /**
+     * Removes a job once its scan has ended, or queues it again if a rerun was requested meanwhile.
+     * Synchronized with {@link #enqueue} so a request cannot land between the check and the delete.
+     */
+    private synchronized void finishJob(DeepScanJob job) {
+        DeepScanJob current = deepScanJobRepository.findById(job.getId()).orElse(null);
+        if (current == null || current.getRerunPriority() == null) {
+            deepScanJobRepository.delete(job);
+            return;
+        }
+        current.setStatus("PENDING");
+        current.setPriority(current.getRerunPriority());
+        current.setRerunPriority(null);
+        current.setQueuedAt(LocalDateTime.now());
+        current.setStartedAt(null);
+        deepScanJobRepository.save(current);
+        logger.info("Re-queued deep scan for device {} requested while it ran", current.getDeviceId());
+        signalQueued();
+    }
+
+    private void signalQueued() {
+        synchronized (monitor) {
+            queuedSignals++;
+            monitor.notify();
+        }
+    }
+
+    private synchronized DeepScanJob claimNextJob() {
+        Optional<DeepScanJob> next = deepScanJobRepository.findFirstByStatusOrderByPriorityDescIdAsc("PENDING");
+        if (next.isEmpty()) {
+            return null;
+        }
+        DeepScanJob job = next.get();
+        job.setStatus("RUNNING");
+        job.setStartedAt(LocalDateTime.now());
+        return deepScanJobRepository.save(job);
+    }
+
+    /**
+     * Waits until a job is queued, or at most {@link #IDLE_WAIT_MS} for jobs that arrive without a signal.
+     */
+    private void awaitQueuedJob() throws InterruptedException {
+        synchronized (monitor) {
+            long deadline = System.currentTimeMillis() + IDLE_WAIT_MS;
+            while (queuedSignals == 0 && running) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return;
+                }
+                monitor.wait(remaining);
+            }
+            if (queuedSignals > 0) {
+                queuedSignals--;
+            }
+        }
+    }
+
+    private void workLoop() {
+        while (running) {
+            try {
+                DeepScanJob job = claimNextJob();
+                if (job == null) {
+                    awaitQueuedJob();
+                    continue;
+                }
+
+                logger.info("Starting deep scan job {} for device {} after waiting {}s",
+                        job.getId(), job.getDeviceId(), job.getWaitSeconds());
+                try {
+                    deepScanService.performDeepScan(job.getDeviceId());
+                } finally {
+                    finishJob(job);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Error processing deep scan queue", e);
+                synchronized (monitor) {
+                    try {
+                        // Back off so a persistent failure (e.g. database unavailable) does not spin
+                        monitor.wait(1000);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+}
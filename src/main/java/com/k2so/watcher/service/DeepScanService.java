@@ -0,0 +1,146 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.model.Device;
+import com.k2so.watcher.repository.DeviceRepository;
+import com.k2so.watcher.util.NmapXmlParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs aggressive nmap scans against single devices.
+ */
+@Service
+public class DeepScanService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeepScanService.class);
+
+    private final DeviceRepository deviceRepository;
+    private final DeviceService deviceService;
+    private final ScannerCapabilityService scannerCapabilityService;
+
+    public DeepScanService(DeviceRepository deviceRepository, DeviceService deviceService,
+                           ScannerCapabilityService scannerCapabilityService) {
+        this.deviceRepository = deviceRepository;
+        this.deviceService = deviceService;
+        this.scannerCapabilityService = scannerCapabilityService;
+    }
+
+    /**
+     * Performs an aggressive nmap scan on a specific device to discover open ports, OS, and services.
+     * This is a blocking operation that can take several minutes; callers should go through
+     * {@link DeepScanScheduler} rather than invoking it directly.
+     */
+    public void performDeepScan(Long deviceId) {
+        Device device = deviceRepository.findById(deviceId).orElse(null);
+        if (device == null || device.getIpAddress() == null) {
+            logger.error("Cannot perform deep scan: device not found or no IP address");
+            return;
+        }
+
+        String ip = device.getIpAddress();
+        logger.info("Starting deep scan on device {} ({})", deviceId, ip);
+
+        StringBuilder scanLog = new StringBuilder();
+        scanLog.append("Deep Scan started at: ").append(LocalDateTime.now()).append("\n");
+        scanLog.append("Target IP: ").append(ip).append("\n");
+        scanLog.append("---\n");
+
+        Path xmlFile = null;
+        try {
+            // The text output is kept as the deep scan log; the XML report is what gets parsed
+            xmlFile = Files.createTempFile("k2so-deepscan-", ".xml");
+            List<String> command = scannerCapabilityService.privilegedCommand("nmap", "-A", "-T4", "-oX", xmlFile.toString(), ip);
+            scanLog.append("Command: ").append(String.join(" ", command)).append("\n\n");
+
+            ProcessBuilder pb = new ProcessBuilder(command);
+            pb.redirectErrorStream(true);
+            Process process = pb.start();
+
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    scanLog.append(line).append("\n");
+                }
+            }
+
+            // Wait up to 5 minutes for aggressive scan
+            boolean finished = process.waitFor(300, TimeUnit.SECONDS);
+            if (!finished) {
+                process.destroyForcibly();
+                scanLog.append("\nWARNING: Scan timed out after 5 minutes\n");
+            }
+
+            NmapXmlParser.Host host = parseReport(xmlFile, ip);
+
+            // Open ports
+            StringBuilder ports = new StringBuilder();
+            if (host != null) {
+                for (NmapXmlParser.Port port : host.openPorts()) {
+                    if (ports.length() > 0) ports.append(", ");
+                    ports.append(port.describe());
+                }
+            }
+
+            // OS detection, and the hostname if the device has none yet; the device is written with a targeted
+            // update, since it may have been edited while the scan ran
+            String detectedOs = null;
+            String hostname = null;
+            if (host != null) {
+                NmapXmlParser.OsMatch os = host.bestOsMatch();
+                if (os != null) {
+                    detectedOs = os.name();
+                }
+                hostname = host.hostname();
+            }
+
+            deviceService.recordDeepScan(deviceId, ports.toString(), scanLog.toString(), detectedOs, hostname);
+
+            logger.info("Deep scan completed for device {} ({})", deviceId, ip);
+
+        } catch (Exception e) {
+            logger.error("Error during deep scan of device {}", deviceId, e);
+            scanLog.append("\nERROR: ").append(e.getMessage()).append("\n");
+            deviceService.recordDeepScan(deviceId, null, scanLog.toString(), null, null);
+        } finally {
+            if (xmlFile != null) {
+                try {
+                    Files.deleteIfExists(xmlFile);
+                } catch (IOException e) {
+                    logger.warn("Could not delete deep scan report {}", xmlFile);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the XML report and returns the entry for the target, or null if nmap did not report it
+     * (host down, or the scan was killed before the report was written).
+     */
+    private NmapXmlParser.Host parseReport(Path xmlFile, String ip) {
+        if (!Files.isRegularFile(xmlFile)) {
+            return null;
+        }
+        NmapXmlParser.Host[] target = new NmapXmlParser.Host[1];
+        try (InputStream in = Files.newInputStream(xmlFile)) {
+            NmapXmlParser.parse(in, host -> {
+                if (ip.equals(host.ipAddress()) || target[0] == null) {
+                    target[0] = host;
+                }
+            });
+        } catch (Exception e) {
+            logger.warn("Could not parse nmap report for {}: {}", ip, e.getMessage());
+        }
+        return target[0];
+    }
+}
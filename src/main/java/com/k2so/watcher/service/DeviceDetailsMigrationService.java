@@ -0,0 +1,105 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.model.CompressedTextConverter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Moves notes, open ports and deep scan logs written before {@code device_details} existed out of the
+ * {@code devices} table, compressing the logs on the way, then drops the old columns. Schema update never
+ * drops columns, so without this the old data would keep bloating every device row.
+ */
+@Service
+@DependsOn("entityManagerFactory")
+public class DeviceDetailsMigrationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeviceDetailsMigrationService.class);
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final List<String> LEGACY_COLUMNS = List.of("NOTES", "OPEN_PORTS", "DEEP_SCAN_LOG");
+
+    private final DataSource dataSource;
+
+    public DeviceDetailsMigrationService(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        try (Connection conn = dataSource.getConnection()) {
+            if (!hasLegacyColumns(conn)) {
+                return;
+            }
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                int moved = copyDetails(conn);
+                conn.commit();
+                logger.info("Moved details of {} devices to device_details", moved);
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+            try (Statement statement = conn.createStatement()) {
+                for (String column : LEGACY_COLUMNS) {
+                    statement.execute("ALTER TABLE devices DROP COLUMN IF EXISTS " + column);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error moving device details out of the devices table", e);
+        }
+    }
+
+    private static boolean hasLegacyColumns(Connection conn) throws Exception {
+        DatabaseMetaData metaData = conn.getMetaData();
+        try (ResultSet rs = metaData.getColumns(null, null, "DEVICES", "DEEP_SCAN_LOG")) {
+            return rs.next();
+        }
+    }
+
+    private static int copyDetails(Connection conn) throws Exception {
+        CompressedTextConverter converter = new CompressedTextConverter();
+        int moved = 0;
+        int pending = 0;
+        // Rows already in device_details were written by the new code and win over the legacy columns
+        try (Statement select = conn.createStatement();
+             ResultSet rs = select.executeQuery("SELECT d.id, d.notes, d.open_ports, d.deep_scan_log FROM devices d"
+                     + " WHERE (d.notes IS NOT NULL OR d.open_ports IS NOT NULL OR d.deep_scan_log IS NOT NULL)"
+                     + " AND NOT EXISTS (SELECT 1 FROM device_details dd WHERE dd.device_id = d.id)");
+             PreparedStatement insert = conn.prepareStatement("INSERT INTO device_details"
+                     + " (device_id, notes, open_ports, deep_scan_log_gz) VALUES (?, ?, ?, ?)")) {
+
+            while (rs.next()) {
+                insert.setLong(1, rs.getLong(1));
+                insert.setString(2, rs.getString(2));
+                insert.setString(3, rs.getString(3));
+                insert.setBytes(4, converter.convertToDatabaseColumn(rs.getString(4)));
+                insert.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    insert.executeBatch();
+                    moved += pending;
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                insert.executeBatch();
+                moved += pending;
+            }
+        }
+        return moved;
+    }
+}
@@ -17,6 +17,8 @@ public class DeviceIdentificationService {
     // Vendor to likely device type mappings
     private static final Map<String, DeviceType> VENDOR_TYPE_MAP = new HashMap<>();
 
+    private final DeviceTypeRulesService deviceTypeRulesService;
+
     static {
         // Routers and networking
         VENDOR_TYPE_MAP.put("Cisco", DeviceType.ROUTER);
@@ -47,6 +49,10 @@ public class DeviceIdentificationService {
         VENDOR_TYPE_MAP.put("Raspberry Pi", DeviceType.SERVER);
     }
 
+    public DeviceIdentificationService(DeviceTypeRulesService deviceTypeRulesService) {
+        this.deviceTypeRulesService = deviceTypeRulesService;
+    }
+
     public DeviceType identifyDeviceType(Device device) {
         String vendor = device.getVendor();
         String hostname = device.getHostname();
@@ -61,80 +67,9 @@ public class DeviceIdentificationService {
 
         // Try to identify by hostname patterns
         if (hostname != null && !hostname.isEmpty()) {
-            String lowerHostname = hostname.toLowerCase();
-
-            // Smartphones
-            if (lowerHostname.contains("iphone") || lowerHostname.contains("android") ||
-                lowerHostname.contains("galaxy") || lowerHostname.contains("pixel")) {
-                return DeviceType.SMARTPHONE;
-            }
-
-            // Tablets
-            if (lowerHostname.contains("ipad") || lowerHostname.contains("tablet")) {
-                return DeviceType.TABLET;
-            }
-
-            // Laptops
-            if (lowerHostname.contains("macbook") || lowerHostname.contains("laptop") ||
-                lowerHostname.contains("notebook")) {
-                return DeviceType.LAPTOP;
-            }
-
-            // Desktops
-            if (lowerHostname.contains("desktop") || lowerHostname.contains("pc") ||
-                lowerHostname.contains("imac") || lowerHostname.contains("mac-mini")) {
-                return DeviceType.COMPUTER;
-            }
-
-            // Printers
-            if (lowerHostname.contains("printer") || lowerHostname.contains("epson") ||
-                lowerHostname.contains("canon") || lowerHostname.contains("hp-") ||
-                lowerHostname.contains("brother")) {
-                return DeviceType.PRINTER;
-            }
-
-            // Smart TVs
-            if (lowerHostname.contains("-tv") || lowerHostname.contains("smarttv") ||
-                lowerHostname.contains("roku") || lowerHostname.contains("firetv") ||
-                lowerHostname.contains("chromecast") || lowerHostname.contains("appletv")) {
-                return DeviceType.SMART_TV;
-            }
-
-            // Gaming consoles
-            if (lowerHostname.contains("playstation") || lowerHostname.contains("xbox") ||
-                lowerHostname.contains("nintendo") || lowerHostname.contains("switch")) {
-                return DeviceType.GAMING_CONSOLE;
-            }
-
-            // NAS devices
-            if (lowerHostname.contains("nas") || lowerHostname.contains("synology") ||
-                lowerHostname.contains("qnap") || lowerHostname.contains("drobo")) {
-                return DeviceType.NAS;
-            }
-
-            // Cameras
-            if (lowerHostname.contains("camera") || lowerHostname.contains("cam-") ||
-                lowerHostname.contains("ipcam") || lowerHostname.contains("nest")) {
-                return DeviceType.CAMERA;
-            }
-
-            // Smart home
-            if (lowerHostname.contains("echo") || lowerHostname.contains("alexa") ||
-                lowerHostname.contains("home-mini") || lowerHostname.contains("homepod") ||
-                lowerHostname.contains("hue") || lowerHostname.contains("smartthings")) {
-                return DeviceType.SMART_HOME;
-            }
-
-            // Servers
-            if (lowerHostname.contains("server") || lowerHostname.contains("srv") ||
-                lowerHostname.contains("pi") || lowerHostname.contains("raspberry")) {
-                return DeviceType.SERVER;
-            }
-
-            // Routers / Access Points
-            if (lowerHostname.contains("router") || lowerHostname.contains("gateway") ||
-                lowerHostname.contains("ap-") || lowerHostname.contains("accesspoint")) {
-                return DeviceType.ROUTER;
+            DeviceType hostnameType = deviceTypeRulesService.getRules().classifyHostname(hostname);
+            if (hostnameType != null) {
+                return hostnameType;
             }
         }
 
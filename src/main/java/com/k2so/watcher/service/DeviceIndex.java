@@ -0,0 +1,77 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.model.Device;
+import com.k2so.watcher.util.MacAddress;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * In-memory snapshot of the device inventory keyed by MAC and by IP address.
+ * Loaded once per scan so host reconciliation does not query the database per host;
+ * callers must report every saved device through {@link #update} to keep both keys current.
+ * Not thread-safe - the owner serializes access.
+ */
+public class DeviceIndex {
+
+    private final Map<MacAddress, Device> byMac = new HashMap<>();
+    private final Map<String, Device> byIp = new HashMap<>();
+
+    public DeviceIndex(List<Device> devices) {
+        for (Device device : devices) {
+            if (device.getMacAddress() != null) {
+                byMac.put(device.getMacAddress(), device);
+            }
+            // Keep the oldest device when several share an IP, as the IP lookup is ambiguous anyway
+            if (device.getIpAddress() != null) {
+                byIp.merge(device.getIpAddress(), device,
+                        (existing, candidate) -> existing.getId() <= candidate.getId() ? existing : candidate);
+            }
+        }
+    }
+
+    public Device findByMacAddress(MacAddress macAddress) {
+        return macAddress != null ? byMac.get(macAddress) : null;
+    }
+
+    public Device findByIpAddress(String ipAddress) {
+        return ipAddress != null ? byIp.get(ipAddress) : null;
+    }
+
+    /**
+     * Replaces the entry for a device after it was saved.
+     *
+     * @param previousMac the MAC the device was indexed under before the change, or null for a new device
+     * @param previousIp  the IP the device was indexed under before the change, or null for a new device
+     * @param saved       the device instance returned by the repository
+     */
+    public void update(MacAddress previousMac, String previousIp, Device saved) {
+        if (previousMac != null && isSameDevice(byMac.get(previousMac), saved)) {
+            byMac.remove(previousMac);
+        }
+        if (previousIp != null && isSameDevice(byIp.get(previousIp), saved)) {
+            byIp.remove(previousIp);
+        }
+        if (saved.getMacAddress() != null) {
+            byMac.put(saved.getMacAddress(), saved);
+        }
+        if (saved.getIpAddress() != null) {
+            byIp.putIfAbsent(saved.getIpAddress(), saved);
+        }
+    }
+
+    public Collection<Device> getDevices() {
+        return byMac.values();
+    }
+
+    public int size() {
+        return byMac.size();
+    }
+
+    private static boolean isSameDevice(Device indexed, Device saved) {
+        return indexed != null && Objects.equals(indexed.getId(), saved.getId());
+    }
+}
@@ -0,0 +1,92 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.repository.DeviceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes device presence (online flag and last seen time) with bulk update statements
+ * instead of loading and saving every device.
+ */
+@Service
+public class DevicePresenceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DevicePresenceService.class);
+
+    // Keeps IN lists well below database parameter limits
+    private static final int BATCH_SIZE = 500;
+
+    private final DeviceRepository deviceRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public DevicePresenceService(DeviceRepository deviceRepository, ApplicationEventPublisher eventPublisher) {
+        this.deviceRepository = deviceRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Applies the result of a full scan: devices that were online but not seen go offline,
+     * devices that were seen are marked online with a fresh last seen time.
+     *
+     * @param previouslyOnline ids of devices that were online when the scan started
+     * @param seen             ids of devices the scan found
+     * @return the number of devices that went offline
+     */
+    public int applyScanPresence(Set<Long> previouslyOnline, Set<Long> seen) {
+        Set<Long> wentOffline = new HashSet<>(previouslyOnline);
+        wentOffline.removeAll(seen);
+
+        int offline = markOffline(wentOffline);
+        markSeen(seen, LocalDateTime.now());
+
+        logger.info("Presence update: {} seen, {} went offline", seen.size(), offline);
+        return offline;
+    }
+
+    public int markSeen(Collection<Long> deviceIds, LocalDateTime seenAt) {
+        int updated = 0;
+        for (List<Long> batch : partition(deviceIds)) {
+            updated += deviceRepository.markSeen(batch, seenAt);
+        }
+        if (updated > 0) {
+            eventPublisher.publishEvent(InventoryChangedEvent.ofDevices());
+        }
+        return updated;
+    }
+
+    public int markOffline(Collection<Long> deviceIds) {
+        int updated = 0;
+        for (List<Long> batch : partition(deviceIds)) {
+            updated += deviceRepository.markOffline(batch);
+        }
+        if (updated > 0) {
+            eventPublisher.publishEvent(InventoryChangedEvent.ofDevices());
+        }
+        return updated;
+    }
+
+    private static List<List<Long>> partition(Collection<Long> ids) {
+        List<List<Long>> batches = new ArrayList<>();
+        List<Long> current = new ArrayList<>(Math.min(ids.size(), BATCH_SIZE));
+        for (Long id : ids) {
+            current.add(id);
+            if (current.size() == BATCH_SIZE) {
+                batches.add(current);
+                current = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+}
@@ -1,57 +1,164 @@
 package com.k2so.watcher.service;
 
+import com.k2so.watcher.dto.DeviceCursor;
+import com.k2so.watcher.dto.DeviceDetail;
+import com.k2so.watcher.dto.DeviceFilter;
+import com.k2so.watcher.dto.DevicePage;
+import com.k2so.watcher.dto.DeviceSort;
+import com.k2so.watcher.dto.DeviceSummary;
 import com.k2so.watcher.model.Device;
+import com.k2so.watcher.model.DeviceDetails;
 import com.k2so.watcher.model.DeviceServiceUrl;
 import com.k2so.watcher.model.DeviceType;
+import com.k2so.watcher.repository.DeviceDetailsRepository;
 import com.k2so.watcher.repository.DeviceRepository;
 import com.k2so.watcher.repository.DeviceServiceUrlRepository;
 import com.k2so.watcher.repository.ScanResultRepository;
+import com.k2so.watcher.util.Ipv4Range;
+import com.k2so.watcher.util.MacAddress;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class DeviceService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final DeviceRepository deviceRepository;
+    private final DeviceDetailsRepository deviceDetailsRepository;
     private final DeviceServiceUrlRepository deviceServiceUrlRepository;
     private final ScanResultRepository scanResultRepository;
     private final AIIdentificationService aiIdentificationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public DeviceService(DeviceRepository deviceRepository,
+                        DeviceDetailsRepository deviceDetailsRepository,
                         DeviceServiceUrlRepository deviceServiceUrlRepository,
                         ScanResultRepository scanResultRepository,
-                        AIIdentificationService aiIdentificationService) {
+                        AIIdentificationService aiIdentificationService,
+                        ApplicationEventPublisher eventPublisher) {
         this.deviceRepository = deviceRepository;
+        this.deviceDetailsRepository = deviceDetailsRepository;
         this.deviceServiceUrlRepository = deviceServiceUrlRepository;
         this.scanResultRepository = scanResultRepository;
         this.aiIdentificationService = aiIdentificationService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * One page of devices matching the filter. The cursor is the {@code nextCursor} of the previous page, or null
+     * for the first page; the page size is clamped to {@link #MAX_PAGE_SIZE}.
+     *
+     * @throws IllegalArgumentException if the cursor is not valid for the sort
+     */
+    public DevicePage<Device> getDevicePage(DeviceFilter filter, DeviceSort sort, String cursor, int limit) {
+        int size = pageSize(limit);
+        // One extra row tells whether another page follows
+        List<Device> devices = deviceRepository.findPage(filter, sort, decodeCursor(cursor, sort), size + 1);
+        if (devices.size() <= size) {
+            return new DevicePage<>(devices, null);
+        }
+        devices = devices.subList(0, size);
+        return new DevicePage<>(devices, DeviceCursor.after(sort, devices.get(size - 1)).encode());
+    }
+
+    /**
+     * As {@link #getDevicePage}, selecting only the summary columns.
+     */
+    public DevicePage<DeviceSummary> getDeviceSummaryPage(DeviceFilter filter, DeviceSort sort, String cursor, int limit) {
+        int size = pageSize(limit);
+        List<DeviceSummary> devices = deviceRepository.findSummaryPage(filter, sort, decodeCursor(cursor, sort), size + 1);
+        if (devices.size() <= size) {
+            return new DevicePage<>(devices, null);
+        }
+        devices = devices.subList(0, size);
+        return new DevicePage<>(devices, DeviceCursor.after(sort, devices.get(size - 1)).encode());
     }
 
-    public List<Device> getAllDevices() {
-        return deviceRepository.findAllOrderByLastSeenDesc();
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
     }
 
-    public List<Device> getOnlineDevices() {
-        return deviceRepository.findByOnlineTrue();
+    private static DeviceCursor decodeCursor(String cursor, DeviceSort sort) {
+        return cursor != null && !cursor.isBlank() ? DeviceCursor.decode(cursor.trim(), sort) : null;
     }
 
-    public List<Device> getUnknownDevices() {
-        return deviceRepository.findByKnownFalse();
+    public List<Device> getRecentDevices(int limit) {
+        return getDevicePage(DeviceFilter.none(), DeviceSort.LAST_SEEN, null, limit).getDevices();
+    }
+
+    public List<Device> getOnlineDevices(int limit) {
+        DeviceFilter online = new DeviceFilter(true, null, null, null, null);
+        return getDevicePage(online, DeviceSort.LAST_SEEN, null, limit).getDevices();
+    }
+
+    public List<Device> getUnknownDevices(int limit) {
+        DeviceFilter unknown = new DeviceFilter(null, false, null, null, null);
+        return getDevicePage(unknown, DeviceSort.LAST_SEEN, null, limit).getDevices();
     }
 
     public List<Device> getDevicesWithDuplicateIps() {
         return deviceRepository.findDevicesWithDuplicateIpAddresses();
     }
 
+    public List<Device> getDevicesWithDuplicateIpsInSubnet(String subnet) {
+        Ipv4Range range = Ipv4Range.parse(subnet);
+        return deviceRepository.findDevicesWithDuplicateIpsBetween(range.getFirstNumeric(), range.getLastNumeric());
+    }
+
     public Optional<Device> getDeviceById(Long id) {
         return deviceRepository.findById(id);
     }
 
     public Optional<Device> getDeviceByMac(String macAddress) {
-        return deviceRepository.findByMacAddress(macAddress);
+        MacAddress mac = MacAddress.tryParse(macAddress);
+        return mac != null ? deviceRepository.findByMacAddress(mac) : Optional.empty();
+    }
+
+    public Optional<DeviceDetail> getDeviceDetail(Long id) {
+        return deviceRepository.findById(id).map(device -> DeviceDetail.of(device, getDetails(device),
+                deviceServiceUrlRepository.findByDeviceIdOrderByAliasAsc(id)));
+    }
+
+    /**
+     * Notes, open ports and deep scan log of a device; an empty, unsaved record if it has none yet.
+     */
+    public DeviceDetails getDetails(Device device) {
+        return deviceDetailsRepository.findById(device.getId()).orElseGet(() -> new DeviceDetails(device));
+    }
+
+    @Transactional
+    public DeviceDetails saveDetails(DeviceDetails details) {
+        return deviceDetailsRepository.save(details);
+    }
+
+    /**
+     * Stores the outcome of a deep scan. The details are read again and the device row gets a targeted update,
+     * so notes and edits made while the scan ran are kept. A null {@code openPorts}, {@code detectedOs} or
+     * {@code hostname} keeps the stored value.
+     */
+    @Transactional
+    public void recordDeepScan(Long deviceId, String openPorts, String deepScanLog,
+                               String detectedOs, String hostname) {
+        if (!deviceRepository.existsById(deviceId)) {
+            // Deleted while the scan ran
+            return;
+        }
+        DeviceDetails details = deviceDetailsRepository.findById(deviceId)
+                .orElseGet(() -> new DeviceDetails(deviceRepository.getReferenceById(deviceId)));
+        if (openPorts != null) {
+            details.setOpenPorts(openPorts);
+        }
+        details.setDeepScanLog(deepScanLog);
+        deviceDetailsRepository.save(details);
+        deviceRepository.recordDeepScan(deviceId, detectedOs, hostname, LocalDateTime.now());
+        eventPublisher.publishEvent(InventoryChangedEvent.ofDevices());
     }
 
     @Transactional
@@ -65,11 +172,20 @@ public class DeviceService {
         device.setDeviceType(deviceType);
         device.setKnown(known);
         device.setTrusted(trusted);
-        device.setNotes(notes);
         device.setServiceUrl(serviceUrl);
         device.setPinned(pinned);
 
-        return deviceRepository.save(device);
+        // Only write the details row when the notes actually changed, so saving the form creates no empty rows
+        DeviceDetails details = getDetails(device);
+        String currentNotes = details.getNotes() != null ? details.getNotes() : "";
+        if (!currentNotes.equals(notes != null ? notes : "")) {
+            details.setNotes(notes);
+            deviceDetailsRepository.save(details);
+        }
+
+        Device saved = deviceRepository.save(device);
+        eventPublisher.publishEvent(InventoryChangedEvent.ofDeviceEdit());
+        return saved;
     }
 
     @Transactional
@@ -78,6 +194,7 @@ public class DeviceService {
                 .orElseThrow(() -> new IllegalArgumentException("Device not found"));
         device.setKnown(true);
         deviceRepository.save(device);
+        eventPublisher.publishEvent(InventoryChangedEvent.ofDeviceEdit());
     }
 
     @Transactional
@@ -87,12 +204,15 @@ public class DeviceService {
         device.setTrusted(true);
         device.setKnown(true);
         deviceRepository.save(device);
+        eventPublisher.publishEvent(InventoryChangedEvent.ofDeviceEdit());
     }
 
     @Transactional
     public void deleteDevice(Long id) {
         scanResultRepository.deleteByDeviceId(id);
+        deviceDetailsRepository.deleteById(id);
         deviceRepository.deleteById(id);
+        eventPublisher.publishEvent(InventoryChangedEvent.ofDeviceEdit());
     }
 
     @Transactional
@@ -100,7 +220,7 @@ public class DeviceService {
         Device device = deviceRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Device not found"));
 
-        String identification = aiIdentificationService.identifyDevice(device);
+        String identification = aiIdentificationService.identifyDevice(device, getDetails(device));
         if (identification != null) {
             device.setAiIdentification(identification);
 
@@ -111,6 +231,7 @@ public class DeviceService {
             }
 
             deviceRepository.save(device);
+            eventPublisher.publishEvent(InventoryChangedEvent.ofDeviceEdit());
         }
 
         return identification;
@@ -129,7 +250,7 @@ public class DeviceService {
     }
 
     public List<Device> getPinnedDevices() {
-        return deviceRepository.findByPinnedTrueOrderByCustomNameAsc();
+        return deviceRepository.findPinnedWithServiceUrls();
     }
 
     @Transactional
@@ -138,6 +259,7 @@ public class DeviceService {
                 .orElseThrow(() -> new IllegalArgumentException("Device not found"));
         device.setPinned(!device.isPinned());
         deviceRepository.save(device);
+        eventPublisher.publishEvent(InventoryChangedEvent.ofDeviceEdit());
     }
 
     @Transactional
@@ -146,11 +268,14 @@ public class DeviceService {
                 .orElseThrow(() -> new IllegalArgumentException("Device not found"));
         device.setServiceUrl(serviceUrl);
         deviceRepository.save(device);
+        eventPublisher.publishEvent(InventoryChangedEvent.ofDeviceEdit());
     }
 
     @Transactional
     public Device saveDevice(Device device) {
-        return deviceRepository.save(device);
+        Device saved = deviceRepository.save(device);
+        eventPublisher.publishEvent(InventoryChangedEvent.ofDeviceEdit());
+        return saved;
     }
 
     // Service URL management methods
@@ -163,6 +288,7 @@ public class DeviceService {
         DeviceServiceUrl serviceUrl = new DeviceServiceUrl(device, alias, url);
         device.addServiceUrl(serviceUrl);
         deviceRepository.save(device);
+        eventPublisher.publishEvent(InventoryChangedEvent.ofDeviceEdit());
 
         return serviceUrl;
     }
@@ -175,11 +301,13 @@ public class DeviceService {
         serviceUrl.setAlias(alias);
         serviceUrl.setUrl(url);
         deviceServiceUrlRepository.save(serviceUrl);
+        eventPublisher.publishEvent(InventoryChangedEvent.ofDeviceEdit());
     }
 
     @Transactional
     public void deleteServiceUrl(Long serviceUrlId) {
         deviceServiceUrlRepository.deleteById(serviceUrlId);
+        eventPublisher.publishEvent(InventoryChangedEvent.ofDeviceEdit());
     }
 
     public List<DeviceServiceUrl> getServiceUrls(Long deviceId) {
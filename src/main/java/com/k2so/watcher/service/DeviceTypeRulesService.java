@@ -0,0 +1,116 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.util.DeviceTypeRules;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Holds the compiled device type keyword rules. Rules come from the file at {@code k2so.identification.rules-path}
+ * when it exists, otherwise from the bundled {@code device-type-rules.txt}. The file is reloaded when it changes;
+ * a file that fails to parse is logged and the previous rules stay in use.
+ */
+@Service
+public class DeviceTypeRulesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeviceTypeRulesService.class);
+
+    private static final String BUNDLED_RULES = "device-type-rules.txt";
+
+    @Value("${k2so.identification.rules-path:}")
+    private String rulesPath;
+
+    private volatile DeviceTypeRules rules;
+    // Modification time of the loaded file, -1 for the bundled rules; the initial value forces a first load
+    private volatile long rulesModified = Long.MIN_VALUE;
+
+    @PostConstruct
+    public void init() {
+        reloadIfChanged();
+        if (rules == null) {
+            // The configured file is broken; start with the bundled rules and pick the file up once it is fixed
+            try {
+                load(-1);
+            } catch (Exception e) {
+                throw new IllegalStateException("Bundled device type rules could not be loaded", e);
+            }
+        }
+    }
+
+    public DeviceTypeRules getRules() {
+        return rules;
+    }
+
+    public String getRulesPath() {
+        return rulesPath;
+    }
+
+    @Scheduled(fixedDelayString = "${k2so.identification.check-interval-ms:60000}",
+               initialDelayString = "${k2so.identification.check-interval-ms:60000}")
+    public void reloadIfChanged() {
+        try {
+            long modified = fileModified();
+            if (modified != rulesModified) {
+                load(modified);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not check device type rules {}: {}", rulesPath, e.getMessage());
+        }
+    }
+
+    /**
+     * Reloads the rules even if the file did not change.
+     *
+     * @throws IllegalArgumentException if the file does not parse; the previous rules stay in use
+     */
+    public DeviceTypeRules reload() throws Exception {
+        load(fileModified());
+        return rules;
+    }
+
+    private long fileModified() throws Exception {
+        if (rulesPath == null || rulesPath.isBlank()) {
+            return -1;
+        }
+        Path file = Paths.get(rulesPath);
+        return Files.isReadable(file) ? Files.getLastModifiedTime(file).toMillis() : -1;
+    }
+
+    private synchronized void load(long modified) throws Exception {
+        DeviceTypeRules loaded;
+        String source;
+        try {
+            if (modified < 0) {
+                source = "classpath:" + BUNDLED_RULES;
+                try (InputStream in = getClass().getClassLoader().getResourceAsStream(BUNDLED_RULES)) {
+                    if (in == null) {
+                        throw new IllegalStateException(BUNDLED_RULES + " is missing from the classpath");
+                    }
+                    loaded = DeviceTypeRules.parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+                }
+            } else {
+                source = rulesPath;
+                try (Reader reader = Files.newBufferedReader(Paths.get(rulesPath), StandardCharsets.UTF_8)) {
+                    loaded = DeviceTypeRules.parse(reader);
+                }
+            }
+        } finally {
+            // A broken file is reported once, not on every check
+            rulesModified = modified;
+        }
+
+        rules = loaded;
+        logger.info("Loaded device type rules from {}: {}", source, loaded);
+    }
+}
@@ -0,0 +1,226 @@
+package com.k2so.watcher.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reverse-DNS lookups for discovered hosts.
+ * Lookups run concurrently up to a fixed cap, each one is bounded by a deadline, and results
+ * (including "no PTR record") are cached across scans so silent hosts are not retried on every scan.
+ */
+@Service
+public class HostnameResolutionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HostnameResolutionService.class);
+
+    private static final int MAX_CACHE_ENTRIES = 10_000;
+
+    @Value("${k2so.network.dns.concurrency:16}")
+    private int concurrency;
+
+    @Value("${k2so.network.dns.timeout-ms:1000}")
+    private long timeoutMs;
+
+    @Value("${k2so.network.dns.cache-ttl-seconds:3600}")
+    private long cacheTtlSeconds;
+
+    @Value("${k2so.network.dns.negative-ttl-seconds:600}")
+    private long negativeTtlSeconds;
+
+    // Least recently used entries are dropped once the cache is full
+    private final Map<String, CacheEntry> cache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                    return size() > MAX_CACHE_ENTRIES;
+                }
+            });
+
+    // InetAddress.getHostName cannot be interrupted, so a lookup that misses its deadline keeps its
+    // thread until the system resolver gives up. Each lookup holds a permit until its thread is done,
+    // so the semaphore caps the resolver threads, not just the lookups callers are still waiting for.
+    private final ExecutorService executor = Executors.newCachedThreadPool(new DaemonThreadFactory());
+
+    private volatile Semaphore permits;
+
+    /**
+     * Resolves the hostname for an IP, returning {@code null} when there is no PTR record
+     * or the lookup does not finish before the deadline.
+     */
+    public String resolve(String ip) {
+        return resolveAsync(ip).join();
+    }
+
+    /**
+     * Resolves hostnames for all IPs concurrently. The returned map only contains IPs that resolved.
+     */
+    public Map<String, String> resolveAll(Collection<String> ips) {
+        Map<String, CompletableFuture<String>> pending = new LinkedHashMap<>();
+        for (String ip : ips) {
+            pending.putIfAbsent(ip, resolveAsync(ip));
+        }
+
+        Map<String, String> hostnames = new HashMap<>();
+        pending.forEach((ip, future) -> {
+            String hostname = future.join();
+            if (hostname != null) {
+                hostnames.put(ip, hostname);
+            }
+        });
+        return hostnames;
+    }
+
+    /**
+     * Starts a lookup for the IP. Blocks the caller only while the concurrency cap is exhausted;
+     * the returned future always completes, with {@code null} on failure or timeout.
+     */
+    public CompletableFuture<String> resolveAsync(String ip) {
+        if (ip == null || ip.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CacheEntry cached = cache.get(ip);
+        if (cached != null && !cached.isExpired()) {
+            return CompletableFuture.completedFuture(cached.hostname);
+        }
+
+        Semaphore semaphore = permits();
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<String> lookup;
+        try {
+            lookup = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return lookup(ip);
+                } finally {
+                    semaphore.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            semaphore.release();
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<String> bounded = lookup
+                .exceptionally(e -> null)
+                .completeOnTimeout(null, timeoutMs, TimeUnit.MILLISECONDS);
+
+        bounded.thenAccept(hostname -> {
+            if (hostname == null && !lookup.isDone()) {
+                // Timed out: remember the miss now, the late result (if any) will overwrite it
+                remember(ip, CacheEntry.negative(negativeTtlSeconds));
+            }
+        });
+        return bounded;
+    }
+
+    private String lookup(String ip) {
+        String hostname = null;
+        try {
+            String name = InetAddress.getByName(ip).getHostName();
+            if (!name.equals(ip)) {
+                hostname = name;
+            }
+        } catch (Exception e) {
+            logger.debug("Reverse lookup failed for {}: {}", ip, e.getMessage());
+        }
+
+        remember(ip, hostname != null
+                ? CacheEntry.positive(hostname, cacheTtlSeconds)
+                : CacheEntry.negative(negativeTtlSeconds));
+        return hostname;
+    }
+
+    /**
+     * Caches a lookup outcome atomically. A miss never replaces a live hostname: the timeout handler can run
+     * after the lookup thread stored its result, and a failed retry should not hide a name that still resolves.
+     */
+    private void remember(String ip, CacheEntry entry) {
+        cache.compute(ip, (key, existing) ->
+                entry.hostname == null && existing != null && existing.hostname != null && !existing.isExpired()
+                        ? existing
+                        : entry);
+    }
+
+    private Semaphore permits() {
+        Semaphore semaphore = permits;
+        if (semaphore == null) {
+            synchronized (this) {
+                if (permits == null) {
+                    permits = new Semaphore(Math.max(1, concurrency));
+                }
+                semaphore = permits;
+            }
+        }
+        return semaphore;
+    }
+
+    public void clearCache() {
+        cache.clear();
+    }
+
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class CacheEntry {
+        private final String hostname;
+        private final long expiresAt;
+
+        private CacheEntry(String hostname, long ttlSeconds) {
+            this.hostname = hostname;
+            this.expiresAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(ttlSeconds);
+        }
+
+        static CacheEntry positive(String hostname, long ttlSeconds) {
+            return new CacheEntry(hostname, ttlSeconds);
+        }
+
+        static CacheEntry negative(long ttlSeconds) {
+            return new CacheEntry(null, ttlSeconds);
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "dns-resolver-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
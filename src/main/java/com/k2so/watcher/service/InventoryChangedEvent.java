@@ -0,0 +1,28 @@
+package com.k2so.watcher.service;
+
+/**
+ * Published after devices or scans were written, so views derived from them (the dashboard snapshot) can be
+ * refreshed. Listeners run after the surrounding transaction commits; {@code immediate} changes are applied
+ * before the publishing request returns, the others may be batched.
+ */
+public record InventoryChangedEvent(boolean devices, boolean scans, boolean immediate) {
+
+    public static InventoryChangedEvent ofDevices() {
+        return new InventoryChangedEvent(true, false, false);
+    }
+
+    /**
+     * A device edited by a user, who expects to see it on the next page.
+     */
+    public static InventoryChangedEvent ofDeviceEdit() {
+        return new InventoryChangedEvent(true, false, true);
+    }
+
+    public static InventoryChangedEvent ofScans() {
+        return new InventoryChangedEvent(false, true, false);
+    }
+
+    public static InventoryChangedEvent ofAll() {
+        return new InventoryChangedEvent(true, true, false);
+    }
+}
@@ -0,0 +1,88 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.util.Ipv4Range;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Fills the numeric IP column of rows written before it existed. New and updated rows get it from
+ * {@code setIpAddress}; rows whose address is not IPv4 keep a null value and are simply skipped.
+ */
+@Service
+@DependsOn("entityManagerFactory")
+public class IpNumericBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IpNumericBackfillService.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final List<String> TABLES = List.of("devices", "scan_results");
+
+    private final DataSource dataSource;
+
+    public IpNumericBackfillService(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void backfill() {
+        try (Connection conn = dataSource.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                for (String table : TABLES) {
+                    int updated = backfillTable(conn, table);
+                    if (updated > 0) {
+                        logger.info("Backfilled ip_numeric for {} rows in {}", updated, table);
+                    }
+                }
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (Exception e) {
+            logger.error("Error backfilling numeric IP columns", e);
+        }
+    }
+
+    private static int backfillTable(Connection conn, String table) throws Exception {
+        int updated = 0;
+        int pending = 0;
+        try (Statement select = conn.createStatement();
+             ResultSet rs = select.executeQuery("SELECT id, ip_address FROM " + table
+                     + " WHERE ip_numeric IS NULL AND ip_address IS NOT NULL");
+             PreparedStatement update = conn.prepareStatement("UPDATE " + table
+                     + " SET ip_numeric = ? WHERE id = ?")) {
+
+            while (rs.next()) {
+                Long numeric = Ipv4Range.toNumeric(rs.getString(2));
+                if (numeric == null) {
+                    continue;
+                }
+                update.setLong(1, numeric);
+                update.setLong(2, rs.getLong(1));
+                update.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    update.executeBatch();
+                    updated += pending;
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                update.executeBatch();
+                updated += pending;
+            }
+        }
+        conn.commit();
+        return updated;
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.k2so.watcher.dto.DeviceAnalysisResult;
 import com.k2so.watcher.model.Device;
+import com.k2so.watcher.model.DeviceDetails;
 import com.k2so.watcher.model.DeviceType;
 import dev.langchain4j.model.chat.ChatLanguageModel;
 import dev.langchain4j.model.googleai.GoogleAiGeminiChatModel;
@@ -38,15 +39,15 @@ public class LangChain4jService {
         }
     }
 
-    public DeviceAnalysisResult analyzeDeepScanLog(Device device) {
-        if (device.getDeepScanLog() == null || device.getDeepScanLog().isEmpty()) {
+    public DeviceAnalysisResult analyzeDeepScanLog(Device device, DeviceDetails details) {
+        if (details.getDeepScanLog() == null || details.getDeepScanLog().isEmpty()) {
             throw new IllegalArgumentException("Device has no deep scan log to analyze");
         }
 
         String provider = settingsService.getSettingValue("langchain4j.provider", "gemini");
         ChatLanguageModel model = buildModel(provider);
 
-        String prompt = buildAnalysisPrompt(device);
+        String prompt = buildAnalysisPrompt(device, details.getDeepScanLog());
         logger.info("Sending deep scan log analysis request to {} for device {}", provider, device.getMacAddress());
 
         String response = model.generate(prompt);
@@ -84,7 +85,7 @@ public class LangChain4jService {
         }
     }
 
-    private String buildAnalysisPrompt(Device device) {
+    private String buildAnalysisPrompt(Device device, String deepScanLog) {
         String deviceTypes = String.join(", ",
             Arrays.stream(DeviceType.values())
                 .map(DeviceType::name)
@@ -113,7 +114,7 @@ public class LangChain4jService {
             device.getIpAddress() != null ? device.getIpAddress() : "Unknown",
             device.getVendor() != null ? device.getVendor() : "Unknown",
             device.getHostname() != null ? device.getHostname() : "Unknown",
-            device.getDeepScanLog()
+            deepScanLog
         );
     }
 
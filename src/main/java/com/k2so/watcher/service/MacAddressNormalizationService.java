@@ -0,0 +1,108 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.util.MacAddress;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Rewrites MAC addresses stored before {@link MacAddress} in its canonical form (upper case with colons), such as
+ * the lower case {@code fe:00:...} placeholders of cross-VLAN devices. Lookups compare the stored strings, so a
+ * legacy value would never match and the device would be created again. Values that do not parse are left alone;
+ * a device is not rewritten when another one already holds the canonical form, as the unique MAC would conflict.
+ */
+@Service
+@DependsOn("entityManagerFactory")
+public class MacAddressNormalizationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MacAddressNormalizationService.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    // Everything that can differ from the canonical form; canonical values never match, so the scan is cheap
+    private static final String NOT_CANONICAL = " WHERE mac_address IS NOT NULL"
+            + " AND (mac_address <> UPPER(mac_address) OR LENGTH(mac_address) <> 17 OR mac_address LIKE '%-%')";
+
+    private final DataSource dataSource;
+
+    public MacAddressNormalizationService(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void normalize() {
+        try (Connection conn = dataSource.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                int devices = normalizeTable(conn, "devices", true);
+                int results = normalizeTable(conn, "scan_results", false);
+                if (devices > 0 || results > 0) {
+                    logger.info("Normalized MAC addresses of {} devices and {} scan results", devices, results);
+                }
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (Exception e) {
+            logger.error("Error normalizing stored MAC addresses", e);
+        }
+    }
+
+    private static int normalizeTable(Connection conn, String table, boolean unique) throws Exception {
+        int updated = 0;
+        int pending = 0;
+        // Canonical values taken by this pass, which the existence check cannot see until the batch runs
+        Set<String> assigned = new HashSet<>();
+        try (Statement select = conn.createStatement();
+             ResultSet rs = select.executeQuery("SELECT id, mac_address FROM " + table + NOT_CANONICAL);
+             PreparedStatement exists = conn.prepareStatement("SELECT 1 FROM " + table + " WHERE mac_address = ?");
+             PreparedStatement update = conn.prepareStatement("UPDATE " + table
+                     + " SET mac_address = ? WHERE id = ?")) {
+
+            while (rs.next()) {
+                String stored = rs.getString(2);
+                MacAddress mac = MacAddress.tryParse(stored);
+                if (mac == null || mac.toString().equals(stored)) {
+                    continue;
+                }
+                String canonical = mac.toString();
+                if (unique && (!assigned.add(canonical) || isTaken(exists, canonical))) {
+                    logger.warn("Not normalizing MAC {} of device {}: another device already has {}",
+                            stored, rs.getLong(1), canonical);
+                    continue;
+                }
+                update.setString(1, canonical);
+                update.setLong(2, rs.getLong(1));
+                update.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    update.executeBatch();
+                    updated += pending;
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                update.executeBatch();
+                updated += pending;
+            }
+        }
+        conn.commit();
+        return updated;
+    }
+
+    private static boolean isTaken(PreparedStatement exists, String mac) throws Exception {
+        exists.setString(1, mac);
+        try (ResultSet rs = exists.executeQuery()) {
+            return rs.next();
+        }
+    }
+}
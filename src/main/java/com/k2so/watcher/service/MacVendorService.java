@@ -1,22 +1,60 @@
 package com.k2so.watcher.service;
 
+import com.k2so.watcher.util.MacAddress;
 import com.k2so.watcher.util.MacAddressLookup;
+import com.k2so.watcher.util.OuiIndex;
+import com.k2so.watcher.util.OuiLookup;
+import com.k2so.watcher.util.OuiRegistry;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Resolves MAC vendors. The short names of the built-in table win, since device identification keys on them;
+ * every other address is looked up in the full IEEE registry. The registry file is compiled once into a binary
+ * index that is memory-mapped, so vendor data stays off-heap; it is recompiled when the file changes on disk.
+ */
 @Service
 public class MacVendorService {
 
     private static final Logger logger = LoggerFactory.getLogger(MacVendorService.class);
 
-    public String lookupVendor(String macAddress) {
-        if (macAddress == null || macAddress.isEmpty()) {
+    @Value("${k2so.network.oui-registry.path:/usr/share/arp-scan/ieee-oui.txt}")
+    private String registryPath;
+
+    @Value("${k2so.network.oui-registry.index-path:./data/oui-index.bin}")
+    private String indexPath;
+
+    private volatile OuiLookup registry = OuiRegistry.empty();
+    // Modification time of the loaded file, -1 if it was missing; the initial value forces a first load
+    private volatile long registryModified = Long.MIN_VALUE;
+
+    @PostConstruct
+    public void init() {
+        reloadIfChanged();
+    }
+
+    public String lookupVendor(MacAddress macAddress) {
+        if (macAddress == null) {
             return "Unknown";
         }
 
         try {
             String vendor = MacAddressLookup.lookupVendor(macAddress);
+            if ("Unknown".equals(vendor)) {
+                String registered = registry.lookup(macAddress.toLong());
+                if (registered != null) {
+                    vendor = registered;
+                }
+            }
             logger.debug("MAC {} resolved to vendor: {}", macAddress, vendor);
             return vendor;
         } catch (Exception e) {
@@ -24,4 +62,82 @@ public class MacVendorService {
             return "Unknown";
         }
     }
+
+    @Scheduled(fixedDelayString = "${k2so.network.oui-registry.check-interval-ms:300000}",
+               initialDelayString = "${k2so.network.oui-registry.check-interval-ms:300000}")
+    public void reloadIfChanged() {
+        try {
+            long modified = sourceModified();
+            if (modified != registryModified) {
+                load(modified, false);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not check OUI registry {}: {}", registryPath, e.getMessage());
+        }
+    }
+
+    /**
+     * Recompiles the index from the registry file and maps it, even if the file did not change.
+     */
+    public OuiLookup reload() {
+        try {
+            load(sourceModified(), true);
+        } catch (Exception e) {
+            logger.warn("Could not reload OUI registry {}: {}", registryPath, e.getMessage());
+        }
+        return registry;
+    }
+
+    public OuiLookup getRegistry() {
+        return registry;
+    }
+
+    public String getRegistryPath() {
+        return registryPath;
+    }
+
+    private long sourceModified() throws Exception {
+        Path source = Paths.get(registryPath);
+        return Files.isReadable(source) ? Files.getLastModifiedTime(source).toMillis() : -1;
+    }
+
+    /**
+     * Maps the compiled index, compiling it first when it is missing or was built from a different version of
+     * the registry file. Without a registry file a previously compiled index is still used. If the index cannot
+     * be written (read-only data directory) the registry is loaded onto the heap instead.
+     */
+    private synchronized void load(long modified, boolean recompile) throws Exception {
+        Path source = Paths.get(registryPath);
+        Path index = Paths.get(indexPath);
+        long started = System.nanoTime();
+
+        OuiLookup loaded;
+        if (modified < 0) {
+            if (!Files.isReadable(index)) {
+                logger.info("OUI registry {} not found, using the built-in vendor table only", source);
+                registry = OuiRegistry.empty();
+                registryModified = modified;
+                return;
+            }
+            loaded = OuiIndex.open(index);
+        } else {
+            OuiIndex existing = !recompile && Files.isReadable(index) ? OuiIndex.open(index) : null;
+            if (existing != null && existing.isCompiledFrom(source)) {
+                loaded = existing;
+            } else {
+                try {
+                    OuiIndex.compile(source, index);
+                    loaded = OuiIndex.open(index);
+                    logger.info("Compiled OUI index {} from {}", index, source);
+                } catch (IOException e) {
+                    logger.warn("Could not write OUI index {} ({}), keeping the registry on the heap", index, e.getMessage());
+                    loaded = OuiRegistry.load(source);
+                }
+            }
+        }
+
+        registry = loaded;
+        registryModified = modified;
+        logger.info("Loaded OUI registry: {} in {} ms", loaded, (System.nanoTime() - started) / 1_000_000);
+    }
 }
@@ -1,34 +1,66 @@
 package com.k2so.watcher.service;
 
+import com.k2so.watcher.dto.ScanCursor;
+import com.k2so.watcher.dto.ScanHistoryPage;
+import com.k2so.watcher.dto.ScanSummary;
 import com.k2so.watcher.model.*;
 import com.k2so.watcher.repository.DeviceRepository;
 import com.k2so.watcher.repository.NetworkScanRepository;
+import com.k2so.watcher.repository.ScanRangeResultRepository;
 import com.k2so.watcher.repository.ScanResultRepository;
+import com.k2so.watcher.util.DiscoveredHost;
+import com.k2so.watcher.util.Ipv4Range;
+import com.k2so.watcher.util.MacAddress;
+import com.k2so.watcher.util.NeighborTable;
 import com.k2so.watcher.util.NetworkUtils;
+import com.k2so.watcher.util.NmapXmlParser;
+import com.k2so.watcher.util.ScanTarget;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.BufferedReader;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 public class NetworkScannerService {
 
     private static final Logger logger = LoggerFactory.getLogger(NetworkScannerService.class);
 
+    public static final int MAX_SCAN_PAGE_SIZE = 100;
+
+    // How long aborted range workers get to return once their scanner processes were killed
+    private static final long RANGE_ABORT_GRACE_SECONDS = 10;
+
     private final DeviceRepository deviceRepository;
     private final NetworkScanRepository networkScanRepository;
     private final ScanResultRepository scanResultRepository;
+    private final ScanRangeResultRepository scanRangeResultRepository;
     private final MacVendorService macVendorService;
     private final DeviceIdentificationService deviceIdentificationService;
+    private final PingSweepService pingSweepService;
+    private final HostnameResolutionService hostnameResolutionService;
+    private final DevicePresenceService devicePresenceService;
+    private final DeepScanScheduler deepScanScheduler;
+    private final ScannerCapabilityService scannerCapabilityService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${k2so.network.scan-range:192.168.1.0/24}")
     private String defaultScanRange;
@@ -39,51 +71,103 @@ public class NetworkScannerService {
     @Value("${k2so.network.scan-timeout:120}")
     private int scanTimeout;
 
+    @Value("${k2so.network.max-concurrent-ranges:4}")
+    private int maxConcurrentRanges;
+
+    @Value("${k2so.network.pipeline.queue-capacity:256}")
+    private int pipelineQueueCapacity;
+
+    @Value("${k2so.network.pipeline.workers:8}")
+    private int pipelineWorkers;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int writeBatchSize;
+
     private volatile boolean scanInProgress = false;
 
-    // Check if running as root (UID 0) - if so, don't need sudo
-    private final boolean isRoot = System.getProperty("user.name").equals("root") ||
-                                   "0".equals(System.getenv("EUID")) ||
-                                   checkIfRoot();
+    // Held by a scan from its inventory snapshot to its last write, and by passive discovery while it applies changes
+    private final ReentrantLock inventoryLock = new ReentrantLock();
 
     public NetworkScannerService(DeviceRepository deviceRepository,
                                   NetworkScanRepository networkScanRepository,
                                   ScanResultRepository scanResultRepository,
+                                  ScanRangeResultRepository scanRangeResultRepository,
                                   MacVendorService macVendorService,
-                                  DeviceIdentificationService deviceIdentificationService) {
+                                  DeviceIdentificationService deviceIdentificationService,
+                                  PingSweepService pingSweepService,
+                                  HostnameResolutionService hostnameResolutionService,
+                                  DevicePresenceService devicePresenceService,
+                                  DeepScanScheduler deepScanScheduler,
+                                  ScannerCapabilityService scannerCapabilityService,
+                                  ApplicationEventPublisher eventPublisher) {
         this.deviceRepository = deviceRepository;
         this.networkScanRepository = networkScanRepository;
         this.scanResultRepository = scanResultRepository;
+        this.scanRangeResultRepository = scanRangeResultRepository;
         this.macVendorService = macVendorService;
         this.deviceIdentificationService = deviceIdentificationService;
+        this.pingSweepService = pingSweepService;
+        this.hostnameResolutionService = hostnameResolutionService;
+        this.devicePresenceService = devicePresenceService;
+        this.deepScanScheduler = deepScanScheduler;
+        this.scannerCapabilityService = scannerCapabilityService;
+        this.eventPublisher = eventPublisher;
     }
 
     public boolean isScanInProgress() {
         return scanInProgress;
     }
 
+    /**
+     * Runs {@code task} unless a scan is in progress, holding the lock a scan holds while it reconciles, so the
+     * task and a scan never write the inventory at the same time. A scan started meanwhile waits for the task.
+     *
+     * @return false if the task was skipped because a scan is in progress
+     */
+    public boolean runBetweenScans(Runnable task) {
+        if (scanInProgress || !inventoryLock.tryLock()) {
+            return false;
+        }
+        try {
+            if (scanInProgress) {
+                return false;
+            }
+            task.run();
+            return true;
+        } finally {
+            inventoryLock.unlock();
+        }
+    }
+
     @Transactional
     public NetworkScan startScan(String scanType) {
         if (scanInProgress) {
             throw new IllegalStateException("A scan is already in progress");
         }
 
+        List<ScanTarget> targets = ScanTarget.parseAll(defaultScanRange);
+        if (targets.isEmpty()) {
+            throw new IllegalStateException("No network range configured");
+        }
+
         scanInProgress = true;
         NetworkScan scan = new NetworkScan();
         scan.setScanType(scanType);
-        scan.setNetworkRange(defaultScanRange);
+        scan.setNetworkRange(targets.stream().map(ScanTarget::getNetworkRange).collect(Collectors.joining(", ")));
         scan.setStatus("RUNNING");
         scan = networkScanRepository.save(scan);
+        eventPublisher.publishEvent(InventoryChangedEvent.ofScans());
 
         final Long scanId = scan.getId();
 
         // Run scan in separate thread
-        new Thread(() -> performScan(scanId)).start();
+        new Thread(() -> performScan(scanId, targets)).start();
 
         return scan;
     }
 
-    private void performScan(Long scanId) {
+    private void performScan(Long scanId, List<ScanTarget> targets) {
+        inventoryLock.lock();
         try {
             NetworkScan scan = networkScanRepository.findById(scanId).orElse(null);
             if (scan == null) {
@@ -93,174 +177,62 @@ public class NetworkScannerService {
 
             logger.info("Starting network scan: {} on range {}", scanId, scan.getNetworkRange());
 
-            // Mark all devices as offline before scan
-            List<Device> allDevices = deviceRepository.findAll();
-            for (Device device : allDevices) {
-                device.setOnline(false);
-                deviceRepository.save(device);
+            // Snapshot the inventory once; presence is computed against it when the scan ends
+            DeviceIndex deviceIndex = new DeviceIndex(deviceRepository.findAll());
+            Set<Long> previouslyOnline = new HashSet<>();
+            for (Device device : deviceIndex.getDevices()) {
+                if (device.isOnline()) {
+                    previouslyOnline.add(device.getId());
+                }
             }
 
-            List<Map<String, String>> discoveredHosts;
-            StringBuilder scanLogBuilder = new StringBuilder();
+            // Hosts are reconciled by the pipeline workers while the scanners are still running
+            ScanReconciler reconciler = new ScanReconciler(scan, deviceIndex, deviceRepository, scanResultRepository,
+                    macVendorService, deviceIdentificationService, deepScanScheduler::enqueueNewDevice, writeBatchSize);
+            ScanPipeline pipeline = new ScanPipeline(pipelineQueueCapacity, pipelineWorkers,
+                    hostnameResolutionService, reconciler);
+            pipeline.start();
 
-            // Try different scanning methods
-            if (NetworkUtils.isToolAvailable("arp-scan") && "arp-scan".equals(scannerTool)) {
-                scan.setScannerTool("arp-scan");
-                discoveredHosts = scanWithArpScan(scan.getNetworkRange(), scanLogBuilder);
-            } else if (NetworkUtils.isToolAvailable("nmap")) {
-                scan.setScannerTool("nmap");
-                discoveredHosts = scanWithNmap(scan.getNetworkRange(), scanLogBuilder);
-            } else {
-                scan.setScannerTool("ping");
-                discoveredHosts = scanWithPing(scan.getNetworkRange(), scanLogBuilder);
+            // Each range runs as its own worker, all feeding the same pipeline
+            StringBuilder scanLogBuilder = new StringBuilder();
+            List<ScanRangeResult> rangeResults;
+            try {
+                rangeResults = scanRanges(scan, targets, pipeline, scanLogBuilder);
+                pipeline.finish(scanTimeout);
+            } catch (Exception e) {
+                pipeline.abort();
+                throw e;
             }
+            reconciler.flush();
+            scanRangeResultRepository.saveAll(rangeResults);
 
-            scan.setScanLog(scanLogBuilder.toString());
-
-            int newDevices = 0;
-            int skippedDevices = 0;
-            Set<String> processedMacs = new HashSet<>();
-            Set<String> processedIps = new HashSet<>();
-            StringBuilder skippedLog = new StringBuilder();
-
-            for (Map<String, String> host : discoveredHosts) {
-                String macAddress = host.get("mac");
-                String ipAddress = host.get("ip");
-                String hostname = host.get("hostname");
-                String scannedVendor = host.get("vendor");
-
-                if (ipAddress == null || ipAddress.isEmpty()) {
-                    continue;
-                }
-
-                // Skip if we've already processed this IP in this scan
-                if (processedIps.contains(ipAddress)) {
-                    logger.debug("Skipping duplicate IP address in scan results: {}", ipAddress);
-                    continue;
-                }
-
-                boolean hasMac = macAddress != null && !macAddress.isEmpty();
-                if (hasMac) {
-                    macAddress = NetworkUtils.normalizeMacAddress(macAddress);
-                    // Skip if we've already processed this MAC in this scan (duplicate scan result)
-                    if (processedMacs.contains(macAddress)) {
-                        logger.debug("Skipping duplicate MAC address in scan results: {}", macAddress);
-                        continue;
-                    }
-                    processedMacs.add(macAddress);
-                }
-
-                // Find or create device - MAC is the primary identifier
-                Device device = null;
-                Device deviceByIp = null;
-
-                if (hasMac) {
-                    device = deviceRepository.findByMacAddress(macAddress).orElse(null);
-                }
-
-                // Check if IP already exists in database
-                deviceByIp = deviceRepository.findByIpAddress(ipAddress).orElse(null);
-
-                if (device == null && deviceByIp != null) {
-                    // A device with this IP already exists
-                    if (!hasMac) {
-                        // No new MAC to set, use the existing device
-                        device = deviceByIp;
-                    } else if (deviceByIp.getMacAddress() == null ||
-                               deviceByIp.getMacAddress().startsWith("fe:00:") ||
-                               deviceByIp.getMacAddress().equals(macAddress)) {
-                        // Device has no MAC, has a placeholder MAC, or same MAC - safe to update
-                        device = deviceByIp;
-                    } else {
-                        // A device exists at this IP with a different real MAC
-                        // Skip this device to prevent duplicates
-                        skippedDevices++;
-                        String skipMsg = String.format("Skipped: IP %s (MAC: %s) - IP already assigned to device '%s' (MAC: %s)",
-                                ipAddress, macAddress, deviceByIp.getDisplayName(), deviceByIp.getMacAddress());
-                        skippedLog.append(skipMsg).append("\n");
-                        logger.info(skipMsg);
-                        processedIps.add(ipAddress);
-                        continue;
-                    }
-                }
-
-                boolean isNew = (device == null);
+            scan.setScannerTool(rangeResults.stream()
+                    .map(ScanRangeResult::getScannerTool)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .collect(Collectors.joining(", ")));
 
-                if (isNew) {
-                    device = new Device();
-                    device.setKnown(false);
-                    newDevices++;
-                }
-
-                // Update MAC if we have one (might get MAC later for cross-VLAN device)
-                if (hasMac) {
-                    device.setMacAddress(macAddress);
-                } else if (device.getMacAddress() == null) {
-                    // No MAC available - generate a unique placeholder that won't collide with real MACs
-                    // Using fe:xx format which is in the locally administered range
-                    device.setMacAddress("fe:00:" + String.format("%02x", (ipAddress.hashCode() >> 24) & 0xff) + ":" +
-                            String.format("%02x", (ipAddress.hashCode() >> 16) & 0xff) + ":" +
-                            String.format("%02x", (ipAddress.hashCode() >> 8) & 0xff) + ":" +
-                            String.format("%02x", ipAddress.hashCode() & 0xff));
-                }
-
-                processedIps.add(ipAddress);
-
-                device.setIpAddress(ipAddress);
-                if (hostname != null && !hostname.isEmpty()) {
-                    device.setHostname(hostname);
-                }
+            // Devices not seen go offline, seen devices are marked online - as bulk updates
+            devicePresenceService.applyScanPresence(previouslyOnline, reconciler.getSeenDeviceIds());
 
-                // Use vendor from scan output if available, otherwise lookup by MAC
-                String vendor = (scannedVendor != null && !scannedVendor.isEmpty())
-                    ? scannedVendor
-                    : (hasMac ? macVendorService.lookupVendor(macAddress) : "Unknown (Cross-VLAN)");
-                device.setVendor(vendor);
-
-                // Identify device type if unknown
-                if (device.getDeviceType() == null || device.getDeviceType() == DeviceType.UNKNOWN) {
-                    device.setDeviceType(deviceIdentificationService.identifyDeviceType(device));
-                }
-
-                device.setOnline(true);
-                device.setLastSeen(LocalDateTime.now());
-
-                device = deviceRepository.save(device);
-
-                // Create scan result
-                ScanResult result = new ScanResult();
-                result.setNetworkScan(scan);
-                result.setDevice(device);
-                result.setMacAddress(device.getMacAddress());
-                result.setIpAddress(ipAddress);
-                result.setHostname(hostname);
-                result.setVendor(vendor);
-                result.setNewDevice(isNew);
-                scanResultRepository.save(result);
-
-                // Auto-trigger deep scan for new devices
-                if (isNew && ipAddress != null && !ipAddress.isEmpty()) {
-                    final Long deviceId = device.getId();
-                    logger.info("Scheduling deep scan for new device {} ({})", deviceId, ipAddress);
-                    performDeepScanAsync(deviceId);
-                }
-            }
+            scan.setScanLog(scanLogBuilder.toString());
 
             // Append skipped devices log to scan log
+            int skippedDevices = reconciler.getSkippedDevices();
             if (skippedDevices > 0) {
                 String currentLog = scan.getScanLog() != null ? scan.getScanLog() : "";
-                scan.setScanLog(currentLog + "\n--- Skipped Devices (Duplicate IPs) ---\n" + skippedLog.toString());
+                scan.setScanLog(currentLog + "\n--- Skipped Devices (Duplicate IPs) ---\n" + reconciler.getSkippedLog());
             }
 
             // Update scan status
             scan.setStatus("COMPLETED");
             scan.setCompletedAt(LocalDateTime.now());
-            scan.setDevicesFound(discoveredHosts.size() - skippedDevices);
-            scan.setNewDevices(newDevices);
+            scan.setDevicesFound(reconciler.getDevicesFound());
+            scan.setNewDevices(reconciler.getNewDevices());
             networkScanRepository.save(scan);
 
             logger.info("Scan completed: {} devices found, {} new, {} skipped (duplicate IPs)",
-                    discoveredHosts.size() - skippedDevices, newDevices, skippedDevices);
+                    reconciler.getDevicesFound(), reconciler.getNewDevices(), skippedDevices);
 
         } catch (Exception e) {
             logger.error("Error during network scan", e);
@@ -277,16 +249,154 @@ public class NetworkScannerService {
                 networkScanRepository.save(scan);
             }
         } finally {
+            inventoryLock.unlock();
             scanInProgress = false;
+            eventPublisher.publishEvent(InventoryChangedEvent.ofAll());
         }
     }
 
-    private List<Map<String, String>> scanWithArpScan(String networkRange, StringBuilder scanLog) {
-        List<Map<String, String>> hosts = new ArrayList<>();
+    /**
+     * Scans every target concurrently, at most {@code maxConcurrentRanges} at a time.
+     * Per-range logs are appended to {@code scanLog} in target order once all ranges are done.
+     */
+    private List<ScanRangeResult> scanRanges(NetworkScan scan, List<ScanTarget> targets,
+                                             Consumer<DiscoveredHost> sink,
+                                             StringBuilder scanLog) throws InterruptedException {
+        int count = targets.size();
+        List<Future<ScanRangeResult>> futures = new ArrayList<>(count);
+        // Appended to by the range worker and its helper threads, read here even if the worker overran
+        StringBuffer[] logs = new StringBuffer[count];
+        // Scanner processes still running, killed if the ranges overrun
+        Set<Process> processes = ConcurrentHashMap.newKeySet();
+
+        int workers = Math.max(1, Math.min(maxConcurrentRanges, count));
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "scan-range-" + threadCounter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        long longestTimeout = scanTimeout;
+        for (int i = 0; i < count; i++) {
+            ScanTarget target = targets.get(i);
+            int timeout = target.getTimeoutSeconds() != null ? target.getTimeoutSeconds() : scanTimeout;
+            longestTimeout = Math.max(longestTimeout, timeout);
+
+            StringBuffer log = new StringBuffer();
+            logs[i] = log;
+            futures.add(executor.submit(() -> scanRange(scan, target, timeout, sink, log, processes)));
+        }
+
+        executor.shutdown();
+        // Ranges queue behind the concurrency cap, so allow one longest timeout per round of workers
+        long rounds = (count + workers - 1) / workers;
+        if (!executor.awaitTermination(rounds * longestTimeout + 30, TimeUnit.SECONDS)) {
+            logger.warn("Range scanners did not finish in time, aborting");
+            // An interrupt does not stop a worker blocked reading scanner output; ending the process closes it
+            executor.shutdownNow();
+            processes.forEach(Process::destroyForcibly);
+            if (!executor.awaitTermination(RANGE_ABORT_GRACE_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Range scanners still running after abort, giving up on them");
+            }
+        }
+
+        List<ScanRangeResult> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ScanRangeResult result = rangeResult(futures.get(i), scan, targets.get(i));
+            results.add(result);
+            if (count > 1) {
+                scanLog.append("=== Range ").append(result.getNetworkRange())
+                       .append(" (").append(result.getScannerTool()).append(", ")
+                       .append(result.getHostsFound()).append(" hosts, ")
+                       .append(result.getDurationMillis()).append(" ms) ===\n");
+            }
+            scanLog.append(logs[i]);
+            if (count > 1) {
+                scanLog.append("\n");
+            }
+        }
 
+        return results;
+    }
+
+    /**
+     * The result a range worker returned, or a failed one if the worker never finished; the worker's own
+     * result object is only read through its future.
+     */
+    private ScanRangeResult rangeResult(Future<ScanRangeResult> future, NetworkScan scan, ScanTarget target)
+            throws InterruptedException {
+        String errorMessage = "Timed out";
+        if (future.isDone()) {
+            try {
+                return future.get();
+            } catch (ExecutionException e) {
+                errorMessage = String.valueOf(e.getCause());
+            }
+        }
+        ScanRangeResult result = new ScanRangeResult();
+        result.setNetworkScan(scan);
+        result.setNetworkRange(target.getNetworkRange());
+        result.setStatus("FAILED");
+        result.setErrorMessage(errorMessage);
+        result.setCompletedAt(LocalDateTime.now());
+        return result;
+    }
+
+    private ScanRangeResult scanRange(NetworkScan scan, ScanTarget target, int timeoutSeconds,
+                                      Consumer<DiscoveredHost> sink, StringBuffer scanLog, Set<Process> processes) {
+        ScanRangeResult result = new ScanRangeResult();
+        result.setNetworkScan(scan);
+        result.setNetworkRange(target.getNetworkRange());
+
+        ScannerCapabilityService.ToolSelection selection = scannerCapabilityService.selectScannerTool(
+                target.getScannerTool() != null ? target.getScannerTool() : scannerTool);
+        String tool = selection.getTool();
+        result.setScannerTool(tool);
+        result.setStartedAt(LocalDateTime.now());
+
+        AtomicInteger hostsFound = new AtomicInteger();
+        Consumer<DiscoveredHost> countingSink = host -> {
+            // arp-scan has no exclude option, so excluded addresses are also dropped here
+            if (target.isExcluded(host.ip())) {
+                return;
+            }
+            hostsFound.incrementAndGet();
+            sink.accept(host);
+        };
+
+        logger.info("Scanning range {} with {} ({})", target.getNetworkRange(), tool, selection.getReason());
+        try {
+            scanLog.append("Scanner: ").append(tool).append(" (").append(selection.getReason()).append(")\n");
+            switch (tool) {
+                case "arp-scan" -> scanWithArpScan(target, timeoutSeconds, scanLog, countingSink, processes);
+                case "nmap" -> scanWithNmap(target, timeoutSeconds, scanLog, countingSink, processes);
+                default -> scanWithPing(target, timeoutSeconds, scanLog, countingSink);
+            }
+            result.setStatus("COMPLETED");
+        } catch (Exception e) {
+            logger.error("Error scanning range {}", target.getNetworkRange(), e);
+            result.setStatus("FAILED");
+            String errorMsg = e.getMessage();
+            if (errorMsg != null && errorMsg.length() > 1000) {
+                errorMsg = errorMsg.substring(0, 997) + "...";
+            }
+            result.setErrorMessage(errorMsg);
+        } finally {
+            result.setHostsFound(hostsFound.get());
+            result.setCompletedAt(LocalDateTime.now());
+            logger.info("Range {} finished: {} hosts in {} ms", target.getNetworkRange(),
+                    hostsFound.get(), result.getDurationMillis());
+        }
+        return result;
+    }
+
+    private void scanWithArpScan(ScanTarget target, int timeoutSeconds, StringBuffer scanLog,
+                                 Consumer<DiscoveredHost> sink, Set<Process> processes) {
+        String networkRange = target.getNetworkRange();
         try {
             // Use the configured network range instead of --localnet to ensure full range scan
-            List<String> command = buildCommand("arp-scan", networkRange);
+            List<String> command = scannerCapabilityService.privilegedCommand("arp-scan", networkRange);
             scanLog.append("Command: ").append(String.join(" ", command)).append("\n");
             scanLog.append("Network range: ").append(networkRange).append("\n");
             scanLog.append("---\n");
@@ -294,171 +404,187 @@ public class NetworkScannerService {
             ProcessBuilder pb = new ProcessBuilder(command);
             pb.redirectErrorStream(true);
             Process process = pb.start();
-
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                String line;
-                Pattern pattern = Pattern.compile("(\\d+\\.\\d+\\.\\d+\\.\\d+)\\s+([0-9a-fA-F:]+)\\s+(.*)");
-
-                while ((line = reader.readLine()) != null) {
-                    scanLog.append(line).append("\n");
-                    Matcher matcher = pattern.matcher(line);
-                    if (matcher.find()) {
-                        Map<String, String> host = new HashMap<>();
-                        host.put("ip", matcher.group(1));
-                        host.put("mac", matcher.group(2));
-                        host.put("vendor", matcher.group(3).trim());
-                        hosts.add(host);
+            processes.add(process);
+
+            try {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        scanLog.append(line).append("\n");
+                        // Hostname is resolved downstream by the pipeline
+                        DiscoveredHost host = DiscoveredHost.parseArpScanLine(line);
+                        if (host != null) {
+                            sink.accept(host);
+                        }
                     }
                 }
-            }
 
-            process.waitFor(scanTimeout, TimeUnit.SECONDS);
+                if (!process.waitFor(timeoutSeconds, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                    scanLog.append("WARNING: Scanner timed out after ").append(timeoutSeconds).append(" seconds\n");
+                }
+            } finally {
+                processes.remove(process);
+            }
 
         } catch (Exception e) {
             logger.error("Error running arp-scan", e);
             scanLog.append("ERROR: ").append(e.getMessage()).append("\n");
         }
-
-        // Try to resolve hostnames
-        for (Map<String, String> host : hosts) {
-            String hostname = resolveHostname(host.get("ip"));
-            host.put("hostname", hostname);
-        }
-
-        return hosts;
     }
 
-    private List<Map<String, String>> scanWithNmap(String networkRange, StringBuilder scanLog) {
-        List<Map<String, String>> hosts = new ArrayList<>();
-
+    private void scanWithNmap(ScanTarget target, int timeoutSeconds, StringBuffer scanLog,
+                              Consumer<DiscoveredHost> sink, Set<Process> processes) {
+        String networkRange = target.getNetworkRange();
         try {
-            List<String> command = buildCommand("nmap", "-sn", networkRange);
+            // XML on stdout is parsed as it streams in; each host is emitted as soon as its element closes
+            List<String> args = new ArrayList<>(List.of("-sn", "-oX", "-"));
+            if (!target.getExclusions().isEmpty()) {
+                args.add("--exclude");
+                args.add(target.getExclusions().stream().map(Ipv4Range::toString).collect(Collectors.joining(",")));
+            }
+            args.add(networkRange);
+            List<String> command = scannerCapabilityService.privilegedCommand("nmap", args.toArray(new String[0]));
             scanLog.append("Command: ").append(String.join(" ", command)).append("\n");
             scanLog.append("Network range: ").append(networkRange).append("\n");
             scanLog.append("---\n");
 
             ProcessBuilder pb = new ProcessBuilder(command);
-            pb.redirectErrorStream(true);
             Process process = pb.start();
-
-            StringBuilder output = new StringBuilder();
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    output.append(line).append("\n");
-                    scanLog.append(line).append("\n");
-                }
-            }
-
-            process.waitFor(scanTimeout, TimeUnit.SECONDS);
-
-            // Parse nmap output
-            String[] blocks = output.toString().split("Nmap scan report for ");
-            for (String block : blocks) {
-                if (block.trim().isEmpty()) continue;
-
-                String ip = NetworkUtils.extractIpFromLine(block);
-                String mac = NetworkUtils.extractMacFromArpOutput(block);
-
-                if (ip != null) {
-                    Map<String, String> host = new HashMap<>();
-                    host.put("ip", ip);
-                    host.put("mac", mac != null ? mac : "");
-
-                    // Extract hostname from block
-                    String[] lines = block.split("\n");
-                    if (lines.length > 0) {
-                        String firstLine = lines[0].trim();
-                        if (firstLine.contains("(")) {
-                            String hostname = firstLine.substring(0, firstLine.indexOf("(")).trim();
-                            host.put("hostname", hostname);
-                        }
-                    }
-
-                    // Extract vendor from MAC Address line (e.g., "MAC Address: AA:BB:CC:DD:EE:FF (Vendor Name)")
-                    for (String line : lines) {
-                        if (line.contains("MAC Address:") && line.contains("(")) {
-                            int start = line.indexOf("(") + 1;
-                            int end = line.indexOf(")");
-                            if (start > 0 && end > start) {
-                                host.put("vendor", line.substring(start, end));
-                            }
-                            break;
-                        }
+            processes.add(process);
+
+            // Warnings go to stderr; drain them separately so they neither corrupt the XML nor block nmap
+            StringBuffer errors = new StringBuffer();
+            Thread stderrReader = new Thread(() -> {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getErrorStream()))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        errors.append(line).append("\n");
                     }
+                } catch (Exception e) {
+                    logger.debug("Error reading nmap stderr", e);
+                }
+            }, "nmap-stderr");
+            stderrReader.setDaemon(true);
+            stderrReader.start();
+
+            int hosts;
+            try {
+                try (InputStream xml = process.getInputStream()) {
+                    hosts = NmapXmlParser.parse(xml, host -> emitNmapHost(host, scanLog, sink));
+                }
 
-                    // Add all discovered hosts, even without MAC (for cross-VLAN devices)
-                    hosts.add(host);
+                if (!process.waitFor(timeoutSeconds, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                    scanLog.append("WARNING: Scanner timed out after ").append(timeoutSeconds).append(" seconds\n");
                 }
+            } finally {
+                processes.remove(process);
             }
+            stderrReader.join(1000);
+            scanLog.append(errors);
+            scanLog.append("---\n").append(hosts).append(" hosts up\n");
 
         } catch (Exception e) {
             logger.error("Error running nmap", e);
             scanLog.append("ERROR: ").append(e.getMessage()).append("\n");
         }
+    }
+
+    private void emitNmapHost(NmapXmlParser.Host nmapHost, StringBuffer scanLog, Consumer<DiscoveredHost> sink) {
+        if (!nmapHost.isUp() || nmapHost.ipAddress() == null) {
+            return;
+        }
+
+        scanLog.append("Host up: ").append(nmapHost.ipAddress());
+        if (nmapHost.hostname() != null) {
+            scanLog.append(" (").append(nmapHost.hostname()).append(")");
+        }
+        if (nmapHost.macAddress() != null) {
+            scanLog.append(" MAC ").append(nmapHost.macAddress());
+            if (nmapHost.vendor() != null) {
+                scanLog.append(" (").append(nmapHost.vendor()).append(")");
+            }
+        }
+        scanLog.append("\n");
 
-        return hosts;
+        // Scan ranges are IPv4; nmap only reports an IPv6 address for hosts without one
+        DiscoveredHost host;
+        try {
+            // nmap already did the reverse lookup, so an empty hostname keeps it from being repeated downstream
+            host = DiscoveredHost.of(nmapHost.ipAddress(), nmapHost.macAddress(), nmapHost.vendor(),
+                    nmapHost.hostname() != null ? nmapHost.hostname() : "");
+        } catch (IllegalArgumentException e) {
+            logger.debug("Ignoring nmap host without an IPv4 address: {}", nmapHost.ipAddress());
+            return;
+        }
+
+        // Add all discovered hosts, even without MAC (for cross-VLAN devices)
+        sink.accept(host);
     }
 
-    private List<Map<String, String>> scanWithPing(String networkRange, StringBuilder scanLog) {
-        List<Map<String, String>> hosts = new ArrayList<>();
-        List<String> ips = NetworkUtils.generateIpRange(networkRange);
+    private void scanWithPing(ScanTarget target, int timeoutSeconds, StringBuffer scanLog,
+                              Consumer<DiscoveredHost> sink) {
+        List<Ipv4Range> ranges = target.getHostRanges();
+        long addressCount = 0;
+        for (Ipv4Range range : ranges) {
+            addressCount += range.size();
+        }
 
         scanLog.append("Method: Ping sweep\n");
-        scanLog.append("Network range: ").append(networkRange).append("\n");
-        scanLog.append("Total addresses to scan: ").append(ips.size()).append("\n");
+        scanLog.append("Network range: ").append(target.getNetworkRange()).append("\n");
+        scanLog.append("Total addresses to scan: ").append(addressCount).append("\n");
+        scanLog.append("Concurrency: ").append(pingSweepService.getConcurrency())
+               .append(", timeout: ").append(pingSweepService.getTimeoutMs()).append(" ms\n");
         scanLog.append("---\n");
 
-        logger.info("Performing ping sweep on {} addresses", ips.size());
-
-        for (String ip : ips) {
-            if (NetworkUtils.isHostReachable(ip, 500)) {
-                Map<String, String> host = new HashMap<>();
-                host.put("ip", ip);
-                host.put("hostname", resolveHostname(ip));
+        logger.info("Performing ping sweep on {} addresses", addressCount);
 
-                // Try to get MAC from ARP cache
-                String mac = getMacFromArpCache(ip);
-                host.put("mac", mac != null ? mac : "");
+        // Probing reachable hosts fills the kernel neighbor table; read it once afterwards instead of per host
+        List<String> reachable = Collections.synchronizedList(new ArrayList<>());
+        pingSweepService.sweep(ranges, reachable::add, timeoutSeconds);
 
-                if (mac != null && !mac.isEmpty()) {
-                    hosts.add(host);
-                    scanLog.append("Found: ").append(ip).append(" - ").append(mac).append("\n");
-                }
+        Map<String, MacAddress> neighbors = NeighborTable.read();
+        for (String ip : reachable) {
+            MacAddress mac = neighbors.get(ip);
+            if (mac != null) {
+                DiscoveredHost host = new DiscoveredHost(Ipv4Range.parseAddress(ip), mac.toLong(), null, null);
+                scanLog.append("Found: ").append(ip).append(" - ").append(mac).append("\n");
+                sink.accept(host);
             }
         }
-
-        return hosts;
     }
 
-    private String getMacFromArpCache(String ip) {
-        try {
-            String output = NetworkUtils.executeCommand("arp", "-n", ip);
-            return NetworkUtils.extractMacFromArpOutput(output);
-        } catch (Exception e) {
-            return null;
+    /**
+     * One page of scan summaries, newest first. The cursor is the {@code nextCursor} of the previous page, or null
+     * for the most recent scans.
+     *
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    public ScanHistoryPage<ScanSummary> getScanHistory(String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_SCAN_PAGE_SIZE));
+        // One extra row tells whether older scans remain
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<ScanSummary> scans;
+        if (cursor != null && !cursor.isBlank()) {
+            ScanCursor after = ScanCursor.decode(cursor.trim());
+            scans = networkScanRepository.findSummariesBefore(after.getStartedAt(), after.getId(), page);
+        } else {
+            scans = networkScanRepository.findSummaries(page);
+        }
+        if (scans.size() <= size) {
+            return new ScanHistoryPage<>(scans, null);
         }
+        scans = scans.subList(0, size);
+        return new ScanHistoryPage<>(scans, ScanCursor.after(scans.get(size - 1)).encode());
     }
 
-    private String resolveHostname(String ip) {
-        try {
-            java.net.InetAddress addr = java.net.InetAddress.getByName(ip);
-            String hostname = addr.getHostName();
-            if (!hostname.equals(ip)) {
-                return hostname;
-            }
-        } catch (Exception e) {
-            // Ignore
-        }
-        return null;
+    public Optional<ScanSummary> getLatestScanSummary() {
+        return networkScanRepository.findSummaries(PageRequest.of(0, 1)).stream().findFirst();
     }
 
-    public List<NetworkScan> getRecentScans(int limit) {
-        List<NetworkScan> allScans = networkScanRepository.findAllOrderByStartedAtDesc();
-        if (allScans.size() > limit) {
-            return allScans.subList(0, limit);
-        }
-        return allScans;
+    public List<ScanSummary> getRecentScanSummaries(int limit) {
+        return getScanHistory(null, limit).getScans();
     }
 
     public Optional<NetworkScan> getScanById(Long id) {
@@ -469,138 +595,19 @@ public class NetworkScannerService {
         return scanResultRepository.findByNetworkScanId(scanId);
     }
 
-    public Optional<NetworkScan> getLatestScan() {
-        return networkScanRepository.findTopByOrderByStartedAtDesc();
+    public List<ScanRangeResult> getScanRangeResults(Long scanId) {
+        return scanRangeResultRepository.findByNetworkScanIdOrderByIdAsc(scanId);
     }
 
     /**
-     * Performs an aggressive nmap scan on a specific device to discover open ports, OS, and services.
-     * This is a blocking operation that can take several minutes.
+     * The scanner each configured range would use right now, and why.
      */
-    @Transactional
-    public void performDeepScan(Long deviceId) {
-        Device device = deviceRepository.findById(deviceId).orElse(null);
-        if (device == null || device.getIpAddress() == null) {
-            logger.error("Cannot perform deep scan: device not found or no IP address");
-            return;
-        }
-
-        String ip = device.getIpAddress();
-        logger.info("Starting deep scan on device {} ({})", deviceId, ip);
-
-        StringBuilder scanLog = new StringBuilder();
-        scanLog.append("Deep Scan started at: ").append(LocalDateTime.now()).append("\n");
-        scanLog.append("Target IP: ").append(ip).append("\n");
-        scanLog.append("---\n");
-
-        try {
-            List<String> command = buildCommand("nmap", "-A", "-T4", ip);
-            scanLog.append("Command: ").append(String.join(" ", command)).append("\n\n");
-
-            ProcessBuilder pb = new ProcessBuilder(command);
-            pb.redirectErrorStream(true);
-            Process process = pb.start();
-
-            StringBuilder output = new StringBuilder();
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    output.append(line).append("\n");
-                    scanLog.append(line).append("\n");
-                }
-            }
-
-            // Wait up to 5 minutes for aggressive scan
-            boolean finished = process.waitFor(300, TimeUnit.SECONDS);
-            if (!finished) {
-                process.destroyForcibly();
-                scanLog.append("\nWARNING: Scan timed out after 5 minutes\n");
-            }
-
-            String nmapOutput = output.toString();
-
-            // Parse open ports
-            StringBuilder ports = new StringBuilder();
-            Pattern portPattern = Pattern.compile("(\\d+)/(tcp|udp)\\s+open\\s+(\\S+)\\s*(.*)");
-            for (String line : nmapOutput.split("\n")) {
-                Matcher matcher = portPattern.matcher(line);
-                if (matcher.find()) {
-                    if (ports.length() > 0) ports.append(", ");
-                    ports.append(matcher.group(1))
-                         .append("/").append(matcher.group(2))
-                         .append(" (").append(matcher.group(3));
-                    if (!matcher.group(4).isEmpty()) {
-                        ports.append(" - ").append(matcher.group(4).trim());
-                    }
-                    ports.append(")");
-                }
-            }
-            device.setOpenPorts(ports.toString());
-
-            // Parse OS detection
-            Pattern osPattern = Pattern.compile("OS details:\\s*(.+)");
-            Matcher osMatcher = osPattern.matcher(nmapOutput);
-            if (osMatcher.find()) {
-                device.setDetectedOs(osMatcher.group(1).trim());
-            } else {
-                // Try alternative OS pattern
-                Pattern osPattern2 = Pattern.compile("Running:\\s*(.+)");
-                Matcher osMatcher2 = osPattern2.matcher(nmapOutput);
-                if (osMatcher2.find()) {
-                    device.setDetectedOs(osMatcher2.group(1).trim());
-                }
-            }
-
-            // Update hostname if found and not already set
-            Pattern hostnamePattern = Pattern.compile("Nmap scan report for ([^\\s]+)\\s*\\(");
-            Matcher hostnameMatcher = hostnamePattern.matcher(nmapOutput);
-            if (hostnameMatcher.find()) {
-                String discoveredHostname = hostnameMatcher.group(1);
-                if (device.getHostname() == null || device.getHostname().isEmpty()) {
-                    device.setHostname(discoveredHostname);
-                }
-            }
-
-            device.setDeepScanLog(scanLog.toString());
-            device.setLastDeepScan(LocalDateTime.now());
-            deviceRepository.save(device);
-
-            logger.info("Deep scan completed for device {} ({})", deviceId, ip);
-
-        } catch (Exception e) {
-            logger.error("Error during deep scan of device {}", deviceId, e);
-            scanLog.append("\nERROR: ").append(e.getMessage()).append("\n");
-            device.setDeepScanLog(scanLog.toString());
-            device.setLastDeepScan(LocalDateTime.now());
-            deviceRepository.save(device);
-        }
-    }
-
-    /**
-     * Performs a deep scan asynchronously in a new thread.
-     */
-    public void performDeepScanAsync(Long deviceId) {
-        new Thread(() -> performDeepScan(deviceId)).start();
-    }
-
-    private static boolean checkIfRoot() {
-        try {
-            Process process = new ProcessBuilder("id", "-u").start();
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                String uid = reader.readLine();
-                return "0".equals(uid);
-            }
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
-    private List<String> buildCommand(String... args) {
-        List<String> command = new ArrayList<>();
-        if (!isRoot) {
-            command.add("sudo");
+    public Map<String, ScannerCapabilityService.ToolSelection> previewToolSelection() {
+        Map<String, ScannerCapabilityService.ToolSelection> selections = new LinkedHashMap<>();
+        for (ScanTarget target : ScanTarget.parseAll(defaultScanRange)) {
+            selections.put(target.getNetworkRange(), scannerCapabilityService.selectScannerTool(
+                    target.getScannerTool() != null ? target.getScannerTool() : scannerTool));
         }
-        command.addAll(Arrays.asList(args));
-        return command;
+        return selections;
     }
 }
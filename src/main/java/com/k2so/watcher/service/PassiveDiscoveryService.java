@@ -0,0 +1,194 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.model.Device;
+import com.k2so.watcher.repository.DeviceRepository;
+import com.k2so.watcher.repository.ScanResultRepository;
+import com.k2so.watcher.util.DiscoveredHost;
+import com.k2so.watcher.util.Ipv4Range;
+import com.k2so.watcher.util.MacAddress;
+import com.k2so.watcher.util.NeighborTable;
+import com.k2so.watcher.util.ScanTarget;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Passive discovery between scans: polls the kernel neighbor table and reconciles entries that are new or
+ * whose MAC changed since the previous reading, marking the matching devices online with a fresh last seen
+ * time. Only addresses inside the configured scan ranges are considered. Changes are applied under the lock
+ * a full scan holds while it reconciles, and skipped (then retried on the next poll) while a scan runs.
+ * Devices are never marked offline here; neighbor entries linger after a host leaves, so absence is left to
+ * the scans.
+ */
+@Service
+public class PassiveDiscoveryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PassiveDiscoveryService.class);
+
+    // Longest wait between fallback reads while the neighbor table file cannot be read
+    private static final long MAX_FALLBACK_INTERVAL_MS = 300_000;
+
+    private final DeviceRepository deviceRepository;
+    private final ScanResultRepository scanResultRepository;
+    private final MacVendorService macVendorService;
+    private final DeviceIdentificationService deviceIdentificationService;
+    private final HostnameResolutionService hostnameResolutionService;
+    private final DevicePresenceService devicePresenceService;
+    private final DeepScanScheduler deepScanScheduler;
+    private final NetworkScannerService networkScannerService;
+
+    @Value("${k2so.network.passive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${k2so.network.passive.neighbor-table:/proc/net/arp}")
+    private String neighborTablePath;
+
+    @Value("${k2so.network.scan-range:192.168.1.0/24}")
+    private String scanRange;
+
+    @Value("${k2so.network.passive.interval-ms:5000}")
+    private long intervalMs;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int writeBatchSize;
+
+    // Reading the last applied changes were diffed against; only touched by the scheduler thread
+    private Map<String, MacAddress> previous = new HashMap<>();
+
+    // While the neighbor table file is unreadable, NeighborTable forks ip neigh instead; that is done with a
+    // doubling interval rather than on every poll
+    private long fallbackIntervalMs;
+    private long nextFallbackAt;
+
+    public PassiveDiscoveryService(DeviceRepository deviceRepository,
+                                   ScanResultRepository scanResultRepository,
+                                   MacVendorService macVendorService,
+                                   DeviceIdentificationService deviceIdentificationService,
+                                   HostnameResolutionService hostnameResolutionService,
+                                   DevicePresenceService devicePresenceService,
+                                   DeepScanScheduler deepScanScheduler,
+                                   NetworkScannerService networkScannerService) {
+        this.deviceRepository = deviceRepository;
+        this.scanResultRepository = scanResultRepository;
+        this.macVendorService = macVendorService;
+        this.deviceIdentificationService = deviceIdentificationService;
+        this.hostnameResolutionService = hostnameResolutionService;
+        this.devicePresenceService = devicePresenceService;
+        this.deepScanScheduler = deepScanScheduler;
+        this.networkScannerService = networkScannerService;
+    }
+
+    @Scheduled(fixedDelayString = "${k2so.network.passive.interval-ms:5000}",
+               initialDelayString = "${k2so.network.passive.interval-ms:5000}")
+    public void poll() {
+        if (!enabled || networkScannerService.isScanInProgress()) {
+            return;
+        }
+
+        try {
+            Map<String, MacAddress> current = readNeighborTable();
+            if (current == null) {
+                return;
+            }
+            Map<String, MacAddress> changed = diff(previous, current);
+            if (changed.isEmpty()) {
+                previous = current;
+                return;
+            }
+
+            // A scan that started since the check above reconciles these hosts itself; keep the old
+            // reading so the changes are applied on a later poll if the scan missed them
+            boolean applied = networkScannerService.runBetweenScans(() -> {
+                int devices = reconcile(changed);
+                logger.info("Passive discovery: {} new or changed neighbor entries, {} devices updated",
+                        changed.size(), devices);
+            });
+            if (applied) {
+                previous = current;
+            }
+        } catch (Exception e) {
+            logger.error("Error during passive discovery", e);
+        }
+    }
+
+    /**
+     * Entries of {@code current} that are missing from {@code previous} or map to a different MAC.
+     */
+    static Map<String, MacAddress> diff(Map<String, MacAddress> previous, Map<String, MacAddress> current) {
+        Map<String, MacAddress> changed = new LinkedHashMap<>();
+        for (Map.Entry<String, MacAddress> entry : current.entrySet()) {
+            if (!entry.getValue().equals(previous.get(entry.getKey()))) {
+                changed.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * The neighbor table entries inside the scan ranges, or null if this poll is skipped while backing off.
+     */
+    private Map<String, MacAddress> readNeighborTable() {
+        Path path = Paths.get(neighborTablePath);
+        if (Files.isReadable(path)) {
+            if (fallbackIntervalMs > 0) {
+                logger.info("Neighbor table {} is readable again", path);
+                fallbackIntervalMs = 0;
+            }
+        } else {
+            long now = System.currentTimeMillis();
+            if (fallbackIntervalMs == 0) {
+                logger.warn("Cannot read neighbor table {}; falling back to 'ip neigh' at increasing intervals",
+                        path);
+            } else if (now < nextFallbackAt) {
+                return null;
+            }
+            fallbackIntervalMs = Math.min(Math.max(fallbackIntervalMs, intervalMs) * 2, MAX_FALLBACK_INTERVAL_MS);
+            nextFallbackAt = now + fallbackIntervalMs;
+        }
+
+        List<ScanTarget> targets = ScanTarget.parseAll(scanRange);
+        Map<String, MacAddress> table = new HashMap<>();
+        for (Map.Entry<String, MacAddress> entry : NeighborTable.read(path).entrySet()) {
+            for (ScanTarget target : targets) {
+                if (target.getRange().contains(entry.getKey()) && !target.isExcluded(entry.getKey())) {
+                    table.put(entry.getKey(), entry.getValue());
+                    break;
+                }
+            }
+        }
+        return table;
+    }
+
+    private int reconcile(Map<String, MacAddress> entries) {
+        // Only the devices the entries can match, by MAC or by IP
+        Set<MacAddress> macs = new HashSet<>(entries.values());
+        List<Device> candidates = deviceRepository.findByMacAddressInOrIpAddressIn(macs, entries.keySet());
+        DeviceIndex deviceIndex = new DeviceIndex(candidates);
+        ScanReconciler reconciler = new ScanReconciler(null, deviceIndex, deviceRepository, scanResultRepository,
+                macVendorService, deviceIdentificationService, deepScanScheduler::enqueueNewDevice, writeBatchSize);
+
+        Map<String, String> hostnames = hostnameResolutionService.resolveAll(entries.keySet());
+        for (Map.Entry<String, MacAddress> entry : entries.entrySet()) {
+            reconciler.reconcile(new DiscoveredHost(Ipv4Range.parseAddress(entry.getKey()), entry.getValue().toLong(),
+                    null, hostnames.get(entry.getKey())));
+        }
+        reconciler.flush();
+
+        Set<Long> seen = reconciler.getSeenDeviceIds();
+        devicePresenceService.markSeen(seen, LocalDateTime.now());
+        return seen.size();
+    }
+}
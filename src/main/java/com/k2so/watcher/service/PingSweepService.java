@@ -0,0 +1,140 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.util.Ipv4Range;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Concurrent reachability sweep used by the ping fallback scanner.
+ * A fixed pool of workers pulls addresses from a shared lazy iterator, so at most
+ * {@code concurrency} probes are in flight and reachable hosts are reported as soon as they answer.
+ */
+@Service
+public class PingSweepService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PingSweepService.class);
+
+    @Value("${k2so.network.ping.concurrency:64}")
+    private int concurrency;
+
+    @Value("${k2so.network.ping.timeout-ms:500}")
+    private int timeoutMs;
+
+    /**
+     * Probes every address of the given ranges and invokes {@code onReachable} from the worker thread for each
+     * host that answers. The callback must be thread-safe. Blocks until the sweep finishes or
+     * {@code maxWaitSeconds} elapses. Addresses are generated lazily, so memory use does not depend on range size.
+     *
+     * @return the number of reachable hosts
+     */
+    public int sweep(List<Ipv4Range> ranges, Consumer<String> onReachable, int maxWaitSeconds) {
+        long total = 0;
+        for (Ipv4Range range : ranges) {
+            total += range.size();
+        }
+        return sweep(Ipv4Range.iterator(ranges), total, onReachable, maxWaitSeconds);
+    }
+
+    /**
+     * Probes a list of individual addresses; see {@link #sweep(List, Consumer, int)}.
+     */
+    public int sweepAddresses(Collection<String> ips, Consumer<String> onReachable, int maxWaitSeconds) {
+        int[] addresses = new int[ips.size()];
+        int count = 0;
+        for (String ip : ips) {
+            try {
+                addresses[count] = Ipv4Range.parseAddress(ip);
+                count++;
+            } catch (IllegalArgumentException e) {
+                logger.debug("Skipping invalid address {}", ip);
+            }
+        }
+        return sweep(Arrays.stream(addresses, 0, count).iterator(), count, onReachable, maxWaitSeconds);
+    }
+
+    private int sweep(PrimitiveIterator.OfInt addresses, long total, Consumer<String> onReachable, int maxWaitSeconds) {
+        if (total == 0) {
+            return 0;
+        }
+
+        int workers = (int) Math.max(1, Math.min(concurrency, total));
+        AtomicInteger reachable = new AtomicInteger();
+        AtomicInteger threadCounter = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "ping-sweep-" + threadCounter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        long start = System.currentTimeMillis();
+        try {
+            for (int w = 0; w < workers; w++) {
+                executor.execute(() -> {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        int address;
+                        // Shared cursor: workers that hit fast answers simply take more addresses
+                        synchronized (addresses) {
+                            if (!addresses.hasNext()) {
+                                return;
+                            }
+                            address = addresses.nextInt();
+                        }
+                        if (isReachable(address)) {
+                            reachable.incrementAndGet();
+                            String ip = Ipv4Range.format(address);
+                            try {
+                                onReachable.accept(ip);
+                            } catch (Exception e) {
+                                logger.warn("Error handling reachable host {}", ip, e);
+                            }
+                        }
+                    }
+                });
+            }
+
+            executor.shutdown();
+            if (!executor.awaitTermination(maxWaitSeconds, TimeUnit.SECONDS)) {
+                logger.warn("Ping sweep did not finish within {}s, aborting remaining probes", maxWaitSeconds);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        logger.info("Ping sweep of {} addresses with {} workers finished in {} ms, {} reachable",
+                total, workers, System.currentTimeMillis() - start, reachable.get());
+        return reachable.get();
+    }
+
+    private boolean isReachable(int address) {
+        try {
+            // Built from the raw bytes, so no name lookup is attempted
+            return InetAddress.getByAddress(Ipv4Range.toBytes(address)).isReachable(timeoutMs);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public int getTimeoutMs() {
+        return timeoutMs;
+    }
+}
@@ -0,0 +1,149 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.dto.DeviceAddress;
+import com.k2so.watcher.repository.DeviceRepository;
+import com.k2so.watcher.util.MacAddress;
+import com.k2so.watcher.util.NeighborTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Presence check: probes the last known IP of every known device instead of sweeping whole ranges.
+ * A device counts as present when it answers the probe and the neighbor table does not map its IP to a different
+ * MAC, or when the probe left a fresh neighbor entry with its own MAC (hosts that drop ICMP still answer ARP).
+ * Only state transitions are written, as device updates; presence checks are not recorded as scans.
+ */
+@Service
+public class PresenceCheckService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PresenceCheckService.class);
+
+    private final DeviceRepository deviceRepository;
+    private final PingSweepService pingSweepService;
+    private final DevicePresenceService devicePresenceService;
+    private final NetworkScannerService networkScannerService;
+
+    @Value("${k2so.network.presence.enabled:false}")
+    private boolean enabled;
+
+    @Value("${k2so.network.presence.offline-after-misses:2}")
+    private int offlineAfterMisses;
+
+    @Value("${k2so.network.presence.timeout-seconds:30}")
+    private int timeoutSeconds;
+
+    // Consecutive failed checks per online device, so one dropped probe does not flap a device offline
+    private final Map<Long, Integer> misses = new ConcurrentHashMap<>();
+
+    public PresenceCheckService(DeviceRepository deviceRepository,
+                                PingSweepService pingSweepService,
+                                DevicePresenceService devicePresenceService,
+                                NetworkScannerService networkScannerService) {
+        this.deviceRepository = deviceRepository;
+        this.pingSweepService = pingSweepService;
+        this.devicePresenceService = devicePresenceService;
+        this.networkScannerService = networkScannerService;
+    }
+
+    @Scheduled(fixedDelayString = "${k2so.network.presence.interval-ms:60000}",
+               initialDelayString = "${k2so.network.presence.interval-ms:60000}")
+    public void scheduledCheck() {
+        if (!enabled) {
+            return;
+        }
+        if (networkScannerService.isScanInProgress()) {
+            logger.debug("Skipping presence check - a scan is in progress");
+            return;
+        }
+
+        try {
+            checkPresence();
+        } catch (Exception e) {
+            logger.error("Error during presence check", e);
+        }
+    }
+
+    /**
+     * Runs one presence check.
+     *
+     * @return the number of devices that went online or offline
+     */
+    public int checkPresence() {
+        Map<String, List<DeviceAddress>> devicesByIp = new HashMap<>();
+        for (DeviceAddress device : deviceRepository.findAddresses()) {
+            devicesByIp.computeIfAbsent(device.ipAddress(), ip -> new ArrayList<>()).add(device);
+        }
+        if (devicesByIp.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> reachable = ConcurrentHashMap.newKeySet();
+        pingSweepService.sweepAddresses(devicesByIp.keySet(), reachable::add, timeoutSeconds);
+        // Read after the sweep, which made the kernel resolve every probed address
+        Map<String, MacAddress> neighbors = NeighborTable.read();
+        Map<String, MacAddress> freshNeighbors = NeighborTable.readFresh();
+
+        List<Long> wentOnline = new ArrayList<>();
+        List<Long> wentOffline = new ArrayList<>();
+        int present = 0;
+
+        for (Map.Entry<String, List<DeviceAddress>> entry : devicesByIp.entrySet()) {
+            String ip = entry.getKey();
+            MacAddress neighborMac = neighbors.get(ip);
+
+            for (DeviceAddress device : entry.getValue()) {
+                MacAddress mac = device.macAddress();
+                boolean realMac = mac != null && !mac.isPlaceholder();
+                // Routed (cross-VLAN) hosts have no neighbor entry, so only a conflicting MAC rules a device out
+                boolean confirmed = neighborMac == null || !realMac || neighborMac.equals(mac);
+                boolean answeredArp = realMac && mac.equals(freshNeighbors.get(ip));
+                boolean isPresent = (reachable.contains(ip) && confirmed) || answeredArp;
+
+                if (isPresent) {
+                    present++;
+                    misses.remove(device.id());
+                    if (!device.online()) {
+                        wentOnline.add(device.id());
+                        logger.info("Presence check: {} ({}) is online", device.displayName(), ip);
+                    }
+                } else if (device.online()) {
+                    int missed = misses.merge(device.id(), 1, Integer::sum);
+                    if (missed >= offlineAfterMisses) {
+                        misses.remove(device.id());
+                        wentOffline.add(device.id());
+                        if (confirmed) {
+                            logger.info("Presence check: {} ({}) is offline", device.displayName(), ip);
+                        } else {
+                            logger.info("Presence check: {} ({}) is offline - IP now answered by {}",
+                                    device.displayName(), ip, neighborMac);
+                        }
+                    }
+                } else {
+                    misses.remove(device.id());
+                }
+            }
+        }
+
+        if (wentOnline.isEmpty() && wentOffline.isEmpty()) {
+            logger.debug("Presence check: {} of {} addresses present, no changes", present, devicesByIp.size());
+            return 0;
+        }
+
+        devicePresenceService.markSeen(wentOnline, LocalDateTime.now());
+        devicePresenceService.markOffline(wentOffline);
+
+        logger.info("Presence check: {} went online, {} went offline", wentOnline.size(), wentOffline.size());
+        return wentOnline.size() + wentOffline.size();
+    }
+}
@@ -0,0 +1,130 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.util.DiscoveredHost;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Streams discovered hosts from a scanner into the reconciler while the scanner is still running.
+ * Scanners push each parsed host with {@link #accept}; when the bounded queue is full the scanner blocks,
+ * which in turn stops it from draining the child process output. Worker threads resolve hostnames
+ * and hand each host to the {@link ScanReconciler}. Every started pipeline must end with {@link #finish} or,
+ * when the scan fails, {@link #abort}, or its workers stay blocked on the queue.
+ */
+public class ScanPipeline implements Consumer<DiscoveredHost> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScanPipeline.class);
+
+    private static final DiscoveredHost END_OF_STREAM = new DiscoveredHost(0, DiscoveredHost.NO_MAC, null, null);
+
+    private final BlockingQueue<DiscoveredHost> queue;
+    private final HostnameResolutionService hostnameResolutionService;
+    private final ScanReconciler reconciler;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private volatile Exception failure;
+    private volatile boolean aborted;
+
+    public ScanPipeline(int capacity, int workerCount,
+                        HostnameResolutionService hostnameResolutionService,
+                        ScanReconciler reconciler) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.hostnameResolutionService = hostnameResolutionService;
+        this.reconciler = reconciler;
+
+        for (int i = 0; i < Math.max(1, workerCount); i++) {
+            Thread worker = new Thread(this::drain, "scan-pipeline-" + (i + 1));
+            worker.setDaemon(true);
+            workers.add(worker);
+        }
+    }
+
+    public void start() {
+        workers.forEach(Thread::start);
+    }
+
+    /**
+     * Queues a discovered host, blocking while the queue is full. Hosts arriving after {@link #abort} are dropped.
+     */
+    @Override
+    public void accept(DiscoveredHost host) {
+        try {
+            while (!queue.offer(host, 100, TimeUnit.MILLISECONDS)) {
+                if (aborted) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing discovered host", e);
+        }
+    }
+
+    /**
+     * Signals end of input and waits for the workers to drain the queue.
+     * Rethrows the first reconciliation failure so the scan is marked as failed.
+     */
+    public void finish(long timeoutSeconds) throws Exception {
+        for (int i = 0; i < workers.size(); i++) {
+            accept(END_OF_STREAM);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        for (Thread worker : workers) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            worker.join(Math.max(1, remainingMillis));
+            if (worker.isAlive()) {
+                throw new IllegalStateException("Timed out waiting for scan results to be processed");
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Stops the workers without processing the hosts still queued; used when the scan fails before
+     * {@link #finish}. Hosts already handed to the reconciler are kept.
+     */
+    public void abort() {
+        aborted = true;
+        queue.clear();
+        workers.forEach(Thread::interrupt);
+    }
+
+    private void drain() {
+        try {
+            // The flag covers an interrupt swallowed by the reconciler's database calls
+            while (!aborted) {
+                DiscoveredHost host = queue.take();
+                if (host == END_OF_STREAM) {
+                    return;
+                }
+                if (failure != null) {
+                    // Keep draining so the scanner never blocks on a dead pipeline
+                    continue;
+                }
+                try {
+                    // Hosts without a name from the scanner get a reverse lookup
+                    if (host.hostname() == null) {
+                        host = host.withHostname(hostnameResolutionService.resolve(host.ipAddress()));
+                    }
+                    reconciler.reconcile(host);
+                } catch (Exception e) {
+                    logger.error("Error processing discovered host {}", host.ipAddress(), e);
+                    failure = e;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
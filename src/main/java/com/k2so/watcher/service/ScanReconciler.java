@@ -0,0 +1,280 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.model.Device;
+import com.k2so.watcher.model.DeviceType;
+import com.k2so.watcher.model.NetworkScan;
+import com.k2so.watcher.model.ScanResult;
+import com.k2so.watcher.repository.DeviceRepository;
+import com.k2so.watcher.repository.DeviceRepositoryCustom.ScanUpdate;
+import com.k2so.watcher.repository.ScanResultRepository;
+import com.k2so.watcher.util.DiscoveredHost;
+import com.k2so.watcher.util.MacAddress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Matches discovered hosts against the device inventory for a single scan.
+ * MAC is the primary identifier; hosts without a MAC (cross-VLAN) are matched by IP and get a placeholder MAC.
+ * One instance is created per scan and hosts may be fed from several threads.
+ * Lookups go through a {@link DeviceIndex} snapshot taken at the start of the scan. New devices and scan results
+ * are buffered and flushed with {@code saveAll} every {@code batchSize} hosts so Hibernate can send them as JDBC
+ * batches; {@link #flush()} must be called once the last host has been reconciled. Existing devices are never
+ * saved whole from the snapshot, which may be minutes old: only the columns the scan owns (MAC, IP, hostname,
+ * vendor and an auto-detected type) are written, as one JDBC batch per flush.
+ * Presence (online flag and last seen) of existing devices is not written here; the ids of all matched
+ * devices are collected in {@link #getSeenDeviceIds()} and applied in bulk when the scan ends.
+ * Without a scan (passive discovery) devices are reconciled the same way but no scan results are recorded.
+ */
+public class ScanReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScanReconciler.class);
+
+    private final NetworkScan scan;
+    private final DeviceIndex deviceIndex;
+    private final DeviceRepository deviceRepository;
+    private final ScanResultRepository scanResultRepository;
+    private final MacVendorService macVendorService;
+    private final DeviceIdentificationService deviceIdentificationService;
+    private final Consumer<Long> newDeviceListener;
+
+    private final Set<Long> processedMacs = new HashSet<>();
+    private final Set<Integer> processedIps = new HashSet<>();
+    private final List<Device> seenDevices = new ArrayList<>();
+    private final int batchSize;
+
+    private final List<Device> pendingDevices = new ArrayList<>();
+    private final List<ScanUpdate> pendingUpdates = new ArrayList<>();
+    private final List<ScanResult> pendingResults = new ArrayList<>();
+    private final List<Device> pendingNewDevices = new ArrayList<>();
+    private final StringBuilder skippedLog = new StringBuilder();
+
+    private int hostsReceived = 0;
+    private int newDevices = 0;
+    private int skippedDevices = 0;
+
+    public ScanReconciler(NetworkScan scan,
+                          DeviceIndex deviceIndex,
+                          DeviceRepository deviceRepository,
+                          ScanResultRepository scanResultRepository,
+                          MacVendorService macVendorService,
+                          DeviceIdentificationService deviceIdentificationService,
+                          Consumer<Long> newDeviceListener,
+                          int batchSize) {
+        this.scan = scan;
+        this.deviceIndex = deviceIndex;
+        this.deviceRepository = deviceRepository;
+        this.scanResultRepository = scanResultRepository;
+        this.macVendorService = macVendorService;
+        this.deviceIdentificationService = deviceIdentificationService;
+        this.newDeviceListener = newDeviceListener;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public synchronized void reconcile(DiscoveredHost host) {
+        hostsReceived++;
+
+        // Skip if we've already processed this IP in this scan
+        if (processedIps.contains(host.ip())) {
+            logger.debug("Skipping duplicate IP address in scan results: {}", host.ipAddress());
+            return;
+        }
+
+        boolean hasMac = host.hasMac();
+        if (hasMac) {
+            // Skip if we've already processed this MAC in this scan (duplicate scan result)
+            if (!processedMacs.add(host.mac())) {
+                logger.debug("Skipping duplicate MAC address in scan results: {}", host.macAddress());
+                return;
+            }
+        }
+
+        String ipAddress = host.ipAddress();
+        MacAddress macAddress = host.macAddress();
+        String hostname = host.hostname();
+        String scannedVendor = host.vendor();
+
+        // Find or create device - MAC is the primary identifier
+        Device device = null;
+        Device deviceByIp = null;
+
+        if (hasMac) {
+            device = deviceIndex.findByMacAddress(macAddress);
+        }
+
+        // Check if IP already exists in the inventory
+        deviceByIp = deviceIndex.findByIpAddress(ipAddress);
+
+        if (device == null && deviceByIp != null) {
+            // A device with this IP already exists
+            if (!hasMac) {
+                // No new MAC to set, use the existing device
+                device = deviceByIp;
+            } else if (deviceByIp.getMacAddress() == null ||
+                       deviceByIp.getMacAddress().isPlaceholder() ||
+                       deviceByIp.getMacAddress().equals(macAddress)) {
+                // Device has no MAC, has a placeholder MAC, or same MAC - safe to update
+                device = deviceByIp;
+            } else {
+                // A device exists at this IP with a different real MAC
+                // Skip this device to prevent duplicates
+                skippedDevices++;
+                String skipMsg = String.format("Skipped: IP %s (MAC: %s) - IP already assigned to device '%s' (MAC: %s)",
+                        ipAddress, macAddress, deviceByIp.getDisplayName(), deviceByIp.getMacAddress());
+                skippedLog.append(skipMsg).append("\n");
+                logger.info(skipMsg);
+                processedIps.add(host.ip());
+                return;
+            }
+        }
+
+        boolean isNew = (device == null);
+
+        if (isNew) {
+            device = new Device();
+            device.setKnown(false);
+            newDevices++;
+        }
+
+        MacAddress previousMac = device.getMacAddress();
+        String previousIp = device.getIpAddress();
+        String previousHostname = device.getHostname();
+        String previousVendor = device.getVendor();
+        DeviceType previousType = device.getDeviceType();
+
+        // Update MAC if we have one (might get MAC later for cross-VLAN device)
+        if (hasMac) {
+            device.setMacAddress(macAddress);
+        } else if (device.getMacAddress() == null) {
+            // No MAC available - use a placeholder in the locally administered range that won't collide with real MACs
+            device.setMacAddress(MacAddress.placeholderFor(host.ip()));
+        }
+
+        processedIps.add(host.ip());
+
+        device.setIpAddress(ipAddress);
+        if (hostname != null && !hostname.isEmpty()) {
+            device.setHostname(hostname);
+        }
+
+        // Use vendor from scan output if available, otherwise lookup by MAC
+        String vendor = (scannedVendor != null && !scannedVendor.isEmpty())
+            ? scannedVendor
+            : (hasMac ? macVendorService.lookupVendor(macAddress) : "Unknown (Cross-VLAN)");
+        device.setVendor(vendor);
+
+        // Identify device type if unknown
+        if (device.getDeviceType() == null || device.getDeviceType() == DeviceType.UNKNOWN) {
+            device.setDeviceType(deviceIdentificationService.identifyDeviceType(device));
+        }
+
+        boolean changed = isNew
+                || !Objects.equals(previousMac, device.getMacAddress())
+                || !Objects.equals(previousIp, device.getIpAddress())
+                || !Objects.equals(previousHostname, device.getHostname())
+                || !Objects.equals(previousVendor, device.getVendor())
+                || previousType != device.getDeviceType();
+
+        if (isNew) {
+            device.setOnline(true);
+            device.setLastSeen(LocalDateTime.now());
+        }
+
+        // Unchanged devices are not written; their presence is updated in bulk at the end of the scan.
+        // The instance stays in the index: new devices get their id when persisted.
+        if (isNew) {
+            pendingDevices.add(device);
+            deviceIndex.update(previousMac, previousIp, device);
+        } else if (changed) {
+            boolean typeDetected = previousType != device.getDeviceType();
+            pendingUpdates.add(new ScanUpdate(device.getId(), device.getMacAddress(), device.getIpAddress(),
+                    device.getIpNumeric(), hostname != null && !hostname.isEmpty() ? hostname : null,
+                    device.getVendor(), typeDetected ? device.getDeviceType() : null));
+            deviceIndex.update(previousMac, previousIp, device);
+        }
+        seenDevices.add(device);
+
+        // Create scan result
+        if (scan != null) {
+            ScanResult result = new ScanResult();
+            result.setNetworkScan(scan);
+            result.setDevice(device);
+            result.setMacAddress(device.getMacAddress());
+            result.setIpAddress(ipAddress);
+            result.setHostname(hostname);
+            result.setVendor(vendor);
+            result.setNewDevice(isNew);
+            pendingResults.add(result);
+        }
+
+        if (isNew) {
+            pendingNewDevices.add(device);
+        }
+
+        if (pendingResults.size() >= batchSize || pendingDevices.size() >= batchSize
+                || pendingUpdates.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes buffered devices and scan results, then schedules deep scans for devices that were just created.
+     */
+    public synchronized void flush() {
+        if (!pendingDevices.isEmpty()) {
+            deviceRepository.saveAll(pendingDevices);
+            pendingDevices.clear();
+        }
+        if (!pendingUpdates.isEmpty()) {
+            deviceRepository.updateScanFields(pendingUpdates);
+            pendingUpdates.clear();
+        }
+        if (!pendingResults.isEmpty()) {
+            scanResultRepository.saveAll(pendingResults);
+            pendingResults.clear();
+        }
+
+        // Auto-trigger deep scan for new devices
+        for (Device device : pendingNewDevices) {
+            logger.info("Scheduling deep scan for new device {} ({})", device.getId(), device.getIpAddress());
+            newDeviceListener.accept(device.getId());
+        }
+        pendingNewDevices.clear();
+    }
+
+    /**
+     * Ids of all devices matched or created by this scan. Only complete after {@link #flush()}.
+     */
+    public synchronized Set<Long> getSeenDeviceIds() {
+        Set<Long> ids = new HashSet<>();
+        for (Device device : seenDevices) {
+            if (device.getId() != null) {
+                ids.add(device.getId());
+            }
+        }
+        return ids;
+    }
+
+    public synchronized int getDevicesFound() {
+        return hostsReceived - skippedDevices;
+    }
+
+    public synchronized int getNewDevices() {
+        return newDevices;
+    }
+
+    public synchronized int getSkippedDevices() {
+        return skippedDevices;
+    }
+
+    public synchronized String getSkippedLog() {
+        return skippedLog.toString();
+    }
+}
@@ -0,0 +1,242 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.dto.ScannerCapabilities;
+import com.k2so.watcher.util.NetworkUtils;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Probes once at startup (and on demand) which scanner tools are installed, their versions and supported
+ * flags, and whether privileged commands can run, so scans do not fork {@code which}/{@code id} every time.
+ */
+@Service
+public class ScannerCapabilityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScannerCapabilityService.class);
+
+    private static final int PROBE_TIMEOUT_SECONDS = 5;
+
+    // tool -> { version argument, help argument, flags of interest }
+    private static final Map<String, String[]> PROBES = new LinkedHashMap<>();
+
+    static {
+        PROBES.put("arp-scan", new String[]{"--version", "--help", "--plain", "--format", "--localnet", "--resolve"});
+        PROBES.put("nmap", new String[]{"--version", "--help", "-oX", "--privileged", "--unprivileged"});
+        PROBES.put("arp", new String[]{"-V", null});
+        PROBES.put("ip", new String[]{"-V", null});
+    }
+
+    private volatile ScannerCapabilities capabilities;
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    public ScannerCapabilities refresh() {
+        boolean root = NetworkUtils.isRunningAsRoot();
+        boolean sudo = !root && runProbe("sudo", "-n", "true").exitCode == 0;
+        boolean getcap = !runProbe("which", "getcap").output.isEmpty();
+
+        Map<String, ScannerCapabilities.ToolInfo> tools = new LinkedHashMap<>();
+        for (Map.Entry<String, String[]> entry : PROBES.entrySet()) {
+            tools.put(entry.getKey(), probeTool(entry.getKey(), entry.getValue(), getcap));
+        }
+
+        capabilities = new ScannerCapabilities(root, sudo, tools, LocalDateTime.now());
+        logger.info("Scanner capabilities: root={}, sudo={}, tools={}", root, sudo,
+                tools.values().stream()
+                        .filter(ScannerCapabilities.ToolInfo::isAvailable)
+                        .map(t -> t.getName() + (t.getVersion() != null ? " (" + t.getVersion() + ")" : ""))
+                        .toList());
+        if (!root && !sudo) {
+            logger.warn("Passwordless sudo is not available; privileged scanner commands run without sudo. "
+                    + "Allow them in sudoers (NOPASSWD) or grant cap_net_raw to arp-scan and nmap.");
+        }
+        return capabilities;
+    }
+
+    public ScannerCapabilities getCapabilities() {
+        return capabilities;
+    }
+
+    public boolean isToolAvailable(String tool) {
+        return capabilities.isToolAvailable(tool);
+    }
+
+    /**
+     * Picks the scanner for a range: the preferred tool when it can run, otherwise nmap, otherwise a ping sweep.
+     */
+    public ToolSelection selectScannerTool(String preferred) {
+        ScannerCapabilities caps = capabilities;
+        String fallbackReason = null;
+
+        if ("arp-scan".equals(preferred)) {
+            if (!caps.isToolAvailable("arp-scan")) {
+                fallbackReason = "arp-scan is not installed";
+            } else if (!caps.isPrivileged() && !hasNetRawCapability("arp-scan")) {
+                fallbackReason = "arp-scan needs root, passwordless sudo or cap_net_raw";
+            } else {
+                return new ToolSelection("arp-scan", "preferred tool");
+            }
+        } else if ("ping".equals(preferred)) {
+            return new ToolSelection("ping", "preferred tool");
+        } else if ("nmap".equals(preferred)) {
+            if (caps.isToolAvailable("nmap")) {
+                return new ToolSelection("nmap", "preferred tool");
+            }
+            fallbackReason = "nmap is not installed";
+        } else {
+            fallbackReason = "unknown scanner tool '" + preferred + "'";
+        }
+
+        if (caps.isToolAvailable("nmap")) {
+            return new ToolSelection("nmap", fallbackReason + ", using nmap");
+        }
+        return new ToolSelection("ping", fallbackReason + ", nmap is not installed, using ping sweep");
+    }
+
+    /**
+     * Builds a command line for a tool that needs raw socket access: prefixed with sudo when not running as
+     * root, unless the binary carries cap_net_raw itself or sudo would ask for a password. Scans never run
+     * under a sudo that prompts, as there is no terminal to answer it; the capabilities report says so.
+     */
+    public List<String> privilegedCommand(String tool, String... args) {
+        ScannerCapabilities caps = capabilities;
+        List<String> command = new ArrayList<>();
+
+        boolean fileCaps = !caps.isRoot() && hasNetRawCapability(tool);
+        if (!caps.isRoot() && !fileCaps && caps.isSudoAvailable()) {
+            command.add("sudo");
+        }
+        command.add(tool);
+        // nmap ignores file capabilities unless told it is privileged
+        if (fileCaps && "nmap".equals(tool)) {
+            command.add("--privileged");
+        }
+        command.addAll(Arrays.asList(args));
+        return command;
+    }
+
+    private boolean hasNetRawCapability(String tool) {
+        ScannerCapabilities.ToolInfo info = capabilities.getTool(tool);
+        return info != null && info.getFileCapabilities() != null && info.getFileCapabilities().contains("cap_net_raw");
+    }
+
+    private ScannerCapabilities.ToolInfo probeTool(String tool, String[] probe, boolean getcap) {
+        ProbeResult which = runProbe("which", tool);
+        String path = which.exitCode == 0 && !which.output.isEmpty() ? which.output.lines().findFirst().orElse(null) : null;
+        if (path == null) {
+            return new ScannerCapabilities.ToolInfo(tool, null, null, new LinkedHashSet<>(), null);
+        }
+
+        String version = runProbe(tool, probe[0]).output.lines()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty())
+                .findFirst()
+                .orElse(null);
+
+        Set<String> flags = new LinkedHashSet<>();
+        if (probe[1] != null) {
+            String help = runProbe(tool, probe[1]).output;
+            for (int i = 2; i < probe.length; i++) {
+                if (help.contains(probe[i])) {
+                    flags.add(probe[i]);
+                }
+            }
+        }
+
+        String fileCapabilities = null;
+        if (getcap) {
+            // Output is "<path> cap_net_raw=eip" (or "<path> = cap_net_raw+eip" on older libcap)
+            String output = runProbe("getcap", path).output.trim();
+            if (output.startsWith(path)) {
+                String caps = output.substring(path.length()).replaceFirst("^\\s*=?\\s*", "");
+                fileCapabilities = caps.isEmpty() ? null : caps;
+            }
+        }
+
+        return new ScannerCapabilities.ToolInfo(tool, path, version, flags, fileCapabilities);
+    }
+
+    /**
+     * Runs a probe command for at most {@link #PROBE_TIMEOUT_SECONDS}. Output is drained on its own thread, so a
+     * probe that hangs (waiting for input or a password) is killed at the deadline instead of blocking startup.
+     */
+    private static ProbeResult runProbe(String... command) {
+        try {
+            ProcessBuilder pb = new ProcessBuilder(command);
+            pb.redirectErrorStream(true);
+            Process process = pb.start();
+            process.getOutputStream().close();
+
+            StringBuffer output = new StringBuffer();
+            Thread outputReader = new Thread(() -> {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        output.append(line).append("\n");
+                    }
+                } catch (Exception e) {
+                    logger.debug("Error reading probe output", e);
+                }
+            }, "capability-probe");
+            outputReader.setDaemon(true);
+            outputReader.start();
+
+            if (!process.waitFor(PROBE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                logger.debug("Probe timed out: {}", String.join(" ", command));
+                outputReader.join(1000);
+                return new ProbeResult(-1, output.toString());
+            }
+            outputReader.join(1000);
+            return new ProbeResult(process.exitValue(), output.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ProbeResult(-1, "");
+        } catch (Exception e) {
+            logger.debug("Probe failed: {}", String.join(" ", command), e);
+            return new ProbeResult(-1, "");
+        }
+    }
+
+    private record ProbeResult(int exitCode, String output) {
+    }
+
+    /**
+     * The scanner chosen for a range and why.
+     */
+    public static class ToolSelection {
+
+        private final String tool;
+        private final String reason;
+
+        public ToolSelection(String tool, String reason) {
+            this.tool = tool;
+            this.reason = reason;
+        }
+
+        public String getTool() {
+            return tool;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+}
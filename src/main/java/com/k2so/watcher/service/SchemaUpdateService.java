@@ -0,0 +1,89 @@
+package com.k2so.watcher.service;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.TargetType;
+import org.hibernate.tool.schema.internal.ExceptionHandlerHaltImpl;
+import org.hibernate.tool.schema.spi.ContributableMatcher;
+import org.hibernate.tool.schema.spi.ExecutionOptions;
+import org.hibernate.tool.schema.spi.SchemaManagementTool;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.hibernate.tool.schema.spi.ScriptTargetOutput;
+import org.hibernate.tool.schema.spi.TargetDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the Hibernate schema update ({@code ddl-auto: update}) again on demand, for a database that was replaced
+ * while the application runs, such as a restored backup. Registers itself as a Hibernate integrator to keep the
+ * mapping metadata Hibernate builds at startup.
+ */
+@Service
+public class SchemaUpdateService implements Integrator, HibernatePropertiesCustomizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaUpdateService.class);
+
+    private volatile Metadata metadata;
+    private volatile ServiceRegistry serviceRegistry;
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(JpaSettings.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(this));
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                          SessionFactoryImplementor sessionFactory) {
+        this.metadata = metadata;
+        this.serviceRegistry = sessionFactory.getServiceRegistry();
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry registry) {
+        metadata = null;
+        serviceRegistry = null;
+    }
+
+    /**
+     * Creates the tables, columns, indexes and sequences of the current mapping that the database lacks.
+     *
+     * @throws IllegalStateException if Hibernate has not started yet
+     */
+    public void updateSchema() {
+        Metadata current = metadata;
+        ServiceRegistry registry = serviceRegistry;
+        if (current == null || registry == null) {
+            throw new IllegalStateException("Hibernate mapping metadata is not available");
+        }
+
+        Map<String, Object> settings = registry.getService(ConfigurationService.class).getSettings();
+        ExecutionOptions options = SchemaManagementToolCoordinator.buildExecutionOptions(settings,
+                ExceptionHandlerHaltImpl.INSTANCE);
+        registry.getService(SchemaManagementTool.class).getSchemaMigrator(settings)
+                .doMigration(current, options, ContributableMatcher.ALL, new TargetDescriptor() {
+                    @Override
+                    public EnumSet<TargetType> getTargetTypes() {
+                        return EnumSet.of(TargetType.DATABASE);
+                    }
+
+                    @Override
+                    public ScriptTargetOutput getScriptTargetOutput() {
+                        return null;
+                    }
+                });
+        logger.info("Database schema updated to the current mapping");
+    }
+}
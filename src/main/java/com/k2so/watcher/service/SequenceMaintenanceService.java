@@ -0,0 +1,77 @@
+package com.k2so.watcher.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the id sequences of sequence-generated entities ahead of the ids already stored.
+ * Devices and scan results used identity columns before switching to pooled sequences, so an
+ * existing database (or a restored backup) can hold ids the new sequence would hand out again.
+ */
+@Service
+@DependsOn("entityManagerFactory")
+public class SequenceMaintenanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SequenceMaintenanceService.class);
+
+    // Must match allocationSize of the @SequenceGenerator mappings
+    public static final int ALLOCATION_SIZE = 50;
+
+    // sequence name -> table it generates ids for
+    private static final Map<String, String> SEQUENCES = new LinkedHashMap<>();
+
+    static {
+        SEQUENCES.put("devices_seq", "devices");
+        SEQUENCES.put("scan_results_seq", "scan_results");
+    }
+
+    private final DataSource dataSource;
+
+    public SequenceMaintenanceService(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void alignSequences() {
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            for (Map.Entry<String, String> entry : SEQUENCES.entrySet()) {
+                String sequence = entry.getKey();
+                String table = entry.getValue();
+
+                stmt.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence
+                        + " START WITH 1 INCREMENT BY " + ALLOCATION_SIZE);
+
+                long maxId = queryLong(stmt, "SELECT COALESCE(MAX(id), 0) FROM " + table);
+                long nextValue = queryLong(stmt, "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = '"
+                        + sequence.toUpperCase() + "'");
+
+                // The pooled optimizer hands out (value - allocationSize, value], so stay a full block above maxId
+                long required = maxId + ALLOCATION_SIZE + 1;
+                if (nextValue < required) {
+                    stmt.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + required);
+                    logger.info("Advanced sequence {} to {} (max id in {} is {})", sequence, required, table, maxId);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error aligning id sequences", e);
+        }
+    }
+
+    private static long queryLong(Statement stmt, String sql) throws Exception {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.k2so.watcher.util;
+
+import com.k2so.watcher.model.DeviceType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyword rules mapping hostnames and free-text descriptions to device types, each section compiled into one
+ * {@link KeywordClassifier}.
+ * <p>
+ * File format: {@code [hostname]} and {@code [description]} section headers, then one
+ * {@code <DEVICE_TYPE>: keyword, keyword, ...} line per rule. Earlier lines win when several match.
+ * Blank lines and lines starting with {@code #} are ignored.
+ */
+public final class DeviceTypeRules {
+
+    public static final String HOSTNAME_SECTION = "hostname";
+    public static final String DESCRIPTION_SECTION = "description";
+
+    private final KeywordClassifier<DeviceType> hostname;
+    private final KeywordClassifier<DeviceType> description;
+
+    private DeviceTypeRules(KeywordClassifier<DeviceType> hostname, KeywordClassifier<DeviceType> description) {
+        this.hostname = hostname;
+        this.description = description;
+    }
+
+    /**
+     * @throws IllegalArgumentException with the line number if a line is malformed or names an unknown type
+     */
+    public static DeviceTypeRules parse(Reader input) throws IOException {
+        Map<String, KeywordClassifier.Builder<DeviceType>> sections = new LinkedHashMap<>();
+        sections.put(HOSTNAME_SECTION, KeywordClassifier.builder());
+        sections.put(DESCRIPTION_SECTION, KeywordClassifier.builder());
+
+        BufferedReader reader = input instanceof BufferedReader br ? br : new BufferedReader(input);
+        KeywordClassifier.Builder<DeviceType> section = null;
+        int priority = 0;
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            if (line.startsWith("[") && line.endsWith("]")) {
+                String name = line.substring(1, line.length() - 1).trim();
+                section = sections.get(name);
+                if (section == null) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": unknown section [" + name + "]");
+                }
+                continue;
+            }
+            if (section == null) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": rule outside of a section");
+            }
+
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": expected <DEVICE_TYPE>: keywords");
+            }
+            DeviceType type;
+            try {
+                type = DeviceType.valueOf(line.substring(0, colon).trim());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": unknown device type "
+                        + line.substring(0, colon).trim());
+            }
+            List<String> keywords = new ArrayList<>();
+            for (String keyword : line.substring(colon + 1).split(",")) {
+                if (!keyword.isBlank()) {
+                    keywords.add(keyword.trim());
+                }
+            }
+            try {
+                section.rule(type, priority++, keywords);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+
+        return new DeviceTypeRules(sections.get(HOSTNAME_SECTION).build(), sections.get(DESCRIPTION_SECTION).build());
+    }
+
+    /**
+     * Device type suggested by a hostname, or null if no rule matches.
+     */
+    public DeviceType classifyHostname(CharSequence text) {
+        return hostname.classify(text);
+    }
+
+    /**
+     * Device type suggested by a free-text description, or null if no rule matches.
+     */
+    public DeviceType classifyDescription(CharSequence text) {
+        return description.classify(text);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d hostname rules (%d keywords), %d description rules (%d keywords)",
+                hostname.getRuleCount(), hostname.getKeywordCount(),
+                description.getRuleCount(), description.getKeywordCount());
+    }
+}
@@ -0,0 +1,101 @@
+package com.k2so.watcher.util;
+
+/**
+ * A host reported by a scanner: IPv4 address as an int, MAC as a {@link MacAddress} long value ({@link #NO_MAC}
+ * when the scanner saw none, e.g. for routed hosts), plus the vendor and hostname the scanner reported.
+ * A null hostname means no lookup was done yet; an empty one means the scanner looked and found none.
+ */
+public record DiscoveredHost(int ip, long mac, String vendor, String hostname) {
+
+    public static final long NO_MAC = MacAddress.INVALID;
+
+    /**
+     * Builds a host from string forms. The MAC may be null, empty or invalid, in which case the host has none.
+     *
+     * @throws IllegalArgumentException if the IP is not a valid IPv4 address
+     */
+    public static DiscoveredHost of(String ip, String mac, String vendor, String hostname) {
+        long parsedMac = mac != null ? MacAddress.parseLong(mac) : NO_MAC;
+        return new DiscoveredHost(Ipv4Range.parseAddress(ip), parsedMac, vendor, hostname);
+    }
+
+    public boolean hasMac() {
+        return mac != NO_MAC;
+    }
+
+    public String ipAddress() {
+        return Ipv4Range.format(ip);
+    }
+
+    public MacAddress macAddress() {
+        return hasMac() ? MacAddress.of(mac) : null;
+    }
+
+    public DiscoveredHost withHostname(String hostname) {
+        return new DiscoveredHost(ip, mac, vendor, hostname);
+    }
+
+    /**
+     * Parses one line of arp-scan output, {@code <ip>\t<mac>\t<vendor>}, without regular expressions.
+     *
+     * @return the host, or null for header, summary and other non-host lines
+     */
+    public static DiscoveredHost parseArpScanLine(String line) {
+        int length = line.length();
+        int pos = skipWhitespace(line, 0);
+
+        // IPv4 address
+        int address = 0;
+        int octet = 0;
+        int digits = 0;
+        int dots = 0;
+        for (; pos < length && !Character.isWhitespace(line.charAt(pos)); pos++) {
+            char c = line.charAt(pos);
+            if (c >= '0' && c <= '9') {
+                octet = octet * 10 + (c - '0');
+                if (++digits > 3 || octet > 255) {
+                    return null;
+                }
+            } else if (c == '.' && digits > 0 && dots < 3) {
+                address = (address << 8) | octet;
+                octet = 0;
+                digits = 0;
+                dots++;
+            } else {
+                return null;
+            }
+        }
+        if (dots != 3 || digits == 0 || pos == length) {
+            return null;
+        }
+        address = (address << 8) | octet;
+
+        // MAC address
+        int macStart = skipWhitespace(line, pos);
+        int macEnd = macStart;
+        while (macEnd < length && !Character.isWhitespace(line.charAt(macEnd))) {
+            macEnd++;
+        }
+        long mac = MacAddress.parseLong(line, macStart, macEnd);
+        if (mac == NO_MAC) {
+            return null;
+        }
+
+        // Vendor is the rest of the line
+        int vendorStart = skipWhitespace(line, macEnd);
+        int vendorEnd = length;
+        while (vendorEnd > vendorStart && Character.isWhitespace(line.charAt(vendorEnd - 1))) {
+            vendorEnd--;
+        }
+        String vendor = vendorEnd > vendorStart ? line.substring(vendorStart, vendorEnd) : null;
+
+        return new DiscoveredHost(address, mac, vendor, null);
+    }
+
+    private static int skipWhitespace(String line, int pos) {
+        while (pos < line.length() && Character.isWhitespace(line.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+}
@@ -0,0 +1,276 @@
+package com.k2so.watcher.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Inclusive range of IPv4 addresses held as two ints, so a range of any size costs the same memory.
+ * Addresses are compared as unsigned values; iteration is lazy and yields primitive ints.
+ */
+public final class Ipv4Range {
+
+    private static final Comparator<Ipv4Range> BY_FIRST = (a, b) -> Integer.compareUnsigned(a.first, b.first);
+
+    private final int first;
+    private final int last;
+
+    private Ipv4Range(int first, int last) {
+        if (Integer.compareUnsigned(first, last) > 0) {
+            throw new IllegalArgumentException("Range start " + format(first) + " is after end " + format(last));
+        }
+        this.first = first;
+        this.last = last;
+    }
+
+    public static Ipv4Range of(int first, int last) {
+        return new Ipv4Range(first, last);
+    }
+
+    public static Ipv4Range single(int address) {
+        return new Ipv4Range(address, address);
+    }
+
+    /**
+     * Parses {@code a.b.c.d/prefix}, or a bare address as a single-address range.
+     * Host bits of the address are ignored, so {@code 10.0.0.7/24} is {@code 10.0.0.0/24}.
+     */
+    public static Ipv4Range parse(String cidr) {
+        String value = cidr.trim();
+        int slash = value.indexOf('/');
+        if (slash < 0) {
+            return single(parseAddress(value));
+        }
+
+        int prefix;
+        try {
+            prefix = Integer.parseInt(value.substring(slash + 1).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid prefix length in " + cidr);
+        }
+        if (prefix < 0 || prefix > 32) {
+            throw new IllegalArgumentException("Prefix length must be between 0 and 32: " + cidr);
+        }
+
+        int mask = prefix == 0 ? 0 : -1 << (32 - prefix);
+        int network = parseAddress(value.substring(0, slash).trim()) & mask;
+        return new Ipv4Range(network, network | ~mask);
+    }
+
+    /**
+     * Parses a dotted-quad address without DNS lookups or intermediate allocations beyond the input.
+     */
+    public static int parseAddress(String ip) {
+        int address = 0;
+        int octet = 0;
+        int digits = 0;
+        int dots = 0;
+        for (int i = 0; i < ip.length(); i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = octet * 10 + (c - '0');
+                if (++digits > 3 || octet > 255) {
+                    throw new IllegalArgumentException("Invalid IPv4 address: " + ip);
+                }
+            } else if (c == '.' && digits > 0 && dots < 3) {
+                address = (address << 8) | octet;
+                octet = 0;
+                digits = 0;
+                dots++;
+            } else {
+                throw new IllegalArgumentException("Invalid IPv4 address: " + ip);
+            }
+        }
+        if (dots != 3 || digits == 0) {
+            throw new IllegalArgumentException("Invalid IPv4 address: " + ip);
+        }
+        return (address << 8) | octet;
+    }
+
+    /**
+     * The address as an unsigned number for ordered storage and range queries, or null if it is not IPv4.
+     */
+    public static Long toNumeric(String ip) {
+        if (ip == null) {
+            return null;
+        }
+        try {
+            return Integer.toUnsignedLong(parseAddress(ip.trim()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public static String format(int address) {
+        return ((address >>> 24) & 0xFF) + "." + ((address >>> 16) & 0xFF) + "."
+                + ((address >>> 8) & 0xFF) + "." + (address & 0xFF);
+    }
+
+    public static byte[] toBytes(int address) {
+        return new byte[]{(byte) (address >>> 24), (byte) (address >>> 16), (byte) (address >>> 8), (byte) address};
+    }
+
+    public int getFirst() {
+        return first;
+    }
+
+    public int getLast() {
+        return last;
+    }
+
+    public long getFirstNumeric() {
+        return Integer.toUnsignedLong(first);
+    }
+
+    public long getLastNumeric() {
+        return Integer.toUnsignedLong(last);
+    }
+
+    public long size() {
+        return Integer.toUnsignedLong(last) - Integer.toUnsignedLong(first) + 1;
+    }
+
+    /**
+     * The addresses a scan should probe: without the network and broadcast address for prefixes up to /30,
+     * all addresses of a /31 (point-to-point, RFC 3021) or /32. For ranges that are not a CIDR block this
+     * is the range itself.
+     */
+    public Ipv4Range hosts() {
+        long size = size();
+        if (size <= 2 || !isCidrBlock()) {
+            return this;
+        }
+        return new Ipv4Range(first + 1, last - 1);
+    }
+
+    public boolean contains(int address) {
+        return Integer.compareUnsigned(address, first) >= 0 && Integer.compareUnsigned(address, last) <= 0;
+    }
+
+    public boolean contains(String address) {
+        try {
+            return contains(parseAddress(address));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public boolean contains(Ipv4Range other) {
+        return contains(other.first) && contains(other.last);
+    }
+
+    public boolean overlaps(Ipv4Range other) {
+        return Integer.compareUnsigned(first, other.last) <= 0 && Integer.compareUnsigned(other.first, last) <= 0;
+    }
+
+    /**
+     * This range without the addresses of {@code other}: zero, one or two ranges.
+     */
+    public List<Ipv4Range> subtract(Ipv4Range other) {
+        List<Ipv4Range> result = new ArrayList<>(2);
+        if (!overlaps(other)) {
+            result.add(this);
+            return result;
+        }
+        if (Integer.compareUnsigned(other.first, first) > 0) {
+            result.add(new Ipv4Range(first, other.first - 1));
+        }
+        if (Integer.compareUnsigned(other.last, last) < 0) {
+            result.add(new Ipv4Range(other.last + 1, last));
+        }
+        return result;
+    }
+
+    /**
+     * Removes every exclusion from every range; the result is sorted by start address.
+     */
+    public static List<Ipv4Range> subtractAll(List<Ipv4Range> ranges, List<Ipv4Range> exclusions) {
+        List<Ipv4Range> result = new ArrayList<>(ranges);
+        for (Ipv4Range exclusion : exclusions) {
+            List<Ipv4Range> next = new ArrayList<>(result.size() + 1);
+            for (Ipv4Range range : result) {
+                next.addAll(range.subtract(exclusion));
+            }
+            result = next;
+        }
+        result.sort(BY_FIRST);
+        return result;
+    }
+
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private long next = Integer.toUnsignedLong(first);
+            private final long end = Integer.toUnsignedLong(last);
+
+            @Override
+            public boolean hasNext() {
+                return next <= end;
+            }
+
+            @Override
+            public int nextInt() {
+                if (next > end) {
+                    throw new NoSuchElementException();
+                }
+                return (int) next++;
+            }
+        };
+    }
+
+    /**
+     * Iterates the addresses of several ranges one after the other.
+     */
+    public static PrimitiveIterator.OfInt iterator(List<Ipv4Range> ranges) {
+        return new PrimitiveIterator.OfInt() {
+            private int index = 0;
+            private PrimitiveIterator.OfInt current = null;
+
+            @Override
+            public boolean hasNext() {
+                while (current == null || !current.hasNext()) {
+                    if (index >= ranges.size()) {
+                        return false;
+                    }
+                    current = ranges.get(index++).iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.nextInt();
+            }
+        };
+    }
+
+    private boolean isCidrBlock() {
+        long size = size();
+        return (size & (size - 1)) == 0 && (Integer.toUnsignedLong(first) & (size - 1)) == 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Ipv4Range other)) return false;
+        return first == other.first && last == other.last;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * first + last;
+    }
+
+    @Override
+    public String toString() {
+        if (isCidrBlock()) {
+            int prefix = 32 - Long.numberOfTrailingZeros(size());
+            return format(first) + "/" + prefix;
+        }
+        return format(first) + "-" + format(last);
+    }
+}
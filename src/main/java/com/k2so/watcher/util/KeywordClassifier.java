@@ -0,0 +1,215 @@
+package com.k2so.watcher.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Classifies text by keyword rules in a single pass. All keywords are compiled into one Aho-Corasick automaton,
+ * flattened into a transition table over the characters that occur in keywords, so each input character costs
+ * one array lookup. Matching is case-insensitive for ASCII and finds keywords anywhere in the text; when several
+ * rules match, the one with the lowest priority number wins, then the one added first.
+ *
+ * @param <T> the classification result
+ */
+public final class KeywordClassifier<T> {
+
+    private final List<T> values;
+    private final int[] rulePriority;
+    // ASCII character -> column in the transition table; 0 for characters no keyword contains
+    private final byte[] charClass;
+    private final int columns;
+    private final int[] transitions;
+    // Best rule matched on reaching each state (including via suffix links), or -1
+    private final int[] output;
+    private final int keywordCount;
+
+    private KeywordClassifier(List<T> values, int[] rulePriority, byte[] charClass, int columns,
+                              int[] transitions, int[] output, int keywordCount) {
+        this.values = values;
+        this.rulePriority = rulePriority;
+        this.charClass = charClass;
+        this.columns = columns;
+        this.transitions = transitions;
+        this.output = output;
+        this.keywordCount = keywordCount;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * The value of the best matching rule, or null if no keyword occurs in the text.
+     */
+    public T classify(CharSequence text) {
+        if (text == null) {
+            return null;
+        }
+        int state = 0;
+        int best = -1;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            int column = c < 128 ? charClass[c] : 0;
+            state = transitions[state * columns + column];
+            int rule = output[state];
+            if (rule >= 0 && (best < 0 || better(rule, best))) {
+                best = rule;
+            }
+        }
+        return best >= 0 ? values.get(best) : null;
+    }
+
+    public int getRuleCount() {
+        return values.size();
+    }
+
+    public int getKeywordCount() {
+        return keywordCount;
+    }
+
+    public int getStateCount() {
+        return output.length;
+    }
+
+    private boolean better(int rule, int current) {
+        return rulePriority[rule] < rulePriority[current]
+                || (rulePriority[rule] == rulePriority[current] && rule < current);
+    }
+
+    public static final class Builder<T> {
+
+        private final List<T> values = new ArrayList<>();
+        private final List<Integer> priorities = new ArrayList<>();
+        private final List<List<String>> keywords = new ArrayList<>();
+
+        /**
+         * Adds a rule matching any of the keywords. Keywords are ASCII and compared case-insensitively.
+         *
+         * @param priority lower wins when several rules match the same text
+         */
+        public Builder<T> rule(T value, int priority, List<String> ruleKeywords) {
+            List<String> normalized = new ArrayList<>(ruleKeywords.size());
+            for (String keyword : ruleKeywords) {
+                if (keyword.isEmpty()) {
+                    throw new IllegalArgumentException("Empty keyword in rule for " + value);
+                }
+                for (int i = 0; i < keyword.length(); i++) {
+                    if (keyword.charAt(i) >= 128) {
+                        throw new IllegalArgumentException("Keyword is not ASCII: " + keyword);
+                    }
+                }
+                normalized.add(keyword.toLowerCase());
+            }
+            values.add(value);
+            priorities.add(priority);
+            keywords.add(normalized);
+            return this;
+        }
+
+        public KeywordClassifier<T> build() {
+            // Columns: 0 for any other character, then one per distinct keyword character
+            byte[] charClass = new byte[128];
+            int columns = 1;
+            for (List<String> ruleKeywords : keywords) {
+                for (String keyword : ruleKeywords) {
+                    for (int i = 0; i < keyword.length(); i++) {
+                        char c = keyword.charAt(i);
+                        if (charClass[c] == 0) {
+                            if (columns > Byte.MAX_VALUE) {
+                                throw new IllegalArgumentException("Too many distinct keyword characters");
+                            }
+                            charClass[c] = (byte) columns++;
+                            // Fold ASCII upper case onto the same column
+                            if (c >= 'a' && c <= 'z') {
+                                charClass[c - 'a' + 'A'] = charClass[c];
+                            }
+                        }
+                    }
+                }
+            }
+
+            int[] rulePriority = priorities.stream().mapToInt(Integer::intValue).toArray();
+
+            // Trie, with -1 for missing edges
+            List<int[]> trie = new ArrayList<>();
+            List<Integer> trieOutput = new ArrayList<>();
+            trie.add(newRow(columns));
+            trieOutput.add(-1);
+            int keywordCount = 0;
+            for (int rule = 0; rule < keywords.size(); rule++) {
+                for (String keyword : keywords.get(rule)) {
+                    keywordCount++;
+                    int state = 0;
+                    for (int i = 0; i < keyword.length(); i++) {
+                        int column = charClass[keyword.charAt(i)];
+                        if (trie.get(state)[column] < 0) {
+                            trie.get(state)[column] = trie.size();
+                            trie.add(newRow(columns));
+                            trieOutput.add(-1);
+                        }
+                        state = trie.get(state)[column];
+                    }
+                    int existing = trieOutput.get(state);
+                    if (existing < 0 || better(rulePriority, rule, existing)) {
+                        trieOutput.set(state, rule);
+                    }
+                }
+            }
+
+            // Breadth-first: resolve failure links into direct transitions and merge outputs along them
+            int states = trie.size();
+            int[] transitions = new int[states * columns];
+            int[] output = new int[states];
+            int[] fail = new int[states];
+            for (int s = 0; s < states; s++) {
+                output[s] = trieOutput.get(s);
+            }
+
+            Queue<Integer> queue = new ArrayDeque<>();
+            for (int column = 0; column < columns; column++) {
+                int next = trie.get(0)[column];
+                if (next > 0) {
+                    fail[next] = 0;
+                    transitions[column] = next;
+                    queue.add(next);
+                } else {
+                    transitions[column] = 0;
+                }
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                int inherited = output[fail[state]];
+                if (inherited >= 0 && (output[state] < 0 || better(rulePriority, inherited, output[state]))) {
+                    output[state] = inherited;
+                }
+                for (int column = 0; column < columns; column++) {
+                    int next = trie.get(state)[column];
+                    if (next > 0) {
+                        fail[next] = transitions[fail[state] * columns + column];
+                        transitions[state * columns + column] = next;
+                        queue.add(next);
+                    } else {
+                        transitions[state * columns + column] = transitions[fail[state] * columns + column];
+                    }
+                }
+            }
+
+            return new KeywordClassifier<>(new ArrayList<>(values), rulePriority, charClass, columns,
+                    transitions, output, keywordCount);
+        }
+
+        private static int[] newRow(int columns) {
+            int[] row = new int[columns];
+            Arrays.fill(row, -1);
+            return row;
+        }
+
+        private static boolean better(int[] rulePriority, int rule, int current) {
+            return rulePriority[rule] < rulePriority[current]
+                    || (rulePriority[rule] == rulePriority[current] && rule < current);
+        }
+    }
+}
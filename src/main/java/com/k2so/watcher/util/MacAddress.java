@@ -0,0 +1,201 @@
+package com.k2so.watcher.util;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * A 48-bit MAC address held in the low bits of a long. Parsing accepts colon ({@code aa:bb:cc:dd:ee:ff}),
+ * dash ({@code aa-bb-cc-dd-ee-ff}), Cisco dotted ({@code aabb.ccdd.eeff}) and bare ({@code aabbccddeeff}) forms
+ * in either case without allocating; the string form is always upper case with colons.
+ */
+public final class MacAddress {
+
+    /**
+     * Returned by {@link #parseLong} for text that is not a MAC address.
+     */
+    public static final long INVALID = -1L;
+
+    // Placeholders for hosts seen without a MAC (routed, cross-VLAN) are FE:00 followed by the IPv4 address
+    private static final long PLACEHOLDER_PREFIX = 0xFE00L;
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final long value;
+
+    private MacAddress(long value) {
+        this.value = value;
+    }
+
+    public static MacAddress of(long value) {
+        if ((value & ~0xFFFFFFFFFFFFL) != 0) {
+            throw new IllegalArgumentException("Not a 48-bit MAC address: " + Long.toHexString(value));
+        }
+        return new MacAddress(value);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the text is not a MAC address
+     */
+    public static MacAddress parse(CharSequence text) {
+        long value = parseLong(text);
+        if (value == INVALID) {
+            throw new IllegalArgumentException("Invalid MAC address: " + text);
+        }
+        return new MacAddress(value);
+    }
+
+    /**
+     * Like {@link #parse}, but returns null for null or invalid text.
+     */
+    public static MacAddress tryParse(CharSequence text) {
+        long value = text != null ? parseLong(text) : INVALID;
+        return value != INVALID ? new MacAddress(value) : null;
+    }
+
+    /**
+     * The placeholder MAC used for a host whose real MAC is not visible, derived from its IPv4 address.
+     * It is locally administered and unicast, so it cannot collide with a vendor-assigned address.
+     */
+    public static MacAddress placeholderFor(int ipv4) {
+        return new MacAddress((PLACEHOLDER_PREFIX << 32) | Integer.toUnsignedLong(ipv4));
+    }
+
+    public static long parseLong(CharSequence text) {
+        return parseLong(text, 0, text.length());
+    }
+
+    /**
+     * Parses {@code text[start, end)} without allocating.
+     *
+     * @return the address in the low 48 bits, or {@link #INVALID}
+     */
+    public static long parseLong(CharSequence text, int start, int end) {
+        int length = end - start;
+        if (length == 17) {
+            // aa:bb:cc:dd:ee:ff or aa-bb-cc-dd-ee-ff, one separator throughout
+            char separator = text.charAt(start + 2);
+            if (separator != ':' && separator != '-') {
+                return INVALID;
+            }
+            long value = 0;
+            for (int group = 0; group < 6; group++) {
+                int i = start + group * 3;
+                if (group > 0 && text.charAt(i - 1) != separator) {
+                    return INVALID;
+                }
+                int b = hexByte(text, i);
+                if (b < 0) {
+                    return INVALID;
+                }
+                value = (value << 8) | b;
+            }
+            return value;
+        }
+        if (length == 14) {
+            // aabb.ccdd.eeff
+            if (text.charAt(start + 4) != '.' || text.charAt(start + 9) != '.') {
+                return INVALID;
+            }
+            long value = 0;
+            for (int group = 0; group < 3; group++) {
+                int i = start + group * 5;
+                int high = hexByte(text, i);
+                int low = hexByte(text, i + 2);
+                if (high < 0 || low < 0) {
+                    return INVALID;
+                }
+                value = (value << 16) | ((long) high << 8) | low;
+            }
+            return value;
+        }
+        if (length == 12) {
+            long value = 0;
+            for (int i = start; i < end; i += 2) {
+                int b = hexByte(text, i);
+                if (b < 0) {
+                    return INVALID;
+                }
+                value = (value << 8) | b;
+            }
+            return value;
+        }
+        return INVALID;
+    }
+
+    public static String format(long value) {
+        char[] chars = new char[17];
+        for (int group = 0; group < 6; group++) {
+            int b = (int) (value >>> (40 - group * 8)) & 0xFF;
+            int i = group * 3;
+            chars[i] = HEX[b >>> 4];
+            chars[i + 1] = HEX[b & 0xF];
+            if (group < 5) {
+                chars[i + 2] = ':';
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Formats a 24-bit OUI as {@code AA:BB:CC}.
+     */
+    public static String formatOui(int oui) {
+        return format((long) oui << 24).substring(0, 8);
+    }
+
+    public long toLong() {
+        return value;
+    }
+
+    /**
+     * The organizationally unique identifier: the first three octets.
+     */
+    public int getOui() {
+        return (int) (value >>> 24);
+    }
+
+    public String getOuiString() {
+        return formatOui(getOui());
+    }
+
+    /**
+     * The U/L bit: set for addresses assigned locally (randomized Wi-Fi MACs, virtual interfaces) instead of by a vendor.
+     */
+    public boolean isLocallyAdministered() {
+        return (value & 0x020000000000L) != 0;
+    }
+
+    /**
+     * The I/G bit: set for multicast and broadcast addresses.
+     */
+    public boolean isMulticast() {
+        return (value & 0x010000000000L) != 0;
+    }
+
+    public boolean isPlaceholder() {
+        return (value >>> 32) == PLACEHOLDER_PREFIX;
+    }
+
+    private static int hexByte(CharSequence text, int i) {
+        int high = Character.digit(text.charAt(i), 16);
+        int low = Character.digit(text.charAt(i + 1), 16);
+        return high < 0 || low < 0 ? -1 : (high << 4) | low;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MacAddress other)) return false;
+        return value == other.value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(value);
+    }
+
+    @JsonValue
+    @Override
+    public String toString() {
+        return format(value);
+    }
+}
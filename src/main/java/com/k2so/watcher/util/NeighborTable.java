@@ -0,0 +1,151 @@
+package com.k2so.watcher.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads the kernel IPv4 neighbor (ARP) table into an IP to MAC map in a single pass.
+ * {@code /proc/net/arp} is read directly; where it is not available the output of {@code ip neigh} is parsed.
+ * Incomplete and failed entries are skipped, as are unparseable and all-zero MACs.
+ * {@link #readFresh()} keeps only entries the kernel recently confirmed, as evidence that the host is present.
+ */
+public class NeighborTable {
+
+    private static final Logger logger = LoggerFactory.getLogger(NeighborTable.class);
+
+    public static final Path PROC_NET_ARP = Paths.get("/proc/net/arp");
+
+    // ATF_COM in the flags column: the entry has a resolved hardware address
+    private static final int ATF_COM = 0x2;
+
+    // ip neigh states of entries whose MAC answered ARP recently; DELAY and PROBE are still being verified
+    private static final Set<String> FRESH_STATES = Set.of("REACHABLE", "STALE");
+
+    private static final Set<String> UNRESOLVED_STATES = Set.of("FAILED", "INCOMPLETE");
+
+    private NeighborTable() {
+    }
+
+    public static Map<String, MacAddress> read() {
+        return read(PROC_NET_ARP);
+    }
+
+    /**
+     * Reads a file in {@code /proc/net/arp} format, falling back to {@code ip neigh} if it cannot be read.
+     */
+    public static Map<String, MacAddress> read(Path arpFile) {
+        if (Files.isReadable(arpFile)) {
+            try (BufferedReader reader = Files.newBufferedReader(arpFile, StandardCharsets.US_ASCII)) {
+                return parseProcNetArp(reader);
+            } catch (IOException e) {
+                logger.warn("Could not read neighbor table {}: {}", arpFile, e.getMessage());
+            }
+        }
+        String output = NetworkUtils.executeCommand("ip", "-4", "neigh", "show");
+        try {
+            return parseIpNeigh(new StringReader(output));
+        } catch (IOException e) {
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * Reads the REACHABLE and STALE entries of {@code ip neigh}. {@code /proc/net/arp} does not show entry
+     * states, so there is no fallback; an empty map is returned if {@code ip} is not available.
+     */
+    public static Map<String, MacAddress> readFresh() {
+        String output = NetworkUtils.executeCommand("ip", "-4", "neigh", "show");
+        try {
+            return parseIpNeigh(new StringReader(output), FRESH_STATES);
+        } catch (IOException e) {
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * Parses {@code /proc/net/arp}:
+     * <pre>
+     * IP address       HW type     Flags       HW address            Mask     Device
+     * 192.168.1.1      0x1         0x2         aa:bb:cc:dd:ee:ff     *        eth0
+     * </pre>
+     */
+    public static Map<String, MacAddress> parseProcNetArp(Reader input) throws IOException {
+        Map<String, MacAddress> table = new HashMap<>();
+        BufferedReader reader = input instanceof BufferedReader br ? br : new BufferedReader(input);
+
+        String line = reader.readLine(); // header
+        while ((line = reader.readLine()) != null) {
+            String[] fields = line.trim().split("\\s+");
+            if (fields.length < 4) {
+                continue;
+            }
+            if ((parseFlags(fields[2]) & ATF_COM) == 0) {
+                continue;
+            }
+            put(table, fields[0], fields[3]);
+        }
+        return table;
+    }
+
+    /**
+     * Parses {@code ip neigh} output, e.g. {@code 192.168.1.1 dev eth0 lladdr aa:bb:cc:dd:ee:ff REACHABLE}.
+     */
+    public static Map<String, MacAddress> parseIpNeigh(Reader input) throws IOException {
+        return parseIpNeigh(input, null);
+    }
+
+    /**
+     * Parses {@code ip neigh} output, keeping only entries in one of the given states, or every resolved entry
+     * if {@code states} is null.
+     */
+    public static Map<String, MacAddress> parseIpNeigh(Reader input, Set<String> states) throws IOException {
+        Map<String, MacAddress> table = new HashMap<>();
+        BufferedReader reader = input instanceof BufferedReader br ? br : new BufferedReader(input);
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String[] fields = line.trim().split("\\s+");
+            if (fields.length < 2 || fields[0].indexOf(':') >= 0) {
+                continue; // blank line or IPv6 neighbor
+            }
+            String state = fields[fields.length - 1];
+            if (states != null ? !states.contains(state) : UNRESOLVED_STATES.contains(state)) {
+                continue;
+            }
+            for (int i = 1; i < fields.length - 1; i++) {
+                if ("lladdr".equals(fields[i])) {
+                    put(table, fields[0], fields[i + 1]);
+                    break;
+                }
+            }
+        }
+        return table;
+    }
+
+    private static void put(Map<String, MacAddress> table, String ip, String mac) {
+        long value = MacAddress.parseLong(mac);
+        if (value != MacAddress.INVALID && value != 0) {
+            table.put(ip, MacAddress.of(value));
+        }
+    }
+
+    private static int parseFlags(String flags) {
+        try {
+            return Integer.decode(flags);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.k2so.watcher.util;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streaming parser for nmap XML output ({@code -oX}).
+ * Hosts are handed to the callback as soon as their {@code </host>} element is read, so memory use
+ * depends on the largest single host rather than on the number of targets, and discovery results can be
+ * processed while nmap is still running.
+ */
+public final class NmapXmlParser {
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private NmapXmlParser() {
+    }
+
+    public record Host(String ipAddress, String macAddress, String vendor, String hostname, String state,
+                       List<Port> ports, List<OsMatch> osMatches) {
+
+        public boolean isUp() {
+            return "up".equals(state);
+        }
+
+        public List<Port> openPorts() {
+            List<Port> open = new ArrayList<>();
+            for (Port port : ports) {
+                if (port.isOpen()) {
+                    open.add(port);
+                }
+            }
+            return open;
+        }
+
+        /**
+         * The most accurate OS match, or null when OS detection gave no result. nmap lists matches by accuracy.
+         */
+        public OsMatch bestOsMatch() {
+            return osMatches.isEmpty() ? null : osMatches.get(0);
+        }
+    }
+
+    public record Port(String protocol, int portId, String state, String serviceName,
+                       String product, String version, String extraInfo) {
+
+        public boolean isOpen() {
+            return "open".equals(state);
+        }
+
+        /**
+         * Formats the port as stored on devices, e.g. {@code 22/tcp (ssh - OpenSSH 8.9p1 (Ubuntu Linux))}.
+         */
+        public String describe() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(portId).append("/").append(protocol)
+              .append(" (").append(serviceName != null ? serviceName : "unknown");
+
+            StringBuilder details = new StringBuilder();
+            if (product != null) {
+                details.append(product);
+            }
+            if (version != null) {
+                if (details.length() > 0) details.append(" ");
+                details.append(version);
+            }
+            if (extraInfo != null) {
+                if (details.length() > 0) details.append(" ");
+                details.append("(").append(extraInfo).append(")");
+            }
+            if (details.length() > 0) {
+                sb.append(" - ").append(details);
+            }
+            return sb.append(")").toString();
+        }
+    }
+
+    public record OsMatch(String name, int accuracy) {
+    }
+
+    /**
+     * Reads nmap XML from the stream and calls {@code onHost} for every host element.
+     *
+     * @return the number of hosts read
+     */
+    public static int parse(InputStream in, Consumer<Host> onHost) throws XMLStreamException {
+        XMLStreamReader reader = FACTORY.createXMLStreamReader(in);
+        int hosts = 0;
+
+        HostBuilder host = null;
+        PortBuilder port = null;
+
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if ("host".equals(name)) {
+                        host = new HostBuilder();
+                    } else if (host == null) {
+                        continue;
+                    }
+
+                    switch (name) {
+                        case "status" -> host.state = attr(reader, "state");
+                        case "address" -> {
+                            String type = attr(reader, "addrtype");
+                            if ("ipv4".equals(type) || ("ipv6".equals(type) && host.ipAddress == null)) {
+                                host.ipAddress = attr(reader, "addr");
+                            } else if ("mac".equals(type)) {
+                                host.macAddress = NetworkUtils.normalizeMacAddress(attr(reader, "addr"));
+                                host.vendor = attr(reader, "vendor");
+                            }
+                        }
+                        case "hostname" -> {
+                            // Prefer the user-supplied name, otherwise keep the first (PTR) name
+                            if (host.hostname == null || "user".equals(attr(reader, "type"))) {
+                                host.hostname = attr(reader, "name");
+                            }
+                        }
+                        case "port" -> {
+                            port = new PortBuilder();
+                            port.protocol = attr(reader, "protocol");
+                            port.portId = parseInt(attr(reader, "portid"));
+                        }
+                        case "state" -> {
+                            if (port != null) {
+                                port.state = attr(reader, "state");
+                            }
+                        }
+                        case "service" -> {
+                            if (port != null) {
+                                port.serviceName = attr(reader, "name");
+                                port.product = attr(reader, "product");
+                                port.version = attr(reader, "version");
+                                port.extraInfo = attr(reader, "extrainfo");
+                            }
+                        }
+                        case "osmatch" -> host.osMatches.add(
+                                new OsMatch(attr(reader, "name"), parseInt(attr(reader, "accuracy"))));
+                        default -> {
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && host != null) {
+                    String name = reader.getLocalName();
+                    if ("port".equals(name) && port != null) {
+                        host.ports.add(port.build());
+                        port = null;
+                    } else if ("host".equals(name)) {
+                        onHost.accept(host.build());
+                        hosts++;
+                        host = null;
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return hosts;
+    }
+
+    private static String attr(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static int parseInt(String value) {
+        try {
+            return value != null ? Integer.parseInt(value) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // nmap output declares a DOCTYPE and stylesheet; never resolve anything external
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    private static final class HostBuilder {
+        private String ipAddress;
+        private String macAddress;
+        private String vendor;
+        private String hostname;
+        private String state;
+        private final List<Port> ports = new ArrayList<>();
+        private final List<OsMatch> osMatches = new ArrayList<>();
+
+        private Host build() {
+            return new Host(ipAddress, macAddress, vendor, hostname, state,
+                    Collections.unmodifiableList(ports), Collections.unmodifiableList(osMatches));
+        }
+    }
+
+    private static final class PortBuilder {
+        private String protocol;
+        private int portId;
+        private String state;
+        private String serviceName;
+        private String product;
+        private String version;
+        private String extraInfo;
+
+        private Port build() {
+            return new Port(protocol, portId, state, serviceName, product, version, extraInfo);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.k2so.watcher.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Read-only view of a precompiled OUI index file mapped into memory. The key tables and vendor names stay off-heap
+ * in the page cache; only names that were actually looked up are decoded and kept, once per vendor, in a
+ * reference array indexed by vendor id.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * int magic, int version, long source modified time, long source size,
+ * int MA-L count, int MA-M count, int MA-S count, int vendor count,
+ * MA-L entries  { int 24-bit prefix, int vendor id }, sorted by prefix
+ * MA-M entries  { int 28-bit prefix, int vendor id }, sorted by prefix
+ * MA-S entries  { long 36-bit prefix, int vendor id }, sorted by prefix
+ * vendor table  { int string pool offset } per vendor id
+ * string pool   { unsigned short length, UTF-8 bytes }...
+ * </pre>
+ * Written by {@link OuiRegistry#writeIndex}.
+ */
+public final class OuiIndex implements OuiLookup {
+
+    public static final int MAGIC = 0x4F554958; // "OUIX"
+    public static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4 * 4;
+    private static final int INT_ENTRY_BYTES = 8;
+    private static final int LONG_ENTRY_BYTES = 12;
+
+    private final ByteBuffer buffer;
+    private final long sourceModified;
+    private final long sourceSize;
+    private final int largeCount;
+    private final int mediumCount;
+    private final int smallCount;
+    private final int vendorCount;
+    private final int largeStart;
+    private final int mediumStart;
+    private final int smallStart;
+    private final int vendorTableStart;
+    private final int poolStart;
+
+    // Decoded vendor names by vendor id, so each vendor is materialized at most once
+    private final AtomicReferenceArray<String> names;
+
+    private OuiIndex(ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not an OUI index file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported OUI index version " + buffer.getInt(4));
+        }
+        this.buffer = buffer;
+        this.sourceModified = buffer.getLong(8);
+        this.sourceSize = buffer.getLong(16);
+        this.largeCount = buffer.getInt(24);
+        this.mediumCount = buffer.getInt(28);
+        this.smallCount = buffer.getInt(32);
+        this.vendorCount = buffer.getInt(36);
+        this.largeStart = HEADER_BYTES;
+        this.mediumStart = largeStart + largeCount * INT_ENTRY_BYTES;
+        this.smallStart = mediumStart + mediumCount * INT_ENTRY_BYTES;
+        this.vendorTableStart = smallStart + smallCount * LONG_ENTRY_BYTES;
+        this.poolStart = vendorTableStart + vendorCount * 4;
+        if (poolStart > buffer.capacity()) {
+            throw new IllegalArgumentException("Truncated OUI index file");
+        }
+        this.names = new AtomicReferenceArray<>(vendorCount);
+    }
+
+    /**
+     * Maps an index file. The mapping stays valid after the file is replaced or deleted.
+     */
+    public static OuiIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new OuiIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Compiles a registry source file (any format {@link OuiRegistry} reads) into an index file. The index is
+     * written to a temporary file and moved into place, so readers never see a partial file.
+     */
+    public static void compile(Path source, Path index) throws IOException {
+        OuiRegistry registry = OuiRegistry.load(source);
+        Path parent = index.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = Files.createTempFile(parent, index.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+                registry.writeIndex(out, Files.getLastModifiedTime(source).toMillis(), Files.size(source));
+            }
+            Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Whether the index was compiled from the given source as it is now.
+     */
+    public boolean isCompiledFrom(Path source) throws IOException {
+        return Files.getLastModifiedTime(source).toMillis() == sourceModified && Files.size(source) == sourceSize;
+    }
+
+    @Override
+    public String lookup(long mac) {
+        int vendor = searchLong(mac >>> 12);
+        if (vendor < 0) {
+            vendor = searchInt(mediumStart, mediumCount, (int) (mac >>> 20));
+        }
+        if (vendor < 0) {
+            vendor = searchInt(largeStart, largeCount, (int) (mac >>> 24));
+        }
+        return vendor >= 0 ? name(vendor) : null;
+    }
+
+    @Override
+    public int size() {
+        return largeCount + mediumCount + smallCount;
+    }
+
+    @Override
+    public int getVendorCount() {
+        return vendorCount;
+    }
+
+    public int getMappedBytes() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Heap held by the name cache and the names decoded so far; the mapped file itself is off-heap.
+     */
+    @Override
+    public long estimateHeapBytes() {
+        long bytes = 64 + 16 + 4L * names.length();
+        for (int i = 0; i < names.length(); i++) {
+            String name = names.get(i);
+            if (name != null) {
+                bytes += 24 + 16 + name.length();
+            }
+        }
+        return bytes;
+    }
+
+    // Signed comparison is fine: 24- and 28-bit prefixes never set the sign bit
+    private int searchInt(int start, int count, int key) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int position = start + mid * INT_ENTRY_BYTES;
+            int candidate = buffer.getInt(position);
+            if (candidate < key) {
+                low = mid + 1;
+            } else if (candidate > key) {
+                high = mid - 1;
+            } else {
+                return buffer.getInt(position + 4);
+            }
+        }
+        return -1;
+    }
+
+    private int searchLong(long key) {
+        int low = 0;
+        int high = smallCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int position = smallStart + mid * LONG_ENTRY_BYTES;
+            long candidate = buffer.getLong(position);
+            if (candidate < key) {
+                low = mid + 1;
+            } else if (candidate > key) {
+                high = mid - 1;
+            } else {
+                return buffer.getInt(position + 8);
+            }
+        }
+        return -1;
+    }
+
+    private String name(int vendor) {
+        String name = names.get(vendor);
+        if (name == null) {
+            int position = poolStart + buffer.getInt(vendorTableStart + vendor * 4);
+            byte[] bytes = new byte[buffer.getShort(position) & 0xFFFF];
+            buffer.get(position + 2, bytes);
+            // Racing threads decode the same bytes; whichever name is stored first is the one everybody keeps
+            names.compareAndSet(vendor, null, new String(bytes, StandardCharsets.UTF_8));
+            name = names.get(vendor);
+        }
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d assignments, %d vendors, %d KB mapped", size(), vendorCount, getMappedBytes() / 1024);
+    }
+}
@@ -0,0 +1,29 @@
+package com.k2so.watcher.util;
+
+/**
+ * Vendor lookup by MAC address over an IEEE registry, whether held on the heap or in a mapped index file.
+ */
+public interface OuiLookup {
+
+    /**
+     * The vendor registered for the most specific block (MA-S, then MA-M, then MA-L) containing {@code mac},
+     * or null if none is.
+     */
+    String lookup(long mac);
+
+    default String lookup(MacAddress mac) {
+        return mac != null ? lookup(mac.toLong()) : null;
+    }
+
+    /**
+     * Number of registered blocks.
+     */
+    int size();
+
+    int getVendorCount();
+
+    /**
+     * Approximate heap retained by the lookup structure.
+     */
+    long estimateHeapBytes();
+}
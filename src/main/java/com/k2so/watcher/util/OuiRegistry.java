@@ -0,0 +1,313 @@
+package com.k2so.watcher.util;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable IEEE vendor registry covering MA-L (24-bit), MA-M (28-bit) and MA-S (36-bit) assignments.
+ * Each block size is a sorted primitive key array searched by bisection, longest prefix first; vendor names are
+ * stored once and referenced by index. Lookups allocate nothing.
+ * <p>
+ * Reads the IEEE CSV exports ({@code oui.csv}, {@code mam.csv}, {@code oui36.csv}, also concatenated) and the
+ * {@code <hex prefix> <vendor>} text format of arp-scan's {@code ieee-oui.txt} and nmap's {@code nmap-mac-prefixes},
+ * where the prefix length (6, 7 or 9 hex digits) selects the block size.
+ */
+public final class OuiRegistry implements OuiLookup {
+
+    private final int[] largeKeys;
+    private final int[] largeVendors;
+    private final int[] mediumKeys;
+    private final int[] mediumVendors;
+    private final long[] smallKeys;
+    private final int[] smallVendors;
+    private final String[] vendors;
+
+    private OuiRegistry(int[] largeKeys, int[] largeVendors, int[] mediumKeys, int[] mediumVendors,
+                        long[] smallKeys, int[] smallVendors, String[] vendors) {
+        this.largeKeys = largeKeys;
+        this.largeVendors = largeVendors;
+        this.mediumKeys = mediumKeys;
+        this.mediumVendors = mediumVendors;
+        this.smallKeys = smallKeys;
+        this.smallVendors = smallVendors;
+        this.vendors = vendors;
+    }
+
+    public static OuiRegistry empty() {
+        return new Builder().build();
+    }
+
+    public static OuiRegistry load(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    public static OuiRegistry parse(Reader input) throws IOException {
+        Builder builder = new Builder();
+        BufferedReader reader = input instanceof BufferedReader br ? br : new BufferedReader(input);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            }
+            if (line.startsWith("MA-L,") || line.startsWith("MA-M,") || line.startsWith("MA-S,")) {
+                parseCsvLine(line, builder);
+            } else {
+                parseTextLine(line, builder);
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public String lookup(long mac) {
+        int index = Arrays.binarySearch(smallKeys, mac >>> 12);
+        if (index >= 0) {
+            return vendors[smallVendors[index]];
+        }
+        index = Arrays.binarySearch(mediumKeys, (int) (mac >>> 20));
+        if (index >= 0) {
+            return vendors[mediumVendors[index]];
+        }
+        index = Arrays.binarySearch(largeKeys, (int) (mac >>> 24));
+        return index >= 0 ? vendors[largeVendors[index]] : null;
+    }
+
+    @Override
+    public int size() {
+        return largeKeys.length + mediumKeys.length + smallKeys.length;
+    }
+
+    @Override
+    public int getVendorCount() {
+        return vendors.length;
+    }
+
+    /**
+     * Approximate retained heap: key and index arrays plus the vendor strings (Latin-1 compact strings).
+     */
+    @Override
+    public long estimateHeapBytes() {
+        long bytes = 16L * 7 + 4L * (largeKeys.length + largeVendors.length + mediumKeys.length + mediumVendors.length)
+                + 8L * smallKeys.length + 4L * smallVendors.length + 4L * vendors.length;
+        for (String vendor : vendors) {
+            bytes += 24 + 16 + vendor.length();
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes the registry in the binary format read by {@link OuiIndex}.
+     */
+    public void writeIndex(DataOutputStream out, long sourceModified, long sourceSize) throws IOException {
+        // String pool: each vendor once, as a length-prefixed UTF-8 string, located through the offset table
+        int[] offsets = new int[vendors.length];
+        ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        DataOutputStream poolOut = new DataOutputStream(pool);
+        for (int i = 0; i < vendors.length; i++) {
+            byte[] name = vendors[i].getBytes(StandardCharsets.UTF_8);
+            int length = Math.min(name.length, 0xFFFF);
+            offsets[i] = poolOut.size();
+            poolOut.writeShort(length);
+            poolOut.write(name, 0, length);
+        }
+
+        out.writeInt(OuiIndex.MAGIC);
+        out.writeInt(OuiIndex.VERSION);
+        out.writeLong(sourceModified);
+        out.writeLong(sourceSize);
+        out.writeInt(largeKeys.length);
+        out.writeInt(mediumKeys.length);
+        out.writeInt(smallKeys.length);
+        out.writeInt(vendors.length);
+        for (int i = 0; i < largeKeys.length; i++) {
+            out.writeInt(largeKeys[i]);
+            out.writeInt(largeVendors[i]);
+        }
+        for (int i = 0; i < mediumKeys.length; i++) {
+            out.writeInt(mediumKeys[i]);
+            out.writeInt(mediumVendors[i]);
+        }
+        for (int i = 0; i < smallKeys.length; i++) {
+            out.writeLong(smallKeys[i]);
+            out.writeInt(smallVendors[i]);
+        }
+        for (int offset : offsets) {
+            out.writeInt(offset);
+        }
+        pool.writeTo(out);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d assignments (%d MA-L, %d MA-M, %d MA-S), %d vendors, ~%d KB",
+                size(), largeKeys.length, mediumKeys.length, smallKeys.length, vendors.length,
+                estimateHeapBytes() / 1024);
+    }
+
+    // Registry,Assignment,Organization Name,Organization Address
+    private static void parseCsvLine(String line, Builder builder) {
+        int assignmentStart = line.indexOf(',') + 1;
+        int assignmentEnd = line.indexOf(',', assignmentStart);
+        if (assignmentEnd < 0) {
+            return;
+        }
+        String name = readCsvField(line, assignmentEnd + 1);
+        builder.add(line, assignmentStart, assignmentEnd, name);
+    }
+
+    // <hex prefix><whitespace><vendor>
+    private static void parseTextLine(String line, Builder builder) {
+        int end = 0;
+        while (end < line.length() && !Character.isWhitespace(line.charAt(end))) {
+            end++;
+        }
+        if (end == line.length()) {
+            return;
+        }
+        builder.add(line, 0, end, line.substring(end).trim());
+    }
+
+    private static String readCsvField(String line, int start) {
+        if (start >= line.length()) {
+            return "";
+        }
+        if (line.charAt(start) != '"') {
+            int end = line.indexOf(',', start);
+            return (end < 0 ? line.substring(start) : line.substring(start, end)).trim();
+        }
+        StringBuilder field = new StringBuilder();
+        for (int i = start + 1; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    break;
+                }
+            } else {
+                field.append(c);
+            }
+        }
+        return field.toString().trim();
+    }
+
+    /**
+     * Collects assignments. A block listed more than once (registries overlap between releases) is kept once.
+     */
+    public static final class Builder {
+
+        // Packed as (key << 24) | vendor index, so sorting orders by key and keeps the vendor alongside
+        private long[] large = new long[1024];
+        private long[] medium = new long[256];
+        private long[] small = new long[256];
+        private int largeCount;
+        private int mediumCount;
+        private int smallCount;
+        private final Map<String, Integer> vendorIndex = new HashMap<>();
+        private final List<String> vendorNames = new ArrayList<>();
+
+        /**
+         * Adds the block whose prefix is the hex digits in {@code text[start, end)}: 6 digits for MA-L,
+         * 7 for MA-M, 9 for MA-S. Other lengths and non-hex prefixes are ignored.
+         */
+        public Builder add(CharSequence text, int start, int end, String vendor) {
+            if (vendor == null || vendor.isEmpty()) {
+                return this;
+            }
+            int digits = end - start;
+            if (digits != 6 && digits != 7 && digits != 9) {
+                return this;
+            }
+            long key = 0;
+            for (int i = start; i < end; i++) {
+                int digit = Character.digit(text.charAt(i), 16);
+                if (digit < 0) {
+                    return this;
+                }
+                key = (key << 4) | digit;
+            }
+
+            long packed = (key << 24) | vendorIndex(vendor);
+            switch (digits) {
+                case 6 -> {
+                    if (largeCount == large.length) large = Arrays.copyOf(large, largeCount * 2);
+                    large[largeCount++] = packed;
+                }
+                case 7 -> {
+                    if (mediumCount == medium.length) medium = Arrays.copyOf(medium, mediumCount * 2);
+                    medium[mediumCount++] = packed;
+                }
+                default -> {
+                    if (smallCount == small.length) small = Arrays.copyOf(small, smallCount * 2);
+                    small[smallCount++] = packed;
+                }
+            }
+            return this;
+        }
+
+        public OuiRegistry build() {
+            long[] largePacked = unique(large, largeCount);
+            long[] mediumPacked = unique(medium, mediumCount);
+            long[] smallPacked = unique(small, smallCount);
+
+            int[] largeKeys = new int[largePacked.length];
+            int[] largeVendors = new int[largePacked.length];
+            for (int i = 0; i < largePacked.length; i++) {
+                largeKeys[i] = (int) (largePacked[i] >>> 24);
+                largeVendors[i] = (int) (largePacked[i] & 0xFFFFFF);
+            }
+            int[] mediumKeys = new int[mediumPacked.length];
+            int[] mediumVendors = new int[mediumPacked.length];
+            for (int i = 0; i < mediumPacked.length; i++) {
+                mediumKeys[i] = (int) (mediumPacked[i] >>> 24);
+                mediumVendors[i] = (int) (mediumPacked[i] & 0xFFFFFF);
+            }
+            long[] smallKeys = new long[smallPacked.length];
+            int[] smallVendors = new int[smallPacked.length];
+            for (int i = 0; i < smallPacked.length; i++) {
+                smallKeys[i] = smallPacked[i] >>> 24;
+                smallVendors[i] = (int) (smallPacked[i] & 0xFFFFFF);
+            }
+
+            return new OuiRegistry(largeKeys, largeVendors, mediumKeys, mediumVendors, smallKeys, smallVendors,
+                    vendorNames.toArray(new String[0]));
+        }
+
+        private int vendorIndex(String vendor) {
+            Integer index = vendorIndex.get(vendor);
+            if (index == null) {
+                index = vendorNames.size();
+                vendorIndex.put(vendor, index);
+                vendorNames.add(vendor);
+            }
+            return index;
+        }
+
+        // Sorts by key and keeps one entry per key
+        private static long[] unique(long[] packed, int count) {
+            long[] sorted = Arrays.copyOf(packed, count);
+            Arrays.sort(sorted);
+            int size = 0;
+            for (int i = 0; i < count; i++) {
+                if (size == 0 || (sorted[i] >>> 24) != (sorted[size - 1] >>> 24)) {
+                    sorted[size++] = sorted[i];
+                }
+            }
+            return Arrays.copyOf(sorted, size);
+        }
+    }
+}
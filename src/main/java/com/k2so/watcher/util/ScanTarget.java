@@ -0,0 +1,135 @@
+package com.k2so.watcher.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One network range of a scan, with optional per-range scanner tool and timeout.
+ * Parsed from the comma-separated {@code k2so.network.scan-range} setting, where each entry is
+ * {@code <cidr>[;tool=<arp-scan|nmap|ping>][;timeout=<seconds>][;exclude=<cidr>|<cidr>...]}, for example
+ * {@code 10.40.30.0/24,10.40.31.0/24;tool=nmap;timeout=60;exclude=10.40.31.1|10.40.31.128/25}.
+ */
+public class ScanTarget {
+
+    private final String networkRange;
+    private final Ipv4Range range;
+    private final String scannerTool;
+    private final Integer timeoutSeconds;
+    private final List<Ipv4Range> exclusions;
+
+    public ScanTarget(String networkRange, String scannerTool, Integer timeoutSeconds, List<Ipv4Range> exclusions) {
+        this.networkRange = networkRange;
+        this.range = Ipv4Range.parse(networkRange);
+        this.scannerTool = scannerTool;
+        this.timeoutSeconds = timeoutSeconds;
+        this.exclusions = Collections.unmodifiableList(exclusions);
+    }
+
+    public static List<ScanTarget> parseAll(String spec) {
+        List<ScanTarget> targets = new ArrayList<>();
+        if (spec == null) {
+            return targets;
+        }
+
+        for (String entry : spec.split(",")) {
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+            targets.add(parse(entry));
+        }
+        return targets;
+    }
+
+    public static ScanTarget parse(String entry) {
+        String[] parts = entry.trim().split(";");
+        String range = parts[0].trim();
+        if (range.isEmpty()) {
+            throw new IllegalArgumentException("Missing network range in scan target: " + entry);
+        }
+
+        String tool = null;
+        Integer timeout = null;
+        List<Ipv4Range> exclusions = new ArrayList<>();
+        for (int i = 1; i < parts.length; i++) {
+            String option = parts[i].trim();
+            int eq = option.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Invalid scan target option '" + option + "' in: " + entry);
+            }
+            String key = option.substring(0, eq).trim();
+            String value = option.substring(eq + 1).trim();
+            switch (key) {
+                case "tool" -> tool = value;
+                case "timeout" -> timeout = Integer.parseInt(value);
+                case "exclude" -> {
+                    for (String excluded : value.split("\\|")) {
+                        if (!excluded.isBlank()) {
+                            exclusions.add(Ipv4Range.parse(excluded));
+                        }
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unknown scan target option '" + key + "' in: " + entry);
+            }
+        }
+        return new ScanTarget(range, tool, timeout, exclusions);
+    }
+
+    public String getNetworkRange() {
+        return networkRange;
+    }
+
+    public Ipv4Range getRange() {
+        return range;
+    }
+
+    /**
+     * Addresses to probe: the usable hosts of the range minus the exclusions.
+     */
+    public List<Ipv4Range> getHostRanges() {
+        List<Ipv4Range> hosts = new ArrayList<>();
+        hosts.add(range.hosts());
+        return Ipv4Range.subtractAll(hosts, exclusions);
+    }
+
+    public List<Ipv4Range> getExclusions() {
+        return exclusions;
+    }
+
+    public boolean isExcluded(int ip) {
+        for (Ipv4Range exclusion : exclusions) {
+            if (exclusion.contains(ip)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isExcluded(String ip) {
+        for (Ipv4Range exclusion : exclusions) {
+            if (exclusion.contains(ip)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the scanner tool for this range, or null to use the global preference
+     */
+    public String getScannerTool() {
+        return scannerTool;
+    }
+
+    /**
+     * @return the timeout for this range, or null to use the global scan timeout
+     */
+    public Integer getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return networkRange;
+    }
+}
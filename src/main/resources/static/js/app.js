@@ -86,9 +86,15 @@ function initAutoRefresh() {
     setInterval(refreshDashboardStats, 30000);
 }
 
+// ETag of the last stats response; the server answers 304 until the dashboard snapshot changes
+let statsEtag = null;
+
 async function refreshDashboardStats() {
     try {
-        const response = await fetch('/api/stats');
+        const headers = statsEtag ? { 'If-None-Match': statsEtag } : {};
+        const response = await fetch('/api/stats', { headers: headers, cache: 'no-store' });
+        if (response.status === 304) return;
+        statsEtag = response.headers.get('ETag');
         const data = await response.json();
         updateStats(data);
     } catch (error) {
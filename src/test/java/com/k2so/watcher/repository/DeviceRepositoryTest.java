@@ -0,0 +1,166 @@
+package com.k2so.watcher.repository;
+
+import com.k2so.watcher.dto.DeviceCursor;
+import com.k2so.watcher.dto.DeviceFilter;
+import com.k2so.watcher.dto.DeviceSort;
+import com.k2so.watcher.dto.DeviceSummary;
+import com.k2so.watcher.model.Device;
+import com.k2so.watcher.util.Ipv4Range;
+import com.k2so.watcher.util.MacAddress;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+class DeviceRepositoryTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    private int macCounter;
+
+    @Test
+    void duplicateIpsAreFoundOnlyInsideTheSubnet() {
+        Device first = save("192.168.1.10");
+        Device second = save("192.168.1.10");
+        save("192.168.1.11");
+        save("192.168.2.10");
+        save("192.168.2.10");
+
+        Ipv4Range subnet = Ipv4Range.parse("192.168.1.0/24");
+        assertThat(deviceRepository.findDevicesWithDuplicateIpsBetween(subnet.getFirstNumeric(),
+                subnet.getLastNumeric()))
+                .extracting(Device::getId)
+                .containsExactly(first.getId(), second.getId());
+    }
+
+    @Test
+    void keysetPagesVisitEveryDeviceOnceInSortOrder() {
+        // Ties on the sort key and devices without one, which must come last on every sort
+        saveSeen("10.0.0.3", NOON);
+        saveSeen("10.0.0.1", NOON);
+        saveSeen("200.0.0.1", NOON.minusHours(1));
+        saveSeen("10.0.0.2", null);
+        saveSeen(null, NOON.plusHours(1));
+        saveSeen("10.0.0.1", NOON.minusHours(2));
+        saveSeen(null, null);
+
+        for (DeviceSort sort : DeviceSort.values()) {
+            List<Long> expected = deviceRepository.findAll().stream()
+                    .sorted(order(sort))
+                    .map(Device::getId)
+                    .toList();
+
+            assertThat(walk(sort, DeviceFilter.none(), 2)).as(sort.name()).isEqualTo(expected);
+            assertThat(walkSummaries(sort, DeviceFilter.none(), 3)).as(sort.name()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void filtersApplyToEveryPage() {
+        Device first = saveSeen("192.168.1.20", NOON);
+        first.setVendor("Apple, Inc.");
+        Device second = saveSeen("192.168.1.10", NOON);
+        second.setVendor("APPLE_100%");
+        Device offline = saveSeen("192.168.1.30", NOON);
+        offline.setVendor("Apple, Inc.");
+        offline.setOnline(false);
+        saveSeen("192.168.2.10", NOON).setVendor("Apple, Inc.");
+        for (Device device : List.of(first, second)) {
+            device.setOnline(true);
+        }
+        deviceRepository.flush();
+
+        DeviceFilter onlineAppleInSubnet = new DeviceFilter(true, null, null, " apple ",
+                Ipv4Range.parse("192.168.1.0/24"));
+        assertThat(walk(DeviceSort.IP, onlineAppleInSubnet, 1)).containsExactly(second.getId(), first.getId());
+
+        // LIKE wildcards in the filter are matched literally
+        DeviceFilter percent = new DeviceFilter(null, null, null, "100%", null);
+        assertThat(walk(DeviceSort.LAST_SEEN, percent, 1)).containsExactly(second.getId());
+    }
+
+    @Test
+    void cursorsOnlyDecodeForTheSortTheyWereMadeFor() {
+        Device device = saveSeen("10.0.0.1", NOON);
+        String token = DeviceCursor.after(DeviceSort.IP, device).encode();
+
+        DeviceCursor decoded = DeviceCursor.decode(token, DeviceSort.IP);
+        assertThat(decoded.getKey()).isEqualTo(Ipv4Range.toNumeric("10.0.0.1"));
+        assertThat(decoded.getId()).isEqualTo(device.getId());
+        assertThatThrownBy(() -> DeviceCursor.decode(token, DeviceSort.LAST_SEEN))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> DeviceCursor.decode("not a cursor!", DeviceSort.IP))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<Long> walk(DeviceSort sort, DeviceFilter filter, int pageSize) {
+        List<Long> ids = new ArrayList<>();
+        String token = null;
+        while (true) {
+            DeviceCursor after = token != null ? DeviceCursor.decode(token, sort) : null;
+            List<Device> page = deviceRepository.findPage(filter, sort, after, pageSize);
+            page.forEach(device -> ids.add(device.getId()));
+            if (page.size() < pageSize) {
+                return ids;
+            }
+            token = DeviceCursor.after(sort, page.get(page.size() - 1)).encode();
+        }
+    }
+
+    private List<Long> walkSummaries(DeviceSort sort, DeviceFilter filter, int pageSize) {
+        List<Long> ids = new ArrayList<>();
+        String token = null;
+        while (true) {
+            DeviceCursor after = token != null ? DeviceCursor.decode(token, sort) : null;
+            List<DeviceSummary> page = deviceRepository.findSummaryPage(filter, sort, after, pageSize);
+            page.forEach(device -> ids.add(device.id()));
+            if (page.size() < pageSize) {
+                return ids;
+            }
+            token = DeviceCursor.after(sort, page.get(page.size() - 1)).encode();
+        }
+    }
+
+    // The order findPage documents: sort key in the sort's direction with nulls last, then id the same way
+    private static Comparator<Device> order(DeviceSort sort) {
+        Comparator<Device> order = switch (sort) {
+            case LAST_SEEN -> Comparator.comparing(Device::getLastSeen,
+                    Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()));
+            case FIRST_SEEN -> Comparator.comparing(Device::getFirstSeen,
+                    Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()));
+            case IP -> Comparator.comparing(Device::getIpNumeric,
+                    Comparator.nullsLast(Comparator.<Long>naturalOrder()));
+        };
+        return order.thenComparing(Device::getId, sort.isDescending()
+                ? Comparator.<Long>reverseOrder()
+                : Comparator.<Long>naturalOrder());
+    }
+
+    private Device saveSeen(String ip, LocalDateTime lastSeen) {
+        Device device = save(ip);
+        // Set after insert, since the entity stamps both times when it is persisted
+        device.setLastSeen(lastSeen);
+        device.setFirstSeen(lastSeen != null ? lastSeen.minusDays(macCounter % 3) : null);
+        return deviceRepository.saveAndFlush(device);
+    }
+
+    private Device save(String ip) {
+        Device device = new Device();
+        device.setMacAddress(MacAddress.parse(String.format("AA:BB:CC:00:%02X:%02X",
+                macCounter / 256, macCounter % 256)));
+        macCounter++;
+        device.setIpAddress(ip);
+        return deviceRepository.save(device);
+    }
+}
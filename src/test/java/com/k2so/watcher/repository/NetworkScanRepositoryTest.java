@@ -0,0 +1,102 @@
+package com.k2so.watcher.repository;
+
+import com.k2so.watcher.dto.ScanCursor;
+import com.k2so.watcher.dto.ScanSummary;
+import com.k2so.watcher.model.NetworkScan;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+class NetworkScanRepositoryTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Autowired
+    private NetworkScanRepository networkScanRepository;
+
+    @Test
+    void keysetPagesVisitEveryScanOnceNewestFirst() {
+        // Scheduled scans of several ranges can start within the same instant
+        for (int minutes : new int[]{0, 5, 5, 5, -10, 30, 5, -10}) {
+            save(NOON.plusMinutes(minutes));
+        }
+        List<Long> expected = networkScanRepository.findAll().stream()
+                .sorted(Comparator.comparing(NetworkScan::getStartedAt).thenComparing(NetworkScan::getId).reversed())
+                .map(NetworkScan::getId)
+                .toList();
+
+        for (int pageSize = 1; pageSize <= 3; pageSize++) {
+            List<Long> ids = new ArrayList<>();
+            List<ScanSummary> page = networkScanRepository.findSummaries(PageRequest.of(0, pageSize));
+            while (!page.isEmpty()) {
+                page.forEach(scan -> ids.add(scan.id()));
+                ScanCursor after = ScanCursor.decode(ScanCursor.after(page.get(page.size() - 1)).encode());
+                page = networkScanRepository.findSummariesBefore(after.getStartedAt(), after.getId(),
+                        PageRequest.of(0, pageSize));
+            }
+            assertThat(ids).as("page size %d", pageSize).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void summariesCarryTheListColumns() {
+        NetworkScan scan = save(NOON);
+        scan.setCompletedAt(NOON.plusSeconds(42));
+        scan.setStatus("COMPLETED");
+        scan.setDevicesFound(12);
+        scan.setNewDevices(2);
+        networkScanRepository.saveAndFlush(scan);
+
+        ScanSummary summary = networkScanRepository.findSummaries(PageRequest.of(0, 1)).get(0);
+        assertThat(summary.id()).isEqualTo(scan.getId());
+        assertThat(summary.status()).isEqualTo("COMPLETED");
+        assertThat(summary.devicesFound()).isEqualTo(12);
+        assertThat(summary.newDevices()).isEqualTo(2);
+        assertThat(summary.durationSeconds()).isEqualTo(42);
+    }
+
+    @Test
+    void presenceChecksOfOlderVersionsAreNotListed() {
+        NetworkScan older = save(NOON);
+        NetworkScan presence = save(NOON.plusMinutes(1));
+        presence.setScanType("PRESENCE");
+        networkScanRepository.saveAndFlush(presence);
+        NetworkScan newer = save(NOON.plusMinutes(2));
+
+        assertThat(networkScanRepository.findSummaries(PageRequest.of(0, 1)))
+                .extracting(ScanSummary::id)
+                .containsExactly(newer.getId());
+        assertThat(networkScanRepository.findSummariesBefore(newer.getStartedAt(), newer.getId(),
+                PageRequest.of(0, 10)))
+                .extracting(ScanSummary::id)
+                .containsExactly(older.getId());
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        for (String token : List.of("", "not a cursor!", "MjAyNC0wNS0wMVQxMjowMA", "eHx5")) {
+            assertThatThrownBy(() -> ScanCursor.decode(token)).as(token)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Invalid cursor");
+        }
+    }
+
+    private NetworkScan save(LocalDateTime startedAt) {
+        NetworkScan scan = new NetworkScan();
+        scan.setScanType("SCHEDULED");
+        scan = networkScanRepository.save(scan);
+        // Set after insert, since the entity stamps the start time when it is persisted
+        scan.setStartedAt(startedAt);
+        return networkScanRepository.saveAndFlush(scan);
+    }
+}
@@ -0,0 +1,146 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.model.Device;
+import com.k2so.watcher.model.DeviceDetails;
+import com.k2so.watcher.repository.DeepScanJobRepository;
+import com.k2so.watcher.repository.DeviceDetailsRepository;
+import com.k2so.watcher.repository.DeviceRepository;
+import com.k2so.watcher.repository.ScanResultRepository;
+import com.k2so.watcher.util.Ipv4Range;
+import com.k2so.watcher.util.MacAddress;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({BackupService.class, SchemaUpdateService.class, SequenceMaintenanceService.class,
+        DeviceDetailsMigrationService.class, IpNumericBackfillService.class, MacAddressNormalizationService.class})
+@TestPropertySource(properties = "k2so.backup.directory=target/test-backups")
+// Restoring drops every object, so it must not run inside a test transaction holding locks
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+@RecordApplicationEvents
+class BackupServiceTest {
+
+    @Autowired
+    private BackupService backupService;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private DeviceDetailsRepository deviceDetailsRepository;
+
+    @Autowired
+    private ScanResultRepository scanResultRepository;
+
+    @Autowired
+    private DeepScanJobRepository deepScanJobRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @MockBean
+    private SambaBackupService sambaBackupService;
+
+    /**
+     * {@code pre-series-backup.sql} was exported from the schema before device_details, deep_scan_jobs and the
+     * numeric IP columns existed, with notes, open ports and a deep scan log still on the devices table.
+     */
+    @Test
+    void restoresBackupOfThePreviousSchema() throws Exception {
+        try (InputStream sql = getClass().getResourceAsStream("/backups/pre-series-backup.sql")) {
+            backupService.restoreFromBackup(zip(sql.readAllBytes()));
+        }
+
+        Device nas = deviceRepository.findByMacAddress(MacAddress.parse("AA:BB:CC:00:00:01")).orElseThrow();
+        assertThat(nas.getIpNumeric()).isEqualTo(Ipv4Range.toNumeric("192.168.1.10"));
+
+        DeviceDetails details = deviceDetailsRepository.findById(nas.getId()).orElseThrow();
+        assertThat(details.getNotes()).isEqualTo("Backup target in the closet");
+        assertThat(details.getOpenPorts()).isEqualTo("22/tcp ssh, 5000/tcp http");
+        assertThat(details.getDeepScanLog()).contains("22/tcp open ssh");
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS"
+                + " WHERE TABLE_NAME = 'DEVICES' AND COLUMN_NAME IN ('NOTES', 'OPEN_PORTS', 'DEEP_SCAN_LOG')",
+                Integer.class)).isZero();
+        assertThat(scanResultRepository.findAll())
+                .allSatisfy(result -> assertThat(result.getIpNumeric()).isNotNull());
+        assertThat(deepScanJobRepository.count()).isZero();
+
+        // New ids come from the sequence, above the identity ids of the backup
+        Device added = new Device();
+        added.setMacAddress(MacAddress.parse("AA:BB:CC:00:00:03"));
+        added.setIpAddress("192.168.1.30");
+        assertThat(deviceRepository.save(added).getId()).isGreaterThan(2L);
+    }
+
+    @Test
+    void restoresItsOwnBackup() throws Exception {
+        Device device = new TransactionTemplate(transactionManager).execute(status -> {
+            Device created = new Device();
+            created.setMacAddress(MacAddress.parse("AA:BB:CC:00:00:10"));
+            created.setIpAddress("10.0.0.10");
+            created = deviceRepository.save(created);
+            DeviceDetails details = new DeviceDetails(created);
+            details.setNotes("Round trip");
+            deviceDetailsRepository.save(details);
+            return created;
+        });
+
+        Path backup = backupService.createBackup();
+        long backedUp = deviceRepository.count();
+        deviceRepository.save(copyOf(device));
+
+        backupService.restoreFromBackup(new ByteArrayInputStream(Files.readAllBytes(backup)));
+
+        assertThat(deviceRepository.count()).isEqualTo(backedUp);
+        assertThat(events.stream(InventoryChangedEvent.class)).contains(InventoryChangedEvent.ofAll());
+        assertThat(deviceDetailsRepository.findById(device.getId()).orElseThrow().getNotes())
+                .isEqualTo("Round trip");
+    }
+
+    private static Device copyOf(Device device) {
+        Device copy = new Device();
+        copy.setMacAddress(MacAddress.parse("AA:BB:CC:00:00:11"));
+        copy.setIpAddress(device.getIpAddress());
+        return copy;
+    }
+
+    private static InputStream zip(byte[] sql) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("database.sql"));
+            zip.write(sql);
+            zip.closeEntry();
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+}
@@ -0,0 +1,94 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.model.DeepScanJob;
+import com.k2so.watcher.repository.DeepScanJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@Import(DeepScanScheduler.class)
+@TestPropertySource(properties = "k2so.network.deep-scan.workers=1")
+// The workers commit on their own threads
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+class DeepScanSchedulerTest {
+
+    private static final long DEVICE_ID = 42L;
+
+    @Autowired
+    private DeepScanScheduler deepScanScheduler;
+
+    @Autowired
+    private DeepScanJobRepository deepScanJobRepository;
+
+    @MockBean
+    private DeepScanService deepScanService;
+
+    private final CountDownLatch scanning = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void releaseWorkers() {
+        release.countDown();
+    }
+
+    @Test
+    void aManualRequestDuringARunningScanRunsItAgainAfterwards() throws Exception {
+        blockFirstScan();
+        deepScanScheduler.enqueueNewDevice(DEVICE_ID);
+        assertThat(scanning.await(5, TimeUnit.SECONDS)).isTrue();
+
+        DeepScanJob job = deepScanScheduler.enqueueManual(DEVICE_ID);
+        assertThat(job.getStatus()).isEqualTo("RUNNING");
+        assertThat(job.getRerunPriority()).isEqualTo(DeepScanJob.PRIORITY_MANUAL);
+
+        release.countDown();
+        verify(deepScanService, timeout(5_000).times(2)).performDeepScan(DEVICE_ID);
+        awaitEmptyQueue();
+    }
+
+    @Test
+    void aRequestWithoutARunningScanIsScannedOnce() throws Exception {
+        deepScanScheduler.enqueueManual(DEVICE_ID);
+
+        verify(deepScanService, timeout(5_000)).performDeepScan(DEVICE_ID);
+        awaitEmptyQueue();
+        verify(deepScanService, times(1)).performDeepScan(DEVICE_ID);
+    }
+
+    private void blockFirstScan() {
+        doAnswer(invocation -> {
+            if (scanning.getCount() > 0) {
+                scanning.countDown();
+                release.await();
+            }
+            return null;
+        }).when(deepScanService).performDeepScan(anyLong());
+    }
+
+    private void awaitEmptyQueue() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (deepScanJobRepository.count() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(deepScanJobRepository.count()).isZero();
+    }
+}
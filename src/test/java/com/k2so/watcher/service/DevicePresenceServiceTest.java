@@ -0,0 +1,116 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.model.Device;
+import com.k2so.watcher.repository.DeviceRepository;
+import com.k2so.watcher.util.MacAddress;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(DevicePresenceService.class)
+@RecordApplicationEvents
+class DevicePresenceServiceTest {
+
+    private static final LocalDateTime LONG_AGO = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Autowired
+    private DevicePresenceService devicePresenceService;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void scanPresenceIsTheSetDifferenceAcrossUpdateBatches() {
+        // More devices than one IN list holds, so both updates run in several batches
+        List<Device> devices = saveDevices(1_200);
+        Set<Long> previouslyOnline = new HashSet<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < devices.size(); i++) {
+            Long id = devices.get(i).getId();
+            if (i % 2 == 0) {
+                previouslyOnline.add(id);
+            }
+            if (i % 3 == 0) {
+                seen.add(id);
+            }
+        }
+        deviceRepository.markSeen(previouslyOnline, LONG_AGO);
+        // Device 1 came online through a presence check after the scan took its snapshot
+        deviceRepository.markSeen(List.of(devices.get(1).getId()), LONG_AGO);
+        entityManager.clear();
+        events.clear();
+
+        LocalDateTime before = LocalDateTime.now();
+        int wentOffline = devicePresenceService.applyScanPresence(previouslyOnline, seen);
+        entityManager.clear();
+
+        // Online before, not seen: every even index that is not a multiple of 3
+        assertThat(wentOffline).isEqualTo(400);
+        for (int i = 0; i < devices.size(); i++) {
+            Device device = deviceRepository.findById(devices.get(i).getId()).orElseThrow();
+            assertThat(device.isOnline()).as("device %d", i).isEqualTo(i % 3 == 0 || i == 1);
+            if (i % 3 == 0) {
+                assertThat(device.getLastSeen()).as("device %d", i).isAfterOrEqualTo(before);
+            } else {
+                assertThat(device.getLastSeen()).as("device %d", i).isEqualTo(LONG_AGO);
+            }
+        }
+        assertThat(events.stream(InventoryChangedEvent.class))
+                .containsOnly(InventoryChangedEvent.ofDevices())
+                .hasSize(2);
+    }
+
+    @Test
+    void devicesAlreadyOfflineAreNotCountedOrPublished() {
+        List<Device> devices = saveDevices(3);
+        List<Long> ids = devices.stream().map(Device::getId).toList();
+        deviceRepository.markSeen(List.of(ids.get(0)), LONG_AGO);
+        entityManager.clear();
+        events.clear();
+
+        assertThat(devicePresenceService.markOffline(ids)).isEqualTo(1);
+        assertThat(devicePresenceService.markOffline(ids)).isZero();
+        assertThat(devicePresenceService.markSeen(List.of(), LocalDateTime.now())).isZero();
+
+        assertThat(events.stream(InventoryChangedEvent.class)).hasSize(1);
+        entityManager.clear();
+        assertThat(deviceRepository.findAllById(ids)).noneMatch(Device::isOnline);
+    }
+
+    private List<Device> saveDevices(int count) {
+        List<Device> devices = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Device device = new Device();
+            device.setMacAddress(MacAddress.of(0x00_1A_2B_00_00_00L + i));
+            device.setIpAddress("10.0." + (i / 250) + "." + (i % 250 + 1));
+            devices.add(device);
+        }
+        List<Device> saved = deviceRepository.saveAll(devices);
+        deviceRepository.flush();
+        // Start every device offline with an old last seen time
+        deviceRepository.markOffline(saved.stream().map(Device::getId).toList());
+        entityManager.createQuery("UPDATE Device d SET d.lastSeen = :lastSeen")
+                .setParameter("lastSeen", LONG_AGO)
+                .executeUpdate();
+        return saved;
+    }
+}
@@ -0,0 +1,91 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.model.Device;
+import com.k2so.watcher.model.DeviceDetails;
+import com.k2so.watcher.repository.DeviceDetailsRepository;
+import com.k2so.watcher.repository.DeviceRepository;
+import com.k2so.watcher.util.MacAddress;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(DeviceService.class)
+// Deep scans record their results from a worker thread, outside any transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+class DeviceServiceTest {
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private DeviceDetailsRepository deviceDetailsRepository;
+
+    @MockBean
+    private AIIdentificationService aiIdentificationService;
+
+    @Test
+    void deepScanCreatesDetailsAndFillsOnlyMissingHostname() {
+        Device device = deviceRepository.save(device("AA:BB:CC:00:01:01", "10.0.1.1", null));
+
+        deviceService.recordDeepScan(device.getId(), "22/tcp ssh", "log", "Linux 5.x", "found-host");
+
+        Device stored = deviceRepository.findById(device.getId()).orElseThrow();
+        assertThat(stored.getDetectedOs()).isEqualTo("Linux 5.x");
+        assertThat(stored.getHostname()).isEqualTo("found-host");
+        assertThat(stored.getLastDeepScan()).isNotNull();
+        DeviceDetails details = deviceDetailsRepository.findById(device.getId()).orElseThrow();
+        assertThat(details.getOpenPorts()).isEqualTo("22/tcp ssh");
+        assertThat(details.getDeepScanLog()).isEqualTo("log");
+    }
+
+    @Test
+    void deepScanKeepsEditsMadeWhileItRan() {
+        Device device = deviceRepository.save(device("AA:BB:CC:00:01:02", "10.0.1.2", "nas"));
+        Long id = device.getId();
+        deviceService.recordDeepScan(id, "22/tcp ssh", "first", "Linux", null);
+
+        // The scan loaded the device before the user edited it
+        deviceService.updateDevice(id, "Closet NAS", device.getDeviceType(), true, true, "Backup target",
+                null, true);
+
+        deviceService.recordDeepScan(id, null, "failed", null, "other-host");
+
+        Device stored = deviceRepository.findById(id).orElseThrow();
+        assertThat(stored.getCustomName()).isEqualTo("Closet NAS");
+        assertThat(stored.isKnown()).isTrue();
+        assertThat(stored.isPinned()).isTrue();
+        assertThat(stored.getHostname()).isEqualTo("nas");
+        assertThat(stored.getDetectedOs()).isEqualTo("Linux");
+        DeviceDetails details = deviceDetailsRepository.findById(id).orElseThrow();
+        assertThat(details.getNotes()).isEqualTo("Backup target");
+        assertThat(details.getOpenPorts()).isEqualTo("22/tcp ssh");
+        assertThat(details.getDeepScanLog()).isEqualTo("failed");
+    }
+
+    @Test
+    void deepScanOfDeletedDeviceWritesNothing() {
+        deviceService.recordDeepScan(Long.MAX_VALUE, "", "log", null, null);
+
+        assertThat(deviceDetailsRepository.existsById(Long.MAX_VALUE)).isFalse();
+    }
+
+    private static Device device(String mac, String ip, String hostname) {
+        Device device = new Device();
+        device.setMacAddress(MacAddress.parse(mac));
+        device.setIpAddress(ip);
+        device.setHostname(hostname);
+        return device;
+    }
+}
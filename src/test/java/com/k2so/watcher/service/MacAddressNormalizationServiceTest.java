@@ -0,0 +1,93 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.model.Device;
+import com.k2so.watcher.model.ScanResult;
+import com.k2so.watcher.repository.DeviceRepository;
+import com.k2so.watcher.repository.ScanResultRepository;
+import com.k2so.watcher.util.Ipv4Range;
+import com.k2so.watcher.util.MacAddress;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(MacAddressNormalizationService.class)
+// The service commits on its own connection, so the rows it reads must be committed too
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+class MacAddressNormalizationServiceTest {
+
+    @Autowired
+    private MacAddressNormalizationService macAddressNormalizationService;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private ScanResultRepository scanResultRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void legacyMacsAreRewrittenInCanonicalForm() {
+        Device placeholder = saveWithStoredMac("10.0.0.1", "fe:00:12:34:56:78");
+        Device dashed = saveWithStoredMac("10.0.0.2", "aa-bb-cc-00-00-02");
+        Device invalid = saveWithStoredMac("10.0.0.3", "not-a-mac");
+        ScanResult result = new ScanResult();
+        result.setIpAddress("10.0.0.1");
+        result.setMacAddress(MacAddress.parse("FE:00:12:34:56:78"));
+        result = scanResultRepository.save(result);
+        jdbcTemplate.update("UPDATE scan_results SET mac_address = 'fe:00:12:34:56:78' WHERE id = ?",
+                result.getId());
+
+        macAddressNormalizationService.normalize();
+
+        assertThat(storedMac("devices", placeholder.getId())).isEqualTo("FE:00:12:34:56:78");
+        assertThat(storedMac("devices", dashed.getId())).isEqualTo("AA:BB:CC:00:00:02");
+        assertThat(storedMac("devices", invalid.getId())).isEqualTo("not-a-mac");
+        assertThat(storedMac("scan_results", result.getId())).isEqualTo("FE:00:12:34:56:78");
+        // Lookups by the parsed MAC find the device again
+        assertThat(deviceRepository.findByMacAddress(MacAddress.parse("FE:00:12:34:56:78")))
+                .hasValueSatisfying(device -> assertThat(device.getId()).isEqualTo(placeholder.getId()));
+    }
+
+    @Test
+    void aDeviceIsLeftAloneWhenItsCanonicalMacIsTaken() {
+        Device canonical = saveWithStoredMac("10.0.1.1", "AA:BB:CC:00:01:01");
+        Device legacy = saveWithStoredMac("10.0.1.2", "aa:bb:cc:00:01:01");
+        // Two legacy spellings of the same address: only the first is rewritten
+        Device first = saveWithStoredMac("10.0.1.3", "aa:bb:cc:00:01:03");
+        Device second = saveWithStoredMac("10.0.1.4", "aa-bb-cc-00-01-03");
+
+        macAddressNormalizationService.normalize();
+
+        assertThat(storedMac("devices", canonical.getId())).isEqualTo("AA:BB:CC:00:01:01");
+        assertThat(storedMac("devices", legacy.getId())).isEqualTo("aa:bb:cc:00:01:01");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM devices WHERE mac_address = ?", Integer.class,
+                "AA:BB:CC:00:01:03")).isOne();
+        assertThat(storedMac("devices", first.getId()) + storedMac("devices", second.getId()))
+                .contains("AA:BB:CC:00:01:03");
+    }
+
+    private Device saveWithStoredMac(String ip, String storedMac) {
+        Device device = new Device();
+        device.setMacAddress(MacAddress.placeholderFor(Ipv4Range.parseAddress(ip)));
+        device.setIpAddress(ip);
+        device = deviceRepository.save(device);
+        // Written as the version before MacAddress stored it
+        jdbcTemplate.update("UPDATE devices SET mac_address = ? WHERE id = ?", storedMac, device.getId());
+        return device;
+    }
+
+    private String storedMac(String table, Long id) {
+        return jdbcTemplate.queryForObject("SELECT mac_address FROM " + table + " WHERE id = ?", String.class, id);
+    }
+}
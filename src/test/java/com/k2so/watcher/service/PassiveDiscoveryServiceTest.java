@@ -0,0 +1,169 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.model.Device;
+import com.k2so.watcher.model.DeviceType;
+import com.k2so.watcher.repository.DeviceRepository;
+import com.k2so.watcher.util.MacAddress;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@Import({PassiveDiscoveryService.class, DevicePresenceService.class})
+@TestPropertySource(properties = {
+        "k2so.network.passive.enabled=true",
+        // Polled by the tests only
+        "k2so.network.passive.interval-ms=3600000",
+        "k2so.network.scan-range=10.0.0.0/24"
+})
+class PassiveDiscoveryServiceTest {
+
+    private static final String HEADER =
+            "IP address       HW type     Flags       HW address            Mask     Device\n";
+    private static final MacAddress MAC = MacAddress.parse("00:1A:2B:00:00:01");
+
+    @TempDir
+    static Path tempDir;
+
+    @DynamicPropertySource
+    static void neighborTable(DynamicPropertyRegistry registry) {
+        registry.add("k2so.network.passive.neighbor-table", () -> tempDir.resolve("arp").toString());
+    }
+
+    @Autowired
+    private PassiveDiscoveryService passiveDiscoveryService;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private MacVendorService macVendorService;
+
+    @MockBean
+    private DeviceIdentificationService identification;
+
+    @MockBean
+    private HostnameResolutionService hostnameResolutionService;
+
+    @MockBean
+    private DeepScanScheduler deepScanScheduler;
+
+    @MockBean
+    private NetworkScannerService networkScannerService;
+
+    @BeforeEach
+    void startFromAnEmptyNeighborTable() throws IOException {
+        when(identification.identifyDeviceType(any())).thenReturn(DeviceType.UNKNOWN);
+        noScanRunning();
+        // The service keeps the previous reading across tests
+        writeNeighborTable("");
+        passiveDiscoveryService.poll();
+    }
+
+    @Test
+    void newHostsInsideTheScanRangesBecomeDevices() throws IOException {
+        writeNeighborTable("10.0.0.7       0x1  0x2  00:1a:2b:00:00:01  *  eth0\n"
+                + "192.168.5.1    0x1  0x2  00:1a:2b:00:00:02  *  eth0\n");
+
+        passiveDiscoveryService.poll();
+        // An unchanged table is not reconciled again
+        passiveDiscoveryService.poll();
+
+        entityManager.clear();
+        assertThat(deviceRepository.findAll()).singleElement().satisfies(device -> {
+            assertThat(device.getMacAddress()).isEqualTo(MAC);
+            assertThat(device.getIpAddress()).isEqualTo("10.0.0.7");
+            assertThat(device.isOnline()).isTrue();
+        });
+        verify(hostnameResolutionService, times(1)).resolveAll(anyCollection());
+    }
+
+    @Test
+    void aKnownMacAtANewAddressMovesTheDevice() throws IOException {
+        Device device = new Device();
+        device.setMacAddress(MAC);
+        device.setIpAddress("10.0.0.5");
+        deviceRepository.saveAndFlush(device);
+        writeNeighborTable("10.0.0.9       0x1  0x2  00:1a:2b:00:00:01  *  eth0\n");
+
+        passiveDiscoveryService.poll();
+
+        entityManager.clear();
+        assertThat(deviceRepository.findAll()).singleElement().satisfies(moved -> {
+            assertThat(moved.getIpAddress()).isEqualTo("10.0.0.9");
+            assertThat(moved.isOnline()).isTrue();
+        });
+    }
+
+    @Test
+    void incompleteEntriesWaitUntilTheyResolve() throws IOException {
+        writeNeighborTable("10.0.0.7       0x1  0x0  00:00:00:00:00:00  *  eth0\n");
+        passiveDiscoveryService.poll();
+        assertThat(deviceRepository.count()).isZero();
+
+        writeNeighborTable("10.0.0.7       0x1  0x2  00:1a:2b:00:00:01  *  eth0\n");
+        passiveDiscoveryService.poll();
+        assertThat(deviceRepository.count()).isOne();
+    }
+
+    @Test
+    void changesSkippedDuringAScanAreAppliedOnTheNextPoll() throws IOException {
+        doReturn(false).when(networkScannerService).runBetweenScans(any());
+        writeNeighborTable("10.0.0.7       0x1  0x2  00:1a:2b:00:00:01  *  eth0\n");
+
+        passiveDiscoveryService.poll();
+        assertThat(deviceRepository.count()).isZero();
+        verify(hostnameResolutionService, never()).resolveAll(anyCollection());
+
+        noScanRunning();
+        passiveDiscoveryService.poll();
+        assertThat(deviceRepository.count()).isOne();
+    }
+
+    @Test
+    void diffKeepsNewAndChangedEntries() {
+        MacAddress other = MacAddress.parse("00:1A:2B:00:00:02");
+        Map<String, MacAddress> previous = Map.of("10.0.0.1", MAC, "10.0.0.2", MAC, "10.0.0.3", MAC);
+        Map<String, MacAddress> current = Map.of("10.0.0.1", MAC, "10.0.0.2", other, "10.0.0.4", MAC);
+
+        assertThat(PassiveDiscoveryService.diff(previous, current))
+                .containsOnly(Map.entry("10.0.0.2", other), Map.entry("10.0.0.4", MAC));
+    }
+
+    private void noScanRunning() {
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return true;
+        }).when(networkScannerService).runBetweenScans(any());
+    }
+
+    private static void writeNeighborTable(String rows) throws IOException {
+        Files.writeString(tempDir.resolve("arp"), HEADER + rows);
+    }
+}
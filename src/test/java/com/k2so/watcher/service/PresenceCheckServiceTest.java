@@ -0,0 +1,163 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.model.Device;
+import com.k2so.watcher.repository.DeviceRepository;
+import com.k2so.watcher.repository.NetworkScanRepository;
+import com.k2so.watcher.util.Ipv4Range;
+import com.k2so.watcher.util.MacAddress;
+import com.k2so.watcher.util.NeighborTable;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+
+@DataJpaTest
+@Import({PresenceCheckService.class, DevicePresenceService.class})
+class PresenceCheckServiceTest {
+
+    private static final MacAddress MAC = MacAddress.parse("00:1A:2B:00:00:01");
+    private static final MacAddress OTHER_MAC = MacAddress.parse("00:1A:2B:00:00:99");
+
+    @Autowired
+    private PresenceCheckService presenceCheckService;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private NetworkScanRepository networkScanRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private PingSweepService pingSweepService;
+
+    @MockBean
+    private NetworkScannerService networkScannerService;
+
+    // What the next check sees: addresses answering the probe and the neighbor table afterwards
+    private final Set<String> answering = new HashSet<>();
+    private final Map<String, MacAddress> neighbors = new HashMap<>();
+    private final Map<String, MacAddress> freshNeighbors = new HashMap<>();
+
+    private MockedStatic<NeighborTable> neighborTable;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void fakeNetwork() {
+        doAnswer(invocation -> {
+            Collection<String> ips = invocation.getArgument(0);
+            Consumer<String> onReachable = invocation.getArgument(1);
+            ips.stream().filter(answering::contains).forEach(onReachable);
+            return answering.size();
+        }).when(pingSweepService).sweepAddresses(anyCollection(), any(Consumer.class), anyInt());
+        neighborTable = Mockito.mockStatic(NeighborTable.class);
+        neighborTable.when(NeighborTable::read).thenAnswer(invocation -> new HashMap<>(neighbors));
+        neighborTable.when(NeighborTable::readFresh).thenAnswer(invocation -> new HashMap<>(freshNeighbors));
+    }
+
+    @AfterEach
+    void closeNeighborTable() {
+        neighborTable.close();
+    }
+
+    @Test
+    void devicesFlipOnlineAndOfflineWithoutRecordingScans() {
+        Device device = save("10.0.0.1", MAC, false);
+        answering.add("10.0.0.1");
+        neighbors.put("10.0.0.1", MAC);
+
+        assertThat(presenceCheckService.checkPresence()).isEqualTo(1);
+        assertThat(online(device)).isTrue();
+        // No change, nothing written
+        assertThat(presenceCheckService.checkPresence()).isZero();
+
+        answering.clear();
+        neighbors.clear();
+        presenceCheckService.checkPresence();
+        assertThat(presenceCheckService.checkPresence()).isEqualTo(1);
+        assertThat(online(device)).isFalse();
+        assertThat(networkScanRepository.count()).isZero();
+    }
+
+    @Test
+    void oneMissedCheckDoesNotTakeADeviceOffline() {
+        Device device = save("10.0.0.1", MAC, true);
+
+        assertThat(presenceCheckService.checkPresence()).isZero();
+        assertThat(online(device)).isTrue();
+
+        // An answer in between resets the count
+        answering.add("10.0.0.1");
+        presenceCheckService.checkPresence();
+        answering.clear();
+        assertThat(presenceCheckService.checkPresence()).isZero();
+        assertThat(online(device)).isTrue();
+
+        assertThat(presenceCheckService.checkPresence()).isEqualTo(1);
+        assertThat(online(device)).isFalse();
+    }
+
+    @Test
+    void anIpAnsweredByAnotherMacDoesNotKeepTheDeviceOnline() {
+        Device moved = save("10.0.0.1", MAC, true);
+        Device placeholder = save("10.0.0.1", MacAddress.placeholderFor(Ipv4Range.parseAddress("10.0.0.1")), false);
+        answering.add("10.0.0.1");
+        neighbors.put("10.0.0.1", OTHER_MAC);
+
+        presenceCheckService.checkPresence();
+        presenceCheckService.checkPresence();
+
+        assertThat(online(moved)).isFalse();
+        // A placeholder MAC cannot conflict, so the answer counts for the placeholder device
+        assertThat(online(placeholder)).isTrue();
+    }
+
+    @Test
+    void aFreshNeighborEntryWithTheDevicesMacMeansPresent() {
+        // Drops ICMP, but answered ARP for the probe
+        Device silent = save("10.0.0.1", MAC, false);
+        Device otherMac = save("10.0.0.2", MacAddress.parse("00:1A:2B:00:00:02"), true);
+        freshNeighbors.put("10.0.0.1", MAC);
+        freshNeighbors.put("10.0.0.2", OTHER_MAC);
+
+        presenceCheckService.checkPresence();
+        presenceCheckService.checkPresence();
+
+        assertThat(online(silent)).isTrue();
+        assertThat(online(otherMac)).isFalse();
+    }
+
+    private boolean online(Device device) {
+        entityManager.clear();
+        return deviceRepository.findById(device.getId()).orElseThrow().isOnline();
+    }
+
+    private Device save(String ip, MacAddress mac, boolean online) {
+        Device device = new Device();
+        device.setMacAddress(mac);
+        device.setIpAddress(ip);
+        device.setOnline(online);
+        return deviceRepository.saveAndFlush(device);
+    }
+}
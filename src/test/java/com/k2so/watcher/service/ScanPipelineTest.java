@@ -0,0 +1,75 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.util.DiscoveredHost;
+import com.k2so.watcher.util.Ipv4Range;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ScanPipelineTest {
+
+    private final HostnameResolutionService hostnames = mock(HostnameResolutionService.class);
+    private final ScanReconciler reconciler = mock(ScanReconciler.class);
+
+    @Test
+    void finishDrainsEveryQueuedHost() throws Exception {
+        ScanPipeline pipeline = new ScanPipeline(2, 2, hostnames, reconciler);
+        pipeline.start();
+        for (int i = 1; i <= 10; i++) {
+            pipeline.accept(host(i));
+        }
+        pipeline.finish(10);
+
+        verify(reconciler, times(10)).reconcile(any());
+        assertThat(pipelineThreads()).isZero();
+    }
+
+    @Test
+    void abortReleasesWorkersAndScannersOfAFailedScan() throws Exception {
+        CountDownLatch reconciling = new CountDownLatch(1);
+        CountDownLatch never = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            reconciling.countDown();
+            never.await();
+            return null;
+        }).when(reconciler).reconcile(any());
+
+        ScanPipeline pipeline = new ScanPipeline(1, 1, hostnames, reconciler);
+        pipeline.start();
+        pipeline.accept(host(1));
+        assertThat(reconciling.await(5, TimeUnit.SECONDS)).isTrue();
+        pipeline.accept(host(2));
+
+        // A scanner blocked on the full queue returns once the pipeline is aborted
+        Thread scanner = new Thread(() -> pipeline.accept(host(3)));
+        scanner.start();
+        pipeline.abort();
+        scanner.join(5_000);
+
+        assertThat(scanner.isAlive()).isFalse();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pipelineThreads() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(pipelineThreads()).isZero();
+        verify(reconciler, times(1)).reconcile(any());
+    }
+
+    private static long pipelineThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("scan-pipeline-"))
+                .count();
+    }
+
+    private static DiscoveredHost host(int i) {
+        return new DiscoveredHost(Ipv4Range.parseAddress("10.0.0." + i), 0x00_1A_2B_00_00_00L + i, null, "host-" + i);
+    }
+}
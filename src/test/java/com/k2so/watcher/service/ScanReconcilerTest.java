@@ -0,0 +1,223 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.model.Device;
+import com.k2so.watcher.model.DeviceType;
+import com.k2so.watcher.model.NetworkScan;
+import com.k2so.watcher.repository.DeviceRepository;
+import com.k2so.watcher.repository.NetworkScanRepository;
+import com.k2so.watcher.repository.ScanResultRepository;
+import com.k2so.watcher.util.DiscoveredHost;
+import com.k2so.watcher.util.Ipv4Range;
+import com.k2so.watcher.util.MacAddress;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+class ScanReconcilerTest {
+
+    private static final MacAddress MAC = MacAddress.parse("aa:bb:cc:00:00:01");
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private ScanResultRepository scanResultRepository;
+
+    @Autowired
+    private NetworkScanRepository networkScanRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final DeviceIdentificationService identification = mock(DeviceIdentificationService.class);
+
+    @BeforeEach
+    void identifyEverythingAsSmartphone() {
+        when(identification.identifyDeviceType(any())).thenReturn(DeviceType.SMARTPHONE);
+    }
+
+    @Test
+    void scanWritesOnlyItsOwnColumnsOfExistingDevices() {
+        Device device = new Device();
+        device.setMacAddress(MAC);
+        device.setIpAddress("10.0.0.10");
+        device.setHostname("old-host");
+        device.setVendor("Old Vendor");
+        Long id = deviceRepository.saveAndFlush(device).getId();
+
+        // The scan starts from a snapshot of the inventory...
+        DeviceIndex snapshot = new DeviceIndex(deviceRepository.findAll());
+        flushAndClear();
+
+        // ...while the user edits the device and a presence check marks it online
+        Device edited = deviceRepository.findById(id).orElseThrow();
+        edited.setCustomName("Kitchen tablet");
+        edited.setKnown(true);
+        edited.setTrusted(true);
+        edited.setPinned(true);
+        edited.setDeviceType(DeviceType.TABLET);
+        deviceRepository.saveAndFlush(edited);
+        deviceRepository.markSeen(List.of(id), LocalDateTime.now());
+        flushAndClear();
+
+        ScanReconciler reconciler = reconciler(snapshot);
+        reconciler.reconcile(host("10.0.0.20", MAC, "new-host"));
+        reconciler.flush();
+        flushAndClear();
+
+        Device stored = deviceRepository.findById(id).orElseThrow();
+        assertThat(stored.getIpAddress()).isEqualTo("10.0.0.20");
+        assertThat(stored.getIpNumeric()).isEqualTo(Ipv4Range.toNumeric("10.0.0.20"));
+        assertThat(stored.getHostname()).isEqualTo("new-host");
+        assertThat(stored.getCustomName()).isEqualTo("Kitchen tablet");
+        assertThat(stored.isKnown()).isTrue();
+        assertThat(stored.isTrusted()).isTrue();
+        assertThat(stored.isPinned()).isTrue();
+        assertThat(stored.isOnline()).isTrue();
+        // Detected as a smartphone from the snapshot's UNKNOWN type, but the user's choice stands
+        assertThat(stored.getDeviceType()).isEqualTo(DeviceType.TABLET);
+    }
+
+    @Test
+    void detectedTypeIsStoredWhileTheDeviceHasNone() {
+        Device device = new Device();
+        device.setMacAddress(MAC);
+        device.setIpAddress("10.0.0.10");
+        Long id = deviceRepository.saveAndFlush(device).getId();
+        DeviceIndex snapshot = new DeviceIndex(deviceRepository.findAll());
+        flushAndClear();
+
+        ScanReconciler reconciler = reconciler(snapshot);
+        reconciler.reconcile(host("10.0.0.10", MAC, null));
+        reconciler.flush();
+        flushAndClear();
+
+        Device stored = deviceRepository.findById(id).orElseThrow();
+        assertThat(stored.getDeviceType()).isEqualTo(DeviceType.SMARTPHONE);
+        assertThat(stored.getHostname()).isNull();
+    }
+
+    @Test
+    void newDevicesAreInsertedAndReportedAsSeen() {
+        ScanReconciler reconciler = reconciler(new DeviceIndex(List.of()));
+        reconciler.reconcile(host("10.0.0.30", MAC, "phone"));
+        reconciler.reconcile(host("10.0.0.31", null, null));
+        reconciler.flush();
+        flushAndClear();
+
+        Set<Long> seen = reconciler.getSeenDeviceIds();
+        assertThat(seen).hasSize(2);
+        assertThat(reconciler.getNewDevices()).isEqualTo(2);
+        assertThat(deviceRepository.findAllById(seen))
+                .extracting(Device::getIpAddress)
+                .containsExactlyInAnyOrder("10.0.0.30", "10.0.0.31");
+        assertThat(deviceRepository.findByIpAddress("10.0.0.31").orElseThrow().getMacAddress().isPlaceholder())
+                .isTrue();
+    }
+
+    @Test
+    void crossVlanDeviceTakesTheRealMacWhenItShowsUp() {
+        ScanReconciler first = reconciler(new DeviceIndex(List.of()));
+        first.reconcile(host("10.0.1.5", null, "nas"));
+        first.flush();
+        flushAndClear();
+        Long id = deviceRepository.findByIpAddress("10.0.1.5").orElseThrow().getId();
+
+        ScanReconciler second = reconciler(new DeviceIndex(deviceRepository.findAll()));
+        second.reconcile(host("10.0.1.5", MAC, null));
+        second.flush();
+        flushAndClear();
+
+        assertThat(second.getNewDevices()).isZero();
+        assertThat(second.getSeenDeviceIds()).containsExactly(id);
+        Device stored = deviceRepository.findById(id).orElseThrow();
+        assertThat(stored.getMacAddress()).isEqualTo(MAC);
+        assertThat(stored.getHostname()).isEqualTo("nas");
+    }
+
+    @Test
+    void conflictingAndDuplicateHostsAreSkipped() {
+        Device device = new Device();
+        device.setMacAddress(MAC);
+        device.setIpAddress("10.0.0.10");
+        deviceRepository.saveAndFlush(device);
+        DeviceIndex snapshot = new DeviceIndex(deviceRepository.findAll());
+        flushAndClear();
+
+        MacAddress other = MacAddress.parse("aa:bb:cc:00:00:02");
+        ScanReconciler reconciler = reconciler(snapshot);
+        reconciler.reconcile(host("10.0.0.10", other, null));
+        reconciler.reconcile(host("10.0.0.10", MAC, null));
+        reconciler.reconcile(host("10.0.0.11", MAC, null));
+        reconciler.reconcile(host("10.0.0.12", other, null));
+        reconciler.reconcile(host("10.0.0.12", null, null));
+        reconciler.flush();
+        flushAndClear();
+
+        // The first host claims the IP of another real MAC and is skipped; the second repeats its IP and the
+        // fourth its MAC. The known MAC moves to a new IP and the host without a MAC becomes a new device.
+        assertThat(reconciler.getSkippedDevices()).isEqualTo(1);
+        assertThat(reconciler.getSkippedLog()).contains("IP 10.0.0.10 (MAC: AA:BB:CC:00:00:02)");
+        assertThat(reconciler.getNewDevices()).isEqualTo(1);
+        assertThat(deviceRepository.findAll())
+                .extracting(Device::getMacAddress, Device::getIpAddress)
+                .containsExactlyInAnyOrder(tuple(MAC, "10.0.0.11"),
+                        tuple(MacAddress.placeholderFor(Ipv4Range.parseAddress("10.0.0.12")), "10.0.0.12"));
+    }
+
+    @Test
+    void batchesAreWrittenWithScanResultsAndNewDevicesAreReported() {
+        NetworkScan newScan = new NetworkScan();
+        newScan.setScanType("TEST");
+        NetworkScan scan = networkScanRepository.saveAndFlush(newScan);
+        List<Long> reported = new ArrayList<>();
+        ScanReconciler reconciler = new ScanReconciler(scan, new DeviceIndex(List.of()), deviceRepository,
+                scanResultRepository, new MacVendorService(), identification, reported::add, 2);
+
+        for (int i = 1; i <= 5; i++) {
+            reconciler.reconcile(host("10.0.2." + i, MacAddress.of(MAC.toLong() + i), null));
+        }
+        // Two full batches were written while hosts came in; the last host waits for flush
+        assertThat(reported).hasSize(4);
+        reconciler.flush();
+        flushAndClear();
+
+        assertThat(reported).containsExactlyInAnyOrderElementsOf(reconciler.getSeenDeviceIds());
+        assertThat(scanResultRepository.findAll())
+                .hasSize(5)
+                .allSatisfy(result -> {
+                    assertThat(result.getNetworkScan().getId()).isEqualTo(scan.getId());
+                    assertThat(result.isNewDevice()).isTrue();
+                });
+    }
+
+    // Detaches everything, as the scan thread's snapshot is detached in production
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private ScanReconciler reconciler(DeviceIndex index) {
+        return new ScanReconciler(null, index, deviceRepository, scanResultRepository, new MacVendorService(),
+                identification, id -> { }, 50);
+    }
+
+    private static DiscoveredHost host(String ip, MacAddress mac, String hostname) {
+        return new DiscoveredHost(Ipv4Range.parseAddress(ip), mac != null ? mac.toLong() : DiscoveredHost.NO_MAC,
+                null, hostname);
+    }
+}
@@ -0,0 +1,181 @@
+package com.k2so.watcher.service;
+
+import com.k2so.watcher.model.DeviceType;
+import com.k2so.watcher.model.NetworkScan;
+import com.k2so.watcher.repository.DeviceRepository;
+import com.k2so.watcher.repository.NetworkScanRepository;
+import com.k2so.watcher.repository.ScanResultRepository;
+import com.k2so.watcher.util.DiscoveredHost;
+import com.k2so.watcher.util.Ipv4Range;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Write cost of reconciling a synthetic 5,000-host scan with the IDENTITY ids devices and scan results used to have
+ * and with the pooled sequences that replaced them. Each configuration runs a first scan, which inserts every device
+ * and scan result, and a rescan where every host moved to a new address, which updates every device and inserts a
+ * second set of results. Writes go through {@link ScanReconciler} as in {@code performScan}, without a surrounding
+ * transaction, against a file database like the application's. The baseline maps both ids back to IDENTITY through
+ * {@code benchmark/identity-ids-orm.xml}; Hibernate cannot batch those inserts, since it needs each generated id.
+ *
+ * <p>Run with {@code mvn -Pbenchmark test -Dtest='ScanWriteBenchmark$Identity'} (and {@code $Sequences}), one
+ * configuration per JVM, after deleting {@code target/benchmark}. Medians of ten measured rounds after one warm-up,
+ * from three runs each on a single-core container (JDK 17, H2 2.2.224):
+ * <pre>
+ *                    first scan                        rescan
+ * IDENTITY ids       2,205 / 2,300 / 2,395 ms  10,001    1,575 / 1,751 / 1,491 ms  5,002
+ * pooled sequences   1,808 / 1,737 / 1,492 ms     401    1,457 / 1,311 / 1,168 ms    202
+ * </pre>
+ * The statement counts are Hibernate's and exact. They leave out the device updates of the rescan, which
+ * {@link DeviceRepository#updateScanFields} sends as JDBC batches of up to 50 rows (100 batches) in both
+ * configurations, so the rescan difference comes from the scan result inserts alone. H2 runs in-process, so each
+ * statement saved is a call rather than a network round trip.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "logging.level.com.k2so.watcher.service.ScanReconciler=WARN",
+        "logging.level.com.k2so.watcher.service.ScanWriteBenchmark=INFO"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ScanWriteBenchmark {
+
+    private static final int HOSTS = 5_000;
+    private static final int WRITE_BATCH_SIZE = 50;
+    private static final int ROUNDS = 10;
+
+    private static final Logger logger = LoggerFactory.getLogger(ScanWriteBenchmark.class);
+
+    @Nested
+    @TestPropertySource(properties = {
+            "spring.datasource.url=jdbc:h2:file:./target/benchmark/scan-writes-identity",
+            "spring.jpa.mapping-resources=benchmark/identity-ids-orm.xml"
+    })
+    class Identity extends ScanWrites {
+        Identity() {
+            super("IDENTITY ids");
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "spring.datasource.url=jdbc:h2:file:./target/benchmark/scan-writes-sequences")
+    class Sequences extends ScanWrites {
+        Sequences() {
+            super("pooled sequences");
+        }
+    }
+
+    abstract static class ScanWrites {
+
+        private final String label;
+
+        @Autowired
+        private DeviceRepository deviceRepository;
+
+        @Autowired
+        private ScanResultRepository scanResultRepository;
+
+        @Autowired
+        private NetworkScanRepository networkScanRepository;
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        private final DeviceIdentificationService identification = mock(DeviceIdentificationService.class);
+
+        ScanWrites(String label) {
+            this.label = label;
+        }
+
+        @BeforeEach
+        void identifyEverythingAsUnknown() {
+            when(identification.identifyDeviceType(any())).thenReturn(DeviceType.UNKNOWN);
+        }
+
+        @Test
+        void reconcileFiveThousandHosts() {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            // The first round warms up the JIT, connection pool and sequence caches and is not reported
+            List<long[]> rounds = new ArrayList<>();
+            for (int round = 0; round <= ROUNDS; round++) {
+                clear();
+                long[] measured = new long[4];
+                statistics.clear();
+                measured[0] = timeScan(0);
+                measured[1] = statistics.getPrepareStatementCount();
+                assertThat(deviceRepository.count()).isEqualTo(HOSTS);
+
+                statistics.clear();
+                measured[2] = timeScan(1);
+                measured[3] = statistics.getPrepareStatementCount();
+                assertThat(scanResultRepository.count()).isEqualTo(2L * HOSTS);
+                if (round > 0) {
+                    rounds.add(measured);
+                }
+            }
+
+            logger.info("{}: first scan median {} ms, {} statements; rescan median {} ms, {} statements",
+                    label, median(rounds, 0), rounds.get(0)[1], median(rounds, 2), rounds.get(0)[3]);
+        }
+
+        private static long median(List<long[]> rounds, int column) {
+            long[] times = rounds.stream().mapToLong(measured -> measured[column]).sorted().toArray();
+            int middle = times.length / 2;
+            return times.length % 2 == 0 ? (times[middle - 1] + times[middle]) / 2 : times[middle];
+        }
+
+        /**
+         * Reconciles every host and flushes; hosts get the second /16 on the rescan so every device changes.
+         */
+        private long timeScan(int subnet) {
+            NetworkScan scan = new NetworkScan();
+            scan.setScanType("BENCHMARK");
+            scan.setStatus("RUNNING");
+            scan = networkScanRepository.save(scan);
+
+            ScanReconciler reconciler = new ScanReconciler(scan,
+                    new DeviceIndex(subnet == 0 ? List.of() : deviceRepository.findAll()),
+                    deviceRepository, scanResultRepository, new MacVendorService(), identification,
+                    id -> { }, WRITE_BATCH_SIZE);
+            int base = Ipv4Range.parseAddress("10." + subnet + ".0.0");
+
+            long started = System.nanoTime();
+            for (int i = 0; i < HOSTS; i++) {
+                reconciler.reconcile(new DiscoveredHost(base + i, 0x00_1A_2B_00_00_00L + i, "Vendor",
+                        "host-" + subnet + "-" + i));
+            }
+            reconciler.flush();
+            return (System.nanoTime() - started) / 1_000_000;
+        }
+
+        private void clear() {
+            scanResultRepository.deleteAllInBatch();
+            deviceRepository.deleteAllInBatch();
+            networkScanRepository.deleteAllInBatch();
+        }
+    }
+}
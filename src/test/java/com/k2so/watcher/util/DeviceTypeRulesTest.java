@@ -0,0 +1,77 @@
+package com.k2so.watcher.util;
+
+import com.k2so.watcher.model.DeviceType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeviceTypeRulesTest {
+
+    @Test
+    void bundledHostnameRulesAgreeWithTheContainsChainTheyReplaced() throws IOException {
+        DeviceTypeRules rules = HostnameClassifierBenchmark.bundledRules();
+
+        // Names where the chain's order decides between several matching keywords
+        List<String> overlapping = List.of("iPhone-server", "ipad-pro-hp-printer", "Synology-DS-pi", "nest-hub-tv",
+                "xbox-switch", "hue-echo", "gateway-ap-1", "canon-pc", "raspberrypi", "Chromecast-living-room-tv",
+                "esp_3a4f1c", "");
+        for (String hostname : overlapping) {
+            assertThat(rules.classifyHostname(hostname)).as(hostname)
+                    .isEqualTo(LegacyHostnameClassifier.classify(hostname));
+        }
+        for (String hostname : HostnameCorpus.generate(20_000, 2)) {
+            assertThat(rules.classifyHostname(hostname)).as(hostname)
+                    .isEqualTo(LegacyHostnameClassifier.classify(hostname));
+        }
+    }
+
+    @Test
+    void bundledDescriptionRulesPreferEarlierLines() throws IOException {
+        DeviceTypeRules rules = HostnameClassifierBenchmark.bundledRules();
+
+        assertThat(rules.classifyDescription("This is a network switch in a server rack"))
+                .isEqualTo(DeviceType.SWITCH);
+        assertThat(rules.classifyDescription("Raspberry Pi running Home Assistant")).isEqualTo(DeviceType.SERVER);
+        assertThat(rules.classifyDescription("Unidentified device")).isNull();
+    }
+
+    @Test
+    void parsesSectionsAndIgnoresCommentsAndBlankKeywords() throws IOException {
+        DeviceTypeRules rules = DeviceTypeRules.parse(new StringReader("""
+                # comment
+                [hostname]
+                  NAS : nas , , diskstation
+                [ description ]
+                PRINTER: printer
+                """));
+
+        assertThat(rules.classifyHostname("DiskStation")).isEqualTo(DeviceType.NAS);
+        assertThat(rules.classifyHostname("printer")).isNull();
+        assertThat(rules.classifyDescription("a printer")).isEqualTo(DeviceType.PRINTER);
+        assertThat(rules).hasToString("1 hostname rules (2 keywords), 1 description rules (1 keywords)");
+    }
+
+    @Test
+    void reportsTheLineOfMalformedRules() {
+        assertThatThrownBy(() -> parse("[hostname]\nNAS: nas\nTOASTER: toast\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Line 3: unknown device type TOASTER");
+        assertThatThrownBy(() -> parse("NAS: nas\n"))
+                .hasMessage("Line 1: rule outside of a section");
+        assertThatThrownBy(() -> parse("[hostnames]\n"))
+                .hasMessage("Line 1: unknown section [hostnames]");
+        assertThatThrownBy(() -> parse("[hostname]\n\nNAS nas\n"))
+                .hasMessage("Line 3: expected <DEVICE_TYPE>: keywords");
+        assertThatThrownBy(() -> parse("[hostname]\nNAS: naß\n"))
+                .hasMessageStartingWith("Line 2: Keyword is not ASCII");
+    }
+
+    private static DeviceTypeRules parse(String text) throws IOException {
+        return DeviceTypeRules.parse(new StringReader(text));
+    }
+}
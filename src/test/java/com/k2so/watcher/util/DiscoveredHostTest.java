@@ -0,0 +1,78 @@
+package com.k2so.watcher.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiscoveredHostTest {
+
+    @Test
+    void parsesAHostLine() {
+        DiscoveredHost host = DiscoveredHost.parseArpScanLine(
+                "192.168.1.10\t00:1a:2b:3c:4d:5e\tRaspberry Pi Trading Ltd");
+
+        assertThat(host.ipAddress()).isEqualTo("192.168.1.10");
+        assertThat(host.macAddress()).isEqualTo(MacAddress.parse("00:1A:2B:3C:4D:5E"));
+        assertThat(host.vendor()).isEqualTo("Raspberry Pi Trading Ltd");
+        // No lookup done yet
+        assertThat(host.hostname()).isNull();
+    }
+
+    @Test
+    void headerAndFooterLinesAreNotHosts() {
+        List<String> lines = List.of(
+                "Interface: eth0, type: EN10MB, MAC: 00:1a:2b:00:00:01, IPv4: 192.168.1.2",
+                "Starting arp-scan 1.9.7 with 256 hosts (https://github.com/royhills/arp-scan)",
+                "",
+                "3 packets received by filter, 0 packets dropped by kernel",
+                "Ending arp-scan 1.9.7: 256 hosts scanned in 1.945 seconds (131.62 hosts/sec). 3 responded");
+
+        for (String line : lines) {
+            assertThat(DiscoveredHost.parseArpScanLine(line)).as(line).isNull();
+        }
+    }
+
+    @Test
+    void duplicateRepliesParseAsTheSameAddress() {
+        // Filtered out by the reconciler, which keeps the first host per IP
+        DiscoveredHost first = DiscoveredHost.parseArpScanLine("192.168.1.20\t00:1a:2b:00:00:20\tAcme");
+        DiscoveredHost duplicate = DiscoveredHost.parseArpScanLine("192.168.1.20\t00:1a:2b:00:00:21\tAcme (DUP: 2)");
+
+        assertThat(duplicate.ip()).isEqualTo(first.ip());
+        assertThat(duplicate.macAddress()).isEqualTo(MacAddress.parse("00:1A:2B:00:00:21"));
+        assertThat(duplicate.vendor()).isEqualTo("Acme (DUP: 2)");
+    }
+
+    @Test
+    void vendorIsTheRestOfTheLineWithInnerTabsKept() {
+        DiscoveredHost host = DiscoveredHost.parseArpScanLine(
+                "  10.0.0.1 \t 00-1A-2B-00-00-01\tAcme\tNetworks Inc. \t\r");
+        assertThat(host.vendor()).isEqualTo("Acme\tNetworks Inc.");
+
+        assertThat(DiscoveredHost.parseArpScanLine("10.0.0.1\t00:1a:2b:00:00:01").vendor()).isNull();
+        assertThat(DiscoveredHost.parseArpScanLine("10.0.0.1\t00:1a:2b:00:00:01\t  ").vendor()).isNull();
+    }
+
+    @Test
+    void malformedLinesAreRejected() {
+        List<String> lines = List.of(
+                "   ",
+                "192.168.1.5",
+                "192.168.1.5\t",
+                "192.168.1.256\t00:1a:2b:00:00:01\tAcme",
+                "192.168.1\t00:1a:2b:00:00:01\tAcme",
+                "1.2.3.4.5\t00:1a:2b:00:00:01\tAcme",
+                "1..2.3\t00:1a:2b:00:00:01\tAcme",
+                "0001.2.3.4\t00:1a:2b:00:00:01\tAcme",
+                "192.168.1.5x\t00:1a:2b:00:00:01\tAcme",
+                "192.168.1.5\tnot-a-mac\tAcme",
+                "192.168.1.5\t00:1a:2b:00:00\tAcme",
+                "fe80::1\t00:1a:2b:00:00:01\tAcme");
+
+        for (String line : lines) {
+            assertThat(DiscoveredHost.parseArpScanLine(line)).as(line).isNull();
+        }
+    }
+}
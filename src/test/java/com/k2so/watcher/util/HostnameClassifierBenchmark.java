@@ -0,0 +1,96 @@
+package com.k2so.watcher.util;
+
+import com.k2so.watcher.model.DeviceType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classifies a 100,000-hostname {@link HostnameCorpus} with the bundled compiled rules and with the
+ * {@code toLowerCase} + {@code contains} chain they replaced. One operation is the whole corpus.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dtest=HostnameClassifierBenchmark}. On a single-core container (JDK 17):
+ * <pre>
+ * Benchmark                                 Mode  Cnt   Score   Error  Units
+ * HostnameClassifierBenchmark.compiledRules avgt    5   5.784 ± 1.801  ms/op
+ * HostnameClassifierBenchmark.containsChain avgt    5  28.792 ± 8.730  ms/op
+ * </pre>
+ * Both return the same type for every hostname of the corpus; setup fails otherwise.
+ */
+@Tag("benchmark")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HostnameClassifierBenchmark {
+
+    static final int CORPUS_SIZE = 100_000;
+
+    private List<String> corpus;
+    private DeviceTypeRules rules;
+
+    @Setup
+    public void setUp() throws IOException {
+        corpus = HostnameCorpus.generate(CORPUS_SIZE, 1);
+        rules = bundledRules();
+        for (String hostname : corpus) {
+            DeviceType compiled = rules.classifyHostname(hostname);
+            DeviceType legacy = LegacyHostnameClassifier.classify(hostname);
+            if (!Objects.equals(compiled, legacy)) {
+                throw new IllegalStateException(hostname + ": rules say " + compiled + ", contains chain " + legacy);
+            }
+        }
+    }
+
+    @Benchmark
+    public void compiledRules(Blackhole blackhole) {
+        for (String hostname : corpus) {
+            blackhole.consume(rules.classifyHostname(hostname));
+        }
+    }
+
+    @Benchmark
+    public void containsChain(Blackhole blackhole) {
+        for (String hostname : corpus) {
+            blackhole.consume(LegacyHostnameClassifier.classify(hostname));
+        }
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(HostnameClassifierBenchmark.class.getName() + "\\.")
+                .build())
+                .run();
+    }
+
+    static DeviceTypeRules bundledRules() throws IOException {
+        try (Reader reader = new InputStreamReader(Objects.requireNonNull(
+                HostnameClassifierBenchmark.class.getResourceAsStream("/device-type-rules.txt")),
+                StandardCharsets.UTF_8)) {
+            return DeviceTypeRules.parse(reader);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.k2so.watcher.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic hostnames shaped like those found on home and office networks: device names with an
+ * owner or room ({@code Johns-iPhone}, {@code living-room-tv}), vendor defaults with serials
+ * ({@code DESKTOP-4F7QK2M}, {@code BRW0017F2A3C4D5}), and names without any keyword ({@code esp_3a4f1c}).
+ */
+final class HostnameCorpus {
+
+    private static final String[] OWNERS = {"johns", "Marias", "alex", "SAMS", "kitchen", "living-room", "office",
+            "garage", "kids", "guest", "den", "upstairs"};
+    private static final String[] DEVICES = {"iPhone", "android", "Galaxy-S21", "Pixel-7", "iPad", "tablet",
+            "MacBook-Pro", "laptop", "notebook", "DESKTOP", "pc", "iMac", "mac-mini", "printer", "EPSON", "Canon",
+            "HP-LaserJet", "Brother", "tv", "SmartTV", "Roku", "FireTV", "Chromecast", "AppleTV", "PlayStation-5",
+            "XBOX", "Nintendo-Switch", "nas", "Synology", "QNAP", "Drobo", "camera", "cam-front", "ipcam", "Nest",
+            "Echo-Dot", "alexa", "Home-Mini", "HomePod", "Hue-Bridge", "SmartThings", "server", "srv", "raspberrypi",
+            "router", "gateway", "ap-lobby", "AccessPoint"};
+    private static final String[] PLAIN = {"esp_", "host-", "unifi-", "tasmota-", "shelly-", "wlan0-", "device-",
+            "lwip-", "Lenovo-", "DELL-", "sonoff-", "ring-"};
+
+    private HostnameCorpus() {
+    }
+
+    /**
+     * {@code count} hostnames; about 40 % contain a rule keyword.
+     */
+    static List<String> generate(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> hostnames = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int kind = random.nextInt(10);
+            String hostname;
+            if (kind < 3) {
+                hostname = OWNERS[random.nextInt(OWNERS.length)] + "-" + DEVICES[random.nextInt(DEVICES.length)];
+            } else if (kind < 4) {
+                hostname = DEVICES[random.nextInt(DEVICES.length)] + "-" + serial(random, 6);
+            } else if (kind < 6) {
+                hostname = PLAIN[random.nextInt(PLAIN.length)] + serial(random, 6 + random.nextInt(7));
+            } else if (kind < 8) {
+                hostname = serial(random, 8 + random.nextInt(8));
+            } else {
+                hostname = OWNERS[random.nextInt(OWNERS.length)] + "-" + PLAIN[random.nextInt(PLAIN.length)]
+                        + serial(random, 4);
+            }
+            hostnames.add(random.nextInt(4) == 0 ? hostname.toUpperCase(Locale.ROOT) : hostname);
+        }
+        return hostnames;
+    }
+
+    private static String serial(Random random, int length) {
+        StringBuilder serial = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            serial.append(Character.forDigit(random.nextInt(36), 36));
+        }
+        return serial.toString();
+    }
+}
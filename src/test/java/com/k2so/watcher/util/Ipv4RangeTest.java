@@ -0,0 +1,96 @@
+package com.k2so.watcher.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Ipv4RangeTest {
+
+    @Test
+    void parsesCidrBlocksIgnoringHostBits() {
+        Ipv4Range range = Ipv4Range.parse(" 10.0.0.7/24 ");
+
+        assertThat(range).isEqualTo(Ipv4Range.parse("10.0.0.0/24"));
+        assertThat(Ipv4Range.format(range.getFirst())).isEqualTo("10.0.0.0");
+        assertThat(Ipv4Range.format(range.getLast())).isEqualTo("10.0.0.255");
+        assertThat(range.size()).isEqualTo(256);
+        assertThat(range).hasToString("10.0.0.0/24");
+        assertThat(Ipv4Range.parse("192.168.1.5")).isEqualTo(Ipv4Range.single(Ipv4Range.parseAddress("192.168.1.5")));
+    }
+
+    @Test
+    void comparesAddressesAboveTheSignBitAsUnsigned() {
+        Ipv4Range all = Ipv4Range.parse("0.0.0.0/0");
+        Ipv4Range high = Ipv4Range.parse("200.1.2.0/24");
+
+        assertThat(all.size()).isEqualTo(1L << 32);
+        assertThat(all.getLastNumeric()).isEqualTo(0xFFFF_FFFFL);
+        assertThat(high.getFirstNumeric()).isEqualTo(Ipv4Range.toNumeric("200.1.2.0"));
+        assertThat(high.contains("200.1.2.99")).isTrue();
+        assertThat(high.contains("10.1.2.99")).isFalse();
+        assertThat(all.contains(high)).isTrue();
+    }
+
+    @Test
+    void rejectsMalformedAddressesAndPrefixes() {
+        for (String invalid : List.of("10.0.0", "10.0.0.256", "10..0.1", "10.0.0.1.", "10.0.0.0001", "a.b.c.d", "")) {
+            assertThatThrownBy(() -> Ipv4Range.parseAddress(invalid))
+                    .as(invalid)
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThat(Ipv4Range.toNumeric(invalid)).as(invalid).isNull();
+        }
+        assertThatThrownBy(() -> Ipv4Range.parse("10.0.0.0/33")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Ipv4Range.parse("10.0.0.0/x")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Ipv4Range.of(2, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(Ipv4Range.parse("10.0.0.0/8").contains("not an address")).isFalse();
+    }
+
+    @Test
+    void hostsDropNetworkAndBroadcastOnlyForRealSubnets() {
+        assertThat(Ipv4Range.parse("10.0.0.0/24").hosts()).hasToString("10.0.0.1-10.0.0.254");
+        assertThat(Ipv4Range.parse("10.0.0.0/31").hosts()).isEqualTo(Ipv4Range.parse("10.0.0.0/31"));
+        assertThat(Ipv4Range.parse("10.0.0.9/32").hosts()).isEqualTo(Ipv4Range.parse("10.0.0.9"));
+
+        Ipv4Range arbitrary = range("10.0.0.3", "10.0.0.9");
+        assertThat(arbitrary.hosts()).isEqualTo(arbitrary);
+    }
+
+    @Test
+    void subtractsExclusionsIntoSortedPieces() {
+        Ipv4Range subnet = Ipv4Range.parse("10.0.0.0/24");
+
+        assertThat(subnet.subtract(range("10.0.0.10", "10.0.0.19")))
+                .containsExactly(range("10.0.0.0", "10.0.0.9"), range("10.0.0.20", "10.0.0.255"));
+        assertThat(subnet.subtract(Ipv4Range.parse("10.0.0.0/23"))).isEmpty();
+        assertThat(subnet.subtract(Ipv4Range.parse("10.0.1.0/24"))).containsExactly(subnet);
+
+        List<Ipv4Range> remaining = Ipv4Range.subtractAll(
+                List.of(Ipv4Range.parse("10.0.1.0/24"), subnet),
+                List.of(Ipv4Range.parse("10.0.0.1"), range("10.0.0.128", "10.0.1.127")));
+        assertThat(remaining).containsExactly(
+                Ipv4Range.parse("10.0.0.0"),
+                range("10.0.0.2", "10.0.0.127"),
+                range("10.0.1.128", "10.0.1.255"));
+    }
+
+    @Test
+    void iteratesEveryAddressOfSeveralRangesInOrder() {
+        Ipv4Range top = range("255.255.255.254", "255.255.255.255");
+        PrimitiveIterator.OfInt addresses = Ipv4Range.iterator(List.of(range("10.0.0.1", "10.0.0.3"), top));
+
+        List<String> seen = new ArrayList<>();
+        addresses.forEachRemaining((int address) -> seen.add(Ipv4Range.format(address)));
+
+        assertThat(seen).containsExactly("10.0.0.1", "10.0.0.2", "10.0.0.3", "255.255.255.254", "255.255.255.255");
+        assertThat(addresses.hasNext()).isFalse();
+    }
+
+    private static Ipv4Range range(String first, String last) {
+        return Ipv4Range.of(Ipv4Range.parseAddress(first), Ipv4Range.parseAddress(last));
+    }
+}
@@ -0,0 +1,75 @@
+package com.k2so.watcher.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeywordClassifierTest {
+
+    @Test
+    void findsKeywordsAnywhereIgnoringAsciiCase() {
+        KeywordClassifier<String> classifier = KeywordClassifier.<String>builder()
+                .rule("phone", 0, List.of("iPhone", "android"))
+                .rule("tv", 1, List.of("-tv"))
+                .build();
+
+        assertThat(classifier.classify("Johns-IPHONE-12")).isEqualTo("phone");
+        assertThat(classifier.classify("living-room-TV")).isEqualTo("tv");
+        assertThat(classifier.classify("tv-living-room")).isNull();
+        assertThat(classifier.classify("")).isNull();
+        assertThat(classifier.classify(null)).isNull();
+        assertThat(classifier.getRuleCount()).isEqualTo(2);
+        assertThat(classifier.getKeywordCount()).isEqualTo(3);
+    }
+
+    @Test
+    void lowestPriorityWinsRegardlessOfPosition() {
+        KeywordClassifier<String> classifier = KeywordClassifier.<String>builder()
+                .rule("late", 5, List.of("server"))
+                .rule("early", 1, List.of("pi"))
+                .rule("tie", 5, List.of("ser"))
+                .build();
+
+        assertThat(classifier.classify("server-pi")).isEqualTo("early");
+        assertThat(classifier.classify("pi-server")).isEqualTo("early");
+        // Equal priorities go to the rule added first
+        assertThat(classifier.classify("server")).isEqualTo("late");
+        assertThat(classifier.classify("router")).isNull();
+    }
+
+    @Test
+    void matchesKeywordsThatEndInsideLongerPartialMatches() {
+        // "hue" ends inside "echue"; "echo" fails on 'u' and must fall back through the suffix links
+        KeywordClassifier<String> classifier = KeywordClassifier.<String>builder()
+                .rule("echo", 0, List.of("echo"))
+                .rule("hue", 1, List.of("hue"))
+                .rule("nas", 2, List.of("nas"))
+                .build();
+
+        assertThat(classifier.classify("echue")).isEqualTo("hue");
+        assertThat(classifier.classify("ecnas")).isEqualTo("nas");
+        assertThat(classifier.classify("eechoo")).isEqualTo("echo");
+    }
+
+    @Test
+    void nonAsciiInputBreaksMatchesWithoutFailing() {
+        KeywordClassifier<String> classifier = KeywordClassifier.<String>builder()
+                .rule("tv", 0, List.of("smarttv"))
+                .build();
+
+        assertThat(classifier.classify("Télé-smartTV")).isEqualTo("tv");
+        assertThat(classifier.classify("smartétv")).isNull();
+    }
+
+    @Test
+    void rejectsKeywordsItCannotMatch() {
+        assertThatThrownBy(() -> KeywordClassifier.<String>builder().rule("x", 0, List.of("")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeywordClassifier.<String>builder().rule("x", 0, List.of("télé")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("not ASCII");
+    }
+}
@@ -0,0 +1,70 @@
+package com.k2so.watcher.util;
+
+import com.k2so.watcher.model.DeviceType;
+
+/**
+ * The hostname checks {@code DeviceIdentificationService} ran before the keyword rules were compiled: lower-case
+ * the name, then one {@code contains} chain per device type in a fixed order. Kept as the reference the bundled
+ * rules must agree with and as the baseline of {@link HostnameClassifierBenchmark}.
+ */
+final class LegacyHostnameClassifier {
+
+    private LegacyHostnameClassifier() {
+    }
+
+    static DeviceType classify(String hostname) {
+        String lowerHostname = hostname.toLowerCase();
+
+        if (lowerHostname.contains("iphone") || lowerHostname.contains("android") ||
+            lowerHostname.contains("galaxy") || lowerHostname.contains("pixel")) {
+            return DeviceType.SMARTPHONE;
+        }
+        if (lowerHostname.contains("ipad") || lowerHostname.contains("tablet")) {
+            return DeviceType.TABLET;
+        }
+        if (lowerHostname.contains("macbook") || lowerHostname.contains("laptop") ||
+            lowerHostname.contains("notebook")) {
+            return DeviceType.LAPTOP;
+        }
+        if (lowerHostname.contains("desktop") || lowerHostname.contains("pc") ||
+            lowerHostname.contains("imac") || lowerHostname.contains("mac-mini")) {
+            return DeviceType.COMPUTER;
+        }
+        if (lowerHostname.contains("printer") || lowerHostname.contains("epson") ||
+            lowerHostname.contains("canon") || lowerHostname.contains("hp-") ||
+            lowerHostname.contains("brother")) {
+            return DeviceType.PRINTER;
+        }
+        if (lowerHostname.contains("-tv") || lowerHostname.contains("smarttv") ||
+            lowerHostname.contains("roku") || lowerHostname.contains("firetv") ||
+            lowerHostname.contains("chromecast") || lowerHostname.contains("appletv")) {
+            return DeviceType.SMART_TV;
+        }
+        if (lowerHostname.contains("playstation") || lowerHostname.contains("xbox") ||
+            lowerHostname.contains("nintendo") || lowerHostname.contains("switch")) {
+            return DeviceType.GAMING_CONSOLE;
+        }
+        if (lowerHostname.contains("nas") || lowerHostname.contains("synology") ||
+            lowerHostname.contains("qnap") || lowerHostname.contains("drobo")) {
+            return DeviceType.NAS;
+        }
+        if (lowerHostname.contains("camera") || lowerHostname.contains("cam-") ||
+            lowerHostname.contains("ipcam") || lowerHostname.contains("nest")) {
+            return DeviceType.CAMERA;
+        }
+        if (lowerHostname.contains("echo") || lowerHostname.contains("alexa") ||
+            lowerHostname.contains("home-mini") || lowerHostname.contains("homepod") ||
+            lowerHostname.contains("hue") || lowerHostname.contains("smartthings")) {
+            return DeviceType.SMART_HOME;
+        }
+        if (lowerHostname.contains("server") || lowerHostname.contains("srv") ||
+            lowerHostname.contains("pi") || lowerHostname.contains("raspberry")) {
+            return DeviceType.SERVER;
+        }
+        if (lowerHostname.contains("router") || lowerHostname.contains("gateway") ||
+            lowerHostname.contains("ap-") || lowerHostname.contains("accesspoint")) {
+            return DeviceType.ROUTER;
+        }
+        return null;
+    }
+}
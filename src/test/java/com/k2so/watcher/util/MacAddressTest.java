@@ -0,0 +1,67 @@
+package com.k2so.watcher.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MacAddressTest {
+
+    private static final long VALUE = 0xAABBCCDDEEFFL;
+
+    @Test
+    void parsesEveryNotationInEitherCase() {
+        for (String text : List.of("aa:bb:cc:dd:ee:ff", "AA-BB-CC-DD-EE-FF", "aabb.ccdd.eeff", "AaBbCcDdEeFf")) {
+            MacAddress mac = MacAddress.parse(text);
+            assertThat(mac.toLong()).as(text).isEqualTo(VALUE);
+            assertThat(mac).as(text).hasToString("AA:BB:CC:DD:EE:FF");
+        }
+        assertThat(MacAddress.parseLong("ip aa:bb:cc:dd:ee:ff dev", 3, 20)).isEqualTo(VALUE);
+    }
+
+    @Test
+    void rejectsMalformedText() {
+        for (String text : List.of("", "aa:bb:cc:dd:ee", "aa:bb-cc:dd:ee:ff", "aa.bb.cc.dd.ee.ff", "gg:bb:cc:dd:ee:ff",
+                "aabb:ccdd:eeff", "aabbccddeef", "aabbccddeeff0")) {
+            assertThat(MacAddress.parseLong(text)).as(text).isEqualTo(MacAddress.INVALID);
+            assertThat(MacAddress.tryParse(text)).as(text).isNull();
+        }
+        assertThat(MacAddress.tryParse(null)).isNull();
+        assertThatThrownBy(() -> MacAddress.parse("(incomplete)")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> MacAddress.of(1L << 48)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void formatsAndRoundTrips() {
+        MacAddress mac = MacAddress.of(0x00_1A_2B_03_04_05L);
+
+        assertThat(mac).hasToString("00:1A:2B:03:04:05");
+        assertThat(MacAddress.parse(mac.toString())).isEqualTo(mac).hasSameHashCodeAs(mac);
+        assertThat(mac.getOui()).isEqualTo(0x001A2B);
+        assertThat(mac.getOuiString()).isEqualTo("00:1A:2B");
+        assertThat(MacAddress.formatOui(0xFFFFFF)).isEqualTo("FF:FF:FF");
+    }
+
+    @Test
+    void decodesAddressBits() {
+        assertThat(MacAddress.parse("02:00:00:00:00:01").isLocallyAdministered()).isTrue();
+        assertThat(MacAddress.parse("00:1A:2B:00:00:01").isLocallyAdministered()).isFalse();
+        assertThat(MacAddress.parse("01:00:5E:00:00:FB").isMulticast()).isTrue();
+        assertThat(MacAddress.parse("FF:FF:FF:FF:FF:FF").isMulticast()).isTrue();
+        assertThat(MacAddress.parse("00:1A:2B:00:00:01").isMulticast()).isFalse();
+    }
+
+    @Test
+    void placeholdersAreLocalUnicastAndCarryTheAddress() {
+        int ip = Ipv4Range.parseAddress("192.168.1.20");
+        MacAddress placeholder = MacAddress.placeholderFor(ip);
+
+        assertThat(placeholder).hasToString("FE:00:C0:A8:01:14");
+        assertThat(placeholder.isPlaceholder()).isTrue();
+        assertThat(placeholder.isLocallyAdministered()).isTrue();
+        assertThat(placeholder.isMulticast()).isFalse();
+        assertThat(MacAddress.parse("FE:01:C0:A8:01:14").isPlaceholder()).isFalse();
+    }
+}
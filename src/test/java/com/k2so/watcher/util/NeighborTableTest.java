@@ -0,0 +1,94 @@
+package com.k2so.watcher.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+
+class NeighborTableTest {
+
+    private static final String PROC_NET_ARP = """
+            IP address       HW type     Flags       HW address            Mask     Device
+            10.0.0.1         0x1         0x2         00:1a:2b:00:00:01     *        eth0
+            10.0.0.2         0x1         0x0         00:00:00:00:00:00     *        eth0
+            10.0.0.3         0x1         0x6         00:1a:2b:00:00:03     *        eth0
+            10.0.0.4         0x1         0x2         00:00:00:00:00:00     *        eth0
+            10.0.0.5         0x1         0x2         garbage               *        eth0
+            10.0.0.6         0x1
+            """;
+
+    private static final String IP_NEIGH = """
+            10.0.0.1 dev eth0 lladdr 00:1a:2b:00:00:01 REACHABLE
+            10.0.0.2 dev eth0 lladdr 00:1a:2b:00:00:02 STALE
+            10.0.0.3 dev eth0 lladdr 00:1a:2b:00:00:03 router DELAY
+            10.0.0.4 dev eth0  FAILED
+            10.0.0.5 dev eth0 lladdr 00:1a:2b:00:00:05 FAILED
+            10.0.0.6 dev eth0  INCOMPLETE
+            10.0.0.7 dev eth0 lladdr 00:1a:2b:00:00:07 PERMANENT
+            fe80::1 dev eth0 lladdr 00:1a:2b:00:00:08 router STALE
+
+            """;
+
+    @Test
+    void procNetArpKeepsOnlyCompletedEntries() throws IOException {
+        Map<String, MacAddress> table = NeighborTable.parseProcNetArp(new StringReader(PROC_NET_ARP));
+
+        // 0x2 is ATF_COM; 0x6 also has ATF_PERM set. 0x0 is incomplete, and zero or invalid MACs are skipped
+        assertThat(table).containsOnly(
+                Map.entry("10.0.0.1", MacAddress.parse("00:1A:2B:00:00:01")),
+                Map.entry("10.0.0.3", MacAddress.parse("00:1A:2B:00:00:03")));
+    }
+
+    @Test
+    void ipNeighSkipsFailedIncompleteAndIpv6Entries() throws IOException {
+        Map<String, MacAddress> table = NeighborTable.parseIpNeigh(new StringReader(IP_NEIGH));
+
+        assertThat(table.keySet()).containsExactlyInAnyOrder("10.0.0.1", "10.0.0.2", "10.0.0.3", "10.0.0.7");
+        assertThat(table.get("10.0.0.3")).isEqualTo(MacAddress.parse("00:1A:2B:00:00:03"));
+    }
+
+    @Test
+    void ipNeighCanBeLimitedToStates() throws IOException {
+        Map<String, MacAddress> table = NeighborTable.parseIpNeigh(new StringReader(IP_NEIGH),
+                Set.of("REACHABLE", "STALE"));
+
+        assertThat(table.keySet()).containsExactlyInAnyOrder("10.0.0.1", "10.0.0.2");
+    }
+
+    @Test
+    void aReadableFileIsPreferredOverIpNeigh(@TempDir Path dir) throws IOException {
+        Path arp = dir.resolve("arp");
+        Files.writeString(arp, PROC_NET_ARP);
+
+        try (MockedStatic<NetworkUtils> utils = Mockito.mockStatic(NetworkUtils.class)) {
+            utils.when(() -> NetworkUtils.executeCommand(any(String[].class))).thenReturn(IP_NEIGH);
+
+            assertThat(NeighborTable.read(arp).keySet()).containsExactlyInAnyOrder("10.0.0.1", "10.0.0.3");
+            utils.verifyNoInteractions();
+        }
+    }
+
+    @Test
+    void ipNeighIsTheFallbackForAnUnreadableFile(@TempDir Path dir) {
+        try (MockedStatic<NetworkUtils> utils = Mockito.mockStatic(NetworkUtils.class)) {
+            utils.when(() -> NetworkUtils.executeCommand(any(String[].class))).thenReturn(IP_NEIGH);
+
+            assertThat(NeighborTable.read(dir.resolve("missing")).keySet())
+                    .containsExactlyInAnyOrder("10.0.0.1", "10.0.0.2", "10.0.0.3", "10.0.0.7");
+            utils.verify(() -> NetworkUtils.executeCommand("ip", "-4", "neigh", "show"));
+
+            // Fresh entries have no file to come from; only ip neigh shows entry states
+            assertThat(NeighborTable.readFresh().keySet()).containsExactlyInAnyOrder("10.0.0.1", "10.0.0.2");
+        }
+    }
+}
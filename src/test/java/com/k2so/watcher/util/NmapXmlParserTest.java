@@ -0,0 +1,94 @@
+package com.k2so.watcher.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NmapXmlParserTest {
+
+    @Test
+    void everyHostElementIsReadInOrder() throws Exception {
+        List<NmapXmlParser.Host> hosts = parseFixture();
+
+        // The hosthint before the first host is not a host
+        assertThat(hosts).extracting(NmapXmlParser.Host::ipAddress)
+                .containsExactly("10.0.0.1", "fd00::2", "10.0.0.3");
+        assertThat(hosts).extracting(NmapXmlParser.Host::isUp).containsExactly(true, true, false);
+    }
+
+    @Test
+    void ipv4IsPreferredAndTheMacComesWithItsVendor() throws Exception {
+        NmapXmlParser.Host router = parseFixture().get(0);
+
+        // Listed after the IPv6 address, still wins
+        assertThat(router.ipAddress()).isEqualTo("10.0.0.1");
+        assertThat(router.macAddress()).isEqualTo("00:1A:2B:00:00:01");
+        assertThat(router.vendor()).isEqualTo("Acme Networks");
+
+        NmapXmlParser.Host ipv6Only = parseFixture().get(1);
+        assertThat(ipv6Only.macAddress()).isNull();
+        assertThat(ipv6Only.vendor()).isNull();
+    }
+
+    @Test
+    void onlyOpenPortsAreReportedOpen() throws Exception {
+        List<NmapXmlParser.Host> hosts = parseFixture();
+        NmapXmlParser.Host router = hosts.get(0);
+
+        assertThat(router.ports()).extracting(NmapXmlParser.Port::portId).containsExactly(22, 23, 80);
+        assertThat(router.openPorts()).extracting(NmapXmlParser.Port::describe).containsExactly(
+                "22/tcp (ssh - OpenSSH 8.9p1 (Ubuntu Linux; protocol 2.0))",
+                "80/tcp (http - nginx)");
+        // open|filtered is not open
+        assertThat(hosts.get(1).ports()).singleElement()
+                .satisfies(port -> assertThat(port.protocol()).isEqualTo("udp"));
+        assertThat(hosts.get(1).openPorts()).isEmpty();
+        assertThat(hosts.get(2).ports()).isEmpty();
+    }
+
+    @Test
+    void osMatchesAndHostnamesAreExtracted() throws Exception {
+        List<NmapXmlParser.Host> hosts = parseFixture();
+
+        NmapXmlParser.Host router = hosts.get(0);
+        assertThat(router.osMatches()).containsExactly(
+                new NmapXmlParser.OsMatch("Linux 5.0 - 5.14", 98),
+                new NmapXmlParser.OsMatch("Linux 4.15 - 5.8", 94));
+        assertThat(router.bestOsMatch().name()).isEqualTo("Linux 5.0 - 5.14");
+        // The user-supplied name wins over the PTR record
+        assertThat(router.hostname()).isEqualTo("gateway");
+
+        // Otherwise the first PTR name is kept
+        assertThat(hosts.get(1).hostname()).isEqualTo("nas.example.net");
+        assertThat(hosts.get(1).bestOsMatch()).isNull();
+        assertThat(hosts.get(2).hostname()).isNull();
+    }
+
+    @Test
+    void truncatedOutputFailsAfterTheCompleteHosts() {
+        String xml = "<nmaprun><host><status state=\"up\"/><address addr=\"10.0.0.1\" addrtype=\"ipv4\"/></host>"
+                + "<host><status state=\"up\"/><address addr=\"10.0.0.2\"";
+        List<NmapXmlParser.Host> hosts = new ArrayList<>();
+
+        assertThatThrownBy(() -> NmapXmlParser.parse(
+                new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), hosts::add))
+                .isInstanceOf(XMLStreamException.class);
+        assertThat(hosts).extracting(NmapXmlParser.Host::ipAddress).containsExactly("10.0.0.1");
+    }
+
+    private static List<NmapXmlParser.Host> parseFixture() throws Exception {
+        List<NmapXmlParser.Host> hosts = new ArrayList<>();
+        try (InputStream in = NmapXmlParserTest.class.getResourceAsStream("/nmap/deep-scan.xml")) {
+            assertThat(NmapXmlParser.parse(in, hosts::add)).isEqualTo(3);
+        }
+        return hosts;
+    }
+}
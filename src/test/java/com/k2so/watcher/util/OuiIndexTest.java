@@ -0,0 +1,82 @@
+package com.k2so.watcher.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OuiIndexTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void compiledIndexAnswersLikeTheRegistryItWasBuiltFrom() throws IOException {
+        Path source = directory.resolve("ieee-oui.txt");
+        OuiLookupBenchmark.writeGeneratedRegistry(source);
+        Path indexFile = directory.resolve("oui-index.bin");
+
+        OuiRegistry registry = OuiRegistry.load(source);
+        OuiIndex.compile(source, indexFile);
+        OuiIndex index = OuiIndex.open(indexFile);
+
+        assertThat(index.size()).isEqualTo(registry.size());
+        assertThat(index.getVendorCount()).isEqualTo(registry.getVendorCount());
+        Random random = new Random(3);
+        for (int i = 0; i < 50_000; i++) {
+            // Mostly in the low prefixes the generated registry assigns, including its MA-M and MA-S blocks
+            long mac = i % 4 == 0
+                    ? random.nextLong() & 0xFFFF_FFFF_FFFFL
+                    : ((long) random.nextInt(0x2_0000) << 24) | (random.nextLong() & 0xFF_FFFFL);
+            assertThat(index.lookup(mac)).as(MacAddress.format(mac)).isEqualTo(registry.lookup(mac));
+        }
+    }
+
+    @Test
+    void keepsNonAsciiVendorNames() throws IOException {
+        Path source = directory.resolve("oui.csv");
+        Files.writeString(source, """
+                MA-L,001A2B,Société Générale d'Électronique,Paris FR
+                MA-S,70B3D5123,株式会社テスト,Tokyo JP
+                """);
+        Path indexFile = directory.resolve("oui-index.bin");
+        OuiIndex.compile(source, indexFile);
+        OuiIndex index = OuiIndex.open(indexFile);
+
+        assertThat(index.lookup(MacAddress.parse("00:1A:2B:00:00:01").toLong()))
+                .isEqualTo("Société Générale d'Électronique");
+        assertThat(index.lookup(MacAddress.parse("70:B3:D5:12:30:01").toLong())).isEqualTo("株式会社テスト");
+        assertThat(index.lookup(MacAddress.parse("70:B3:D5:12:40:01").toLong())).isNull();
+    }
+
+    @Test
+    void tracksTheSourceItWasCompiledFrom() throws IOException {
+        Path source = directory.resolve("oui.txt");
+        Files.writeString(source, "001A2B\tAyecom Technology Co.\n");
+        Path indexFile = directory.resolve("oui-index.bin");
+        OuiIndex.compile(source, indexFile);
+
+        assertThat(OuiIndex.open(indexFile).isCompiledFrom(source)).isTrue();
+
+        Files.writeString(source, "001A2B\tAyecom Technology Co.\nF0D5BF\tIntel Corporate\n");
+        Files.setLastModifiedTime(source, FileTime.fromMillis(Files.getLastModifiedTime(source).toMillis() + 1000));
+        assertThat(OuiIndex.open(indexFile).isCompiledFrom(source)).isFalse();
+    }
+
+    @Test
+    void rejectsFilesThatAreNotAnIndex() throws IOException {
+        Path notAnIndex = directory.resolve("oui-index.bin");
+        Files.writeString(notAnIndex, "001A2B\tAyecom Technology Co.\n".repeat(4));
+
+        assertThatThrownBy(() -> OuiIndex.open(notAnIndex))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Not an OUI index");
+    }
+}
@@ -0,0 +1,72 @@
+package com.k2so.watcher.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OuiRegistryTest {
+
+    private static final String CSV = """
+            Registry,Assignment,Organization Name,Organization Address
+            MA-L,001A2B,Ayecom Technology Co.,Taipei TW
+            MA-L,F0D5BF,"Intel Corporate, Inc.",Santa Clara US
+            MA-M,001A2B5,"Quoted ""Medium"" Vendor",
+            MA-S,001A2B5C1,Small Block Ltd,
+            """;
+
+    private static final String TEXT = """
+            # arp-scan ieee-oui.txt
+            001A2B\tAyecom Technology Co.
+            F0D5BF\tIntel Corporate, Inc.
+            001A2B5\tQuoted "Medium" Vendor
+            001A2B5C1\tSmall Block Ltd
+            00XYZ0\tNot hex
+            001A2\tToo short
+            0011223\t
+            """;
+
+    @Test
+    void csvAndTextRegistriesReadTheSameAssignments() throws IOException {
+        OuiRegistry csv = OuiRegistry.parse(new StringReader(CSV));
+        OuiRegistry text = OuiRegistry.parse(new StringReader(TEXT));
+
+        assertThat(csv.size()).isEqualTo(4);
+        assertThat(text.size()).isEqualTo(4);
+        assertThat(csv.getVendorCount()).isEqualTo(4);
+        for (String mac : new String[]{"00:1A:2B:00:00:01", "F0:D5:BF:12:34:56", "00:1A:2B:5F:00:00",
+                "00:1A:2B:5C:10:00", "00:11:22:33:44:55"}) {
+            long value = MacAddress.parse(mac).toLong();
+            assertThat(text.lookup(value)).as(mac).isEqualTo(csv.lookup(value));
+        }
+        assertThat(csv.lookup(MacAddress.parse("F0:D5:BF:12:34:56").toLong())).isEqualTo("Intel Corporate, Inc.");
+    }
+
+    @Test
+    void longestRegisteredPrefixWins() throws IOException {
+        OuiRegistry registry = OuiRegistry.parse(new StringReader(CSV));
+
+        assertThat(registry.lookup(mac("00:1A:2B:5C:1F:FF"))).isEqualTo("Small Block Ltd");
+        assertThat(registry.lookup(mac("00:1A:2B:5C:20:00"))).isEqualTo("Quoted \"Medium\" Vendor");
+        assertThat(registry.lookup(mac("00:1A:2B:60:00:00"))).isEqualTo("Ayecom Technology Co.");
+        assertThat(registry.lookup(mac("00:1A:2C:00:00:00"))).isNull();
+        assertThat(OuiRegistry.empty().lookup(mac("00:1A:2B:5C:1F:FF"))).isNull();
+    }
+
+    @Test
+    void repeatedAssignmentsAreKeptOnceAndVendorsShared() throws IOException {
+        OuiRegistry registry = OuiRegistry.parse(new StringReader(CSV + CSV.lines().skip(1)
+                .map(line -> line.replace("001A2B,", "001A2C,") + "\n")
+                .reduce("", String::concat)));
+
+        assertThat(registry.size()).isEqualTo(5);
+        assertThat(registry.getVendorCount()).isEqualTo(4);
+        assertThat(registry.lookup(mac("00:1A:2C:00:00:00"))).isEqualTo("Ayecom Technology Co.");
+    }
+
+    private static long mac(String text) {
+        return MacAddress.parse(text).toLong();
+    }
+}
@@ -0,0 +1,104 @@
+-- H2 2.2.224; 
+SET DB_CLOSE_DELAY -1;         
+;              
+CREATE USER IF NOT EXISTS "SA" SALT 'fda2066428e81479' HASH '5f19dd122530668cc69848182116b4f3f78b30b71a1d21a50f4b5f6b10e8dfa7' ADMIN;          
+CREATE MEMORY TABLE "PUBLIC"."APP_SETTINGS"(
+    "ID" BIGINT GENERATED BY DEFAULT AS IDENTITY(START WITH 1) NOT NULL,
+    "DESCRIPTION" CHARACTER VARYING(255),
+    "SETTING_KEY" CHARACTER VARYING(255) NOT NULL,
+    "UPDATED_AT" TIMESTAMP(6),
+    "SETTING_VALUE" CHARACTER VARYING(2000)
+);               
+ALTER TABLE "PUBLIC"."APP_SETTINGS" ADD CONSTRAINT "PUBLIC"."CONSTRAINT_5" PRIMARY KEY("ID");  
+-- 0 +/- SELECT COUNT(*) FROM PUBLIC.APP_SETTINGS;             
+CREATE MEMORY TABLE "PUBLIC"."DEVICE_SERVICE_URLS"(
+    "ID" BIGINT GENERATED BY DEFAULT AS IDENTITY(START WITH 1) NOT NULL,
+    "ALIAS" CHARACTER VARYING(255) NOT NULL,
+    "URL" CHARACTER VARYING(255) NOT NULL,
+    "DEVICE_ID" BIGINT NOT NULL
+);        
+ALTER TABLE "PUBLIC"."DEVICE_SERVICE_URLS" ADD CONSTRAINT "PUBLIC"."CONSTRAINT_9" PRIMARY KEY("ID");           
+-- 0 +/- SELECT COUNT(*) FROM PUBLIC.DEVICE_SERVICE_URLS;      
+CREATE MEMORY TABLE "PUBLIC"."DEVICES"(
+    "ID" BIGINT GENERATED BY DEFAULT AS IDENTITY(START WITH 1 RESTART WITH 3) NOT NULL,
+    "AI_IDENTIFICATION" CHARACTER VARYING(255),
+    "CONNECTION_TYPE" CHARACTER VARYING(255),
+    "CUSTOM_NAME" CHARACTER VARYING(255),
+    "DEEP_SCAN_LOG" CHARACTER VARYING,
+    "DETECTED_OS" CHARACTER VARYING(255),
+    "DEVICE_TYPE" CHARACTER VARYING(50),
+    "FIRST_SEEN" TIMESTAMP(6),
+    "HOSTNAME" CHARACTER VARYING(255),
+    "IP_ADDRESS" CHARACTER VARYING(255),
+    "IS_KNOWN" BOOLEAN,
+    "LAST_DEEP_SCAN" TIMESTAMP(6),
+    "LAST_SEEN" TIMESTAMP(6),
+    "MAC_ADDRESS" CHARACTER VARYING(255) NOT NULL,
+    "NOTES" CHARACTER VARYING(1000),
+    "IS_ONLINE" BOOLEAN,
+    "OPEN_PORTS" CHARACTER VARYING(2000),
+    "IS_PINNED" BOOLEAN,
+    "SERVICE_URL" CHARACTER VARYING(255),
+    "IS_TRUSTED" BOOLEAN,
+    "VENDOR" CHARACTER VARYING(255)
+);       
+ALTER TABLE "PUBLIC"."DEVICES" ADD CONSTRAINT "PUBLIC"."CONSTRAINT_87" PRIMARY KEY("ID");      
+-- 2 +/- SELECT COUNT(*) FROM PUBLIC.DEVICES;  
+INSERT INTO "PUBLIC"."DEVICES" VALUES
+(1, NULL, NULL, NULL, U&'Starting Nmap 7.94\000aPORT STATE SERVICE\000a22/tcp open ssh\000a', NULL, 'NAS', TIMESTAMP '2026-10-17 01:15:20.674276', 'nas', '192.168.1.10', TRUE, NULL, TIMESTAMP '2026-10-17 01:15:20.674512', 'AA:BB:CC:00:00:01', 'Backup target in the closet', TRUE, '22/tcp ssh, 5000/tcp http', FALSE, NULL, FALSE, 'Synology'),
+(2, NULL, NULL, NULL, NULL, NULL, 'UNKNOWN', TIMESTAMP '2026-10-17 01:15:20.683261', NULL, '192.168.1.20', FALSE, NULL, TIMESTAMP '2026-10-17 01:15:20.683281', 'AA:BB:CC:00:00:02', NULL, FALSE, NULL, FALSE, NULL, FALSE, 'Apple');              
+CREATE MEMORY TABLE "PUBLIC"."NETWORK_SCANS"(
+    "ID" BIGINT GENERATED BY DEFAULT AS IDENTITY(START WITH 1 RESTART WITH 2) NOT NULL,
+    "COMPLETED_AT" TIMESTAMP(6),
+    "DEVICES_FOUND" INTEGER,
+    "ERROR_MESSAGE" CHARACTER VARYING(1000),
+    "NETWORK_RANGE" CHARACTER VARYING(255),
+    "NEW_DEVICES" INTEGER,
+    "SCAN_LOG" CHARACTER VARYING,
+    "SCAN_TYPE" CHARACTER VARYING(255),
+    "SCANNER_TOOL" CHARACTER VARYING(255),
+    "STARTED_AT" TIMESTAMP(6),
+    "STATUS" CHARACTER VARYING(255)
+);             
+ALTER TABLE "PUBLIC"."NETWORK_SCANS" ADD CONSTRAINT "PUBLIC"."CONSTRAINT_C" PRIMARY KEY("ID"); 
+-- 1 +/- SELECT COUNT(*) FROM PUBLIC.NETWORK_SCANS;            
+INSERT INTO "PUBLIC"."NETWORK_SCANS" VALUES
+(1, TIMESTAMP '2026-10-17 01:15:20.589061', 2, NULL, '192.168.1.0/24', 2, U&'192.168.1.10\0009aa:bb:cc:00:00:01\0009Vendor A\000a', 'MANUAL', 'arp-scan', TIMESTAMP '2026-10-17 01:15:20.595014', 'RUNNING');      
+CREATE MEMORY TABLE "PUBLIC"."SCAN_RESULTS"(
+    "ID" BIGINT GENERATED BY DEFAULT AS IDENTITY(START WITH 1 RESTART WITH 3) NOT NULL,
+    "DETECTED_AT" TIMESTAMP(6),
+    "HOSTNAME" CHARACTER VARYING(255),
+    "IP_ADDRESS" CHARACTER VARYING(255),
+    "MAC_ADDRESS" CHARACTER VARYING(255),
+    "IS_NEW_DEVICE" BOOLEAN,
+    "RESPONSE_TIME_MS" INTEGER,
+    "VENDOR" CHARACTER VARYING(255),
+    "DEVICE_ID" BIGINT,
+    "NETWORK_SCAN_ID" BIGINT
+);       
+ALTER TABLE "PUBLIC"."SCAN_RESULTS" ADD CONSTRAINT "PUBLIC"."CONSTRAINT_A" PRIMARY KEY("ID");  
+-- 2 +/- SELECT COUNT(*) FROM PUBLIC.SCAN_RESULTS;             
+INSERT INTO "PUBLIC"."SCAN_RESULTS" VALUES
+(1, TIMESTAMP '2026-10-17 01:15:20.685087', NULL, '192.168.1.10', 'AA:BB:CC:00:00:01', TRUE, NULL, 'Synology', 1, 1),
+(2, TIMESTAMP '2026-10-17 01:15:20.695257', NULL, '192.168.1.20', 'AA:BB:CC:00:00:02', TRUE, NULL, 'Apple', 2, 1);            
+CREATE MEMORY TABLE "PUBLIC"."USERS"(
+    "ID" BIGINT GENERATED BY DEFAULT AS IDENTITY(START WITH 1) NOT NULL,
+    "CREATED_AT" TIMESTAMP(6),
+    "ENABLED" BOOLEAN NOT NULL,
+    "FAILED_LOGIN_ATTEMPTS" INTEGER,
+    "LAST_LOGIN" TIMESTAMP(6),
+    "LOCK_TIME" TIMESTAMP(6),
+    "PASSWORD" CHARACTER VARYING(255) NOT NULL,
+    "ROLE" CHARACTER VARYING(255) NOT NULL,
+    "TOTP_ENABLED" BOOLEAN,
+    "TOTP_SECRET" CHARACTER VARYING(255),
+    "USERNAME" CHARACTER VARYING(50) NOT NULL
+);             
+ALTER TABLE "PUBLIC"."USERS" ADD CONSTRAINT "PUBLIC"."CONSTRAINT_4" PRIMARY KEY("ID");         
+-- 0 +/- SELECT COUNT(*) FROM PUBLIC.USERS;    
+ALTER TABLE "PUBLIC"."USERS" ADD CONSTRAINT "PUBLIC"."UK_R43AF9AP4EDM43MMTQ01ODDJ6" UNIQUE("USERNAME");        
+ALTER TABLE "PUBLIC"."DEVICES" ADD CONSTRAINT "PUBLIC"."UK_BFDU66XGK53RKN5023CE70RVW" UNIQUE("MAC_ADDRESS");   
+ALTER TABLE "PUBLIC"."APP_SETTINGS" ADD CONSTRAINT "PUBLIC"."UK_7P82G7L6UVE2VD8L30DJHXPEL" UNIQUE("SETTING_KEY");              
+ALTER TABLE "PUBLIC"."SCAN_RESULTS" ADD CONSTRAINT "PUBLIC"."FK1U4VQSPJPQBULLB3NUMWQON52" FOREIGN KEY("DEVICE_ID") REFERENCES "PUBLIC"."DEVICES"("ID") NOCHECK;
+ALTER TABLE "PUBLIC"."DEVICE_SERVICE_URLS" ADD CONSTRAINT "PUBLIC"."FKDOJLDPACW6GG1TXBIFVSUB9HP" FOREIGN KEY("DEVICE_ID") REFERENCES "PUBLIC"."DEVICES"("ID") NOCHECK;         
+ALTER TABLE "PUBLIC"."SCAN_RESULTS" ADD CONSTRAINT "PUBLIC"."FK34P6QBEAEWOQXEDA93IP61V3U" FOREIGN KEY("NETWORK_SCAN_ID") REFERENCES "PUBLIC"."NETWORK_SCANS"("ID") NOCHECK;    